@@ -0,0 +1,62 @@
+#!/usr/bin/env bash
+# Измеряет запуск приложения: время до готовности по метрике application.ready.time,
+# время от запуска процесса до первого успешного ответа GET /animals и RSS процесса после него.
+# Затем проверяет, что эндпоинты списков всех трех контроллеров отвечают 200.
+#
+# Использование (из корня проекта, база данных должна быть запущена):
+#   scripts/measure-startup.sh jvm          # после mvn package
+#   scripts/measure-startup.sh fast-start   # после mvn -Pfast-start package
+#   scripts/measure-startup.sh native       # после mvn -Pnative native:compile
+# Порт задается переменной PORT (по умолчанию 8080).
+set -euo pipefail
+
+MODE=${1:-jvm}
+PORT=${PORT:-8080}
+BASE=http://localhost:$PORT
+JAR=vet-clinic-0.0.1-SNAPSHOT.jar
+
+case "$MODE" in
+    jvm)
+        CMD=(java -jar "target/$JAR")
+        ;;
+    fast-start)
+        CMD=(java -XX:SharedArchiveFile=target/app/application.jsa -Dspring.aot.enabled=true
+             -Dspring.profiles.active=fast-start -jar "target/app/$JAR")
+        ;;
+    native)
+        CMD=(./target/vet-clinic)
+        ;;
+    *)
+        echo "Unknown mode: $MODE (expected jvm, fast-start or native)" >&2
+        exit 2
+        ;;
+esac
+
+LOG=target/startup-$MODE.log
+started=$(date +%s%N)
+"${CMD[@]}" --server.port="$PORT" > "$LOG" 2>&1 &
+PID=$!
+trap 'kill "$PID" 2>/dev/null; wait "$PID" 2>/dev/null || true' EXIT
+
+until curl -sf -o /dev/null "$BASE/animals"; do
+    if ! kill -0 "$PID" 2>/dev/null; then
+        echo "Application exited, see $LOG" >&2
+        exit 1
+    fi
+    sleep 0.05
+done
+first_request_ms=$(( ($(date +%s%N) - started) / 1000000 ))
+
+ready_s=$(curl -sf "$BASE/actuator/metrics/application.ready.time" | sed -E 's/.*"value":([0-9.Ee+-]+).*/\1/')
+rss_kb=$(awk '/^VmRSS/ {print $2}' "/proc/$PID/status")
+
+printf '%-12s ready %8.3f s   first request %6d ms   RSS %6d MB\n' \
+    "$MODE" "$ready_s" "$first_request_ms" $(( rss_kb / 1024 ))
+
+for endpoint in /animals /animal-types /medical-records; do
+    status=$(curl -s -o /dev/null -w '%{http_code}' "$BASE$endpoint")
+    if [ "$status" != 200 ]; then
+        echo "GET $endpoint returned $status, see $LOG" >&2
+        exit 1
+    fi
+done
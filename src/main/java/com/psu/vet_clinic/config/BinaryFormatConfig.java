@@ -0,0 +1,43 @@
+package com.psu.vet_clinic.config;
+
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.converter.cbor.MappingJackson2CborHttpMessageConverter;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.http.converter.smile.MappingJackson2SmileHttpMessageConverter;
+
+/**
+ * Конфигурация бинарных форматов обмена данными.
+ * Позволяет клиентам REST API получать и отправлять данные в форматах CBOR ({@code application/cbor})
+ * и Smile ({@code application/x-jackson-smile}) вместо JSON. Формат выбирается по заголовкам
+ * {@code Accept} и {@code Content-Type}; по умолчанию используется JSON.
+ */
+@Configuration
+public class BinaryFormatConfig {
+
+    /**
+     * Конвертер сообщений для формата CBOR.
+     * Использует те же настройки сериализации, что и JSON.
+     *
+     * @param builder Построитель ObjectMapper с настройками Spring Boot
+     * @return Конвертер для application/cbor
+     */
+    @Bean
+    public MappingJackson2CborHttpMessageConverter cborHttpMessageConverter(Jackson2ObjectMapperBuilder builder) {
+        return new MappingJackson2CborHttpMessageConverter(builder.factory(new CBORFactory()).build());
+    }
+
+    /**
+     * Конвертер сообщений для формата Smile.
+     * Использует те же настройки сериализации, что и JSON.
+     *
+     * @param builder Построитель ObjectMapper с настройками Spring Boot
+     * @return Конвертер для application/x-jackson-smile
+     */
+    @Bean
+    public MappingJackson2SmileHttpMessageConverter smileHttpMessageConverter(Jackson2ObjectMapperBuilder builder) {
+        return new MappingJackson2SmileHttpMessageConverter(builder.factory(new SmileFactory()).build());
+    }
+}
@@ -0,0 +1,129 @@
+package com.psu.vet_clinic.config;
+
+import com.zaxxer.hikari.HikariConfigMXBean;
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.HikariPoolMXBean;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.jdbc.DataSourceUnwrapper;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Советник по размеру пула соединений основной базы данных.
+ *
+ * <p>Периодически сравнивает среднее время получения соединения за последний интервал
+ * (по метрике {@code hikaricp.connections.acquire}) и число ожидающих потоков с целевым значением
+ * и вычисляет рекомендуемый размер пула:</p>
+ * <ul>
+ *     <li>если соединения ждут дольше цели и есть ожидающие потоки — размер увеличивается на шаг;</li>
+ *     <li>если ожидания нет, а больше половины соединений простаивает — размер уменьшается на шаг.</li>
+ * </ul>
+ *
+ * <p>Режим задается свойством {@code vet-clinic.pool-advisor.mode}: {@code off} — выключен,
+ * {@code recommend} — рекомендация публикуется в метрике {@code hikaricp.pool.recommended.size}
+ * и в журнале, {@code adjust} — размер пула изменяется автоматически в пределах min/max.</p>
+ */
+@Component
+public class ConnectionPoolAdvisor {
+
+    private static final Logger log = LoggerFactory.getLogger(ConnectionPoolAdvisor.class);
+
+    private final HikariDataSource hikari;
+    private final MeterRegistry meterRegistry;
+
+    private final String mode;
+    private final double targetAcquireMs;
+    private final int minSize;
+    private final int maxSize;
+    private final int step;
+
+    private volatile int recommendedSize;
+    private long lastCount;
+    private double lastTotalMs;
+
+    /**
+     * Конструктор с внедрением зависимостей и настроек.
+     *
+     * @param dataSource Источник данных (используется пул Hikari основной базы данных)
+     * @param meterRegistry Реестр метрик
+     * @param mode Режим работы: off, recommend или adjust
+     * @param targetAcquireMs Целевое среднее время получения соединения в миллисекундах
+     * @param minSize Минимальный рекомендуемый размер пула
+     * @param maxSize Максимальный рекомендуемый размер пула
+     * @param step Шаг изменения размера пула
+     */
+    public ConnectionPoolAdvisor(
+            DataSource dataSource,
+            MeterRegistry meterRegistry,
+            @Value("${vet-clinic.pool-advisor.mode:recommend}") String mode,
+            @Value("${vet-clinic.pool-advisor.target-acquire-ms:5}") double targetAcquireMs,
+            @Value("${vet-clinic.pool-advisor.min-size:5}") int minSize,
+            @Value("${vet-clinic.pool-advisor.max-size:40}") int maxSize,
+            @Value("${vet-clinic.pool-advisor.step:2}") int step) {
+        this.hikari = DataSourceUnwrapper.unwrap(dataSource, HikariDataSource.class);
+        this.meterRegistry = meterRegistry;
+        this.mode = mode;
+        this.targetAcquireMs = targetAcquireMs;
+        this.minSize = minSize;
+        this.maxSize = maxSize;
+        this.step = step;
+        if (hikari != null) {
+            this.recommendedSize = hikari.getMaximumPoolSize();
+            meterRegistry.gauge("hikaricp.pool.recommended.size", this, advisor -> advisor.recommendedSize);
+        }
+    }
+
+    /**
+     * Пересчитывает рекомендуемый размер пула по данным за последний интервал.
+     */
+    @Scheduled(fixedDelayString = "${vet-clinic.pool-advisor.interval-ms:30000}")
+    public void evaluate() {
+        if (hikari == null || "off".equalsIgnoreCase(mode)) {
+            return;
+        }
+        HikariPoolMXBean pool = hikari.getHikariPoolMXBean();
+        Timer acquire = meterRegistry.find("hikaricp.connections.acquire")
+                .tag("pool", hikari.getPoolName())
+                .timer();
+        if (pool == null || acquire == null) {
+            return;
+        }
+
+        long count = acquire.count();
+        double totalMs = acquire.totalTime(TimeUnit.MILLISECONDS);
+        double meanAcquireMs = count > lastCount ? (totalMs - lastTotalMs) / (count - lastCount) : 0;
+        lastCount = count;
+        lastTotalMs = totalMs;
+
+        HikariConfigMXBean config = hikari.getHikariConfigMXBean();
+        int current = config.getMaximumPoolSize();
+        int waiting = pool.getThreadsAwaitingConnection();
+        int idle = pool.getIdleConnections();
+
+        int recommended = current;
+        if (meanAcquireMs > targetAcquireMs && waiting > 0) {
+            recommended = Math.min(maxSize, current + step);
+        } else if (waiting == 0 && idle * 2 > current) {
+            recommended = Math.max(minSize, current - step);
+        }
+        recommendedSize = recommended;
+
+        if (recommended != current) {
+            log.info("Pool {}: mean acquire {} ms, waiting {}, idle {}/{} -> recommended size {}",
+                    hikari.getPoolName(), String.format("%.2f", meanAcquireMs), waiting, idle, current, recommended);
+            if ("adjust".equalsIgnoreCase(mode)) {
+                config.setMaximumPoolSize(recommended);
+                if (config.getMinimumIdle() > recommended) {
+                    config.setMinimumIdle(recommended);
+                }
+            }
+        }
+    }
+}
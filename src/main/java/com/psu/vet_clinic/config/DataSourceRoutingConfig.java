@@ -0,0 +1,104 @@
+package com.psu.vet_clinic.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.sql.DataSource;
+
+/**
+ * Конфигурация источников данных: разделение чтения и записи между основной базой данных и репликой.
+ * Реплика подключается, если задано свойство {@code vet-clinic.datasource.replica.jdbc-url}.
+ *
+ * <p>Транзакции с {@code @Transactional(readOnly = true)} получают соединения с реплики
+ * (без реплики — с основной базы данных), помеченные только для чтения; остальные — соединения
+ * с основной базы данных (см. {@link TransactionRoutingDataSource}). Решение принимается
+ * в момент первого обращения к соединению, когда признак readOnly транзакции уже известен.
+ * Соединение возвращается в пул после каждой транзакции
+ * ({@code hibernate.connection.handling_mode=DELAYED_ACQUISITION_AND_RELEASE_AFTER_TRANSACTION}),
+ * поэтому каждая транзакция одного HTTP-запроса выбирает пул заново.</p>
+ *
+ * <p>Оба пула — HikariDataSource, поэтому для каждого публикуются метрики
+ * {@code hikaricp.connections.*} с тегом {@code pool} (primary, replica).</p>
+ */
+@Configuration
+@EnableConfigurationProperties(DataSourceProperties.class)
+public class DataSourceRoutingConfig {
+
+    /**
+     * Пул соединений основной базы данных, настроенный свойствами {@code spring.datasource.*}.
+     *
+     * @param properties Свойства основного источника данных
+     * @return Пул соединений основной базы данных
+     */
+    @Bean
+    @ConfigurationProperties("spring.datasource.hikari")
+    public HikariDataSource primaryDataSource(DataSourceProperties properties) {
+        HikariDataSource dataSource = properties.initializeDataSourceBuilder()
+                .type(HikariDataSource.class)
+                .build();
+        dataSource.setPoolName("primary");
+        return dataSource;
+    }
+
+    /**
+     * Пул соединений реплики, настроенный свойствами {@code vet-clinic.datasource.replica.*}
+     * (jdbc-url, username, password, maximum-pool-size и другие свойства Hikari).
+     *
+     * @return Пул соединений реплики
+     */
+    @Bean
+    @ConditionalOnProperty(name = "vet-clinic.datasource.replica.jdbc-url")
+    @ConfigurationProperties("vet-clinic.datasource.replica")
+    public HikariDataSource replicaDataSource() {
+        HikariDataSource dataSource = new HikariDataSource();
+        dataSource.setPoolName("replica");
+        dataSource.setReadOnly(true);
+        return dataSource;
+    }
+
+    /**
+     * Источник соединений для читающих транзакций с переключением на основную базу данных
+     * при недоступности или отставании реплики.
+     *
+     * @param replica Пул соединений реплики
+     * @param primary Пул соединений основной базы данных
+     * @param maxLagSeconds Допустимое отставание реплики в секундах
+     * @param meterRegistry Реестр метрик
+     * @return Источник соединений для читающих транзакций
+     */
+    @Bean(defaultCandidate = false)
+    @ConditionalOnProperty(name = "vet-clinic.datasource.replica.jdbc-url")
+    public ReplicaAwareDataSource readDataSource(
+            @Qualifier("replicaDataSource") DataSource replica,
+            @Qualifier("primaryDataSource") DataSource primary,
+            @Value("${vet-clinic.datasource.replica.max-lag-seconds:5}") double maxLagSeconds,
+            MeterRegistry meterRegistry) {
+        return new ReplicaAwareDataSource(replica, primary, maxLagSeconds, meterRegistry);
+    }
+
+    /**
+     * Основной источник данных приложения, направляющий транзакции по признаку readOnly.
+     *
+     * @param primary Пул соединений основной базы данных
+     * @param readDataSource Источник соединений для читающих транзакций, если настроена реплика
+     * @return Маршрутизирующий источник данных
+     */
+    @Bean
+    @Primary
+    public DataSource dataSource(@Qualifier("primaryDataSource") DataSource primary,
+                                 @Qualifier("readDataSource") ObjectProvider<DataSource> readDataSource) {
+        return new LazyConnectionDataSourceProxy(
+                new TransactionRoutingDataSource(primary, readDataSource.getIfAvailable(() -> primary)));
+    }
+}
@@ -0,0 +1,37 @@
+package com.psu.vet_clinic.config;
+
+import com.psu.vet_clinic.dto.AnimalRow;
+import com.psu.vet_clinic.dto.AppointmentOutcome;
+import com.psu.vet_clinic.dto.AuditSnapshot;
+import com.psu.vet_clinic.dto.CompactAnimals;
+import com.psu.vet_clinic.dto.CompactMedicalRecords;
+import com.psu.vet_clinic.dto.IngestTicket;
+import com.psu.vet_clinic.dto.MedicalRecordRow;
+import com.psu.vet_clinic.dto.TimeSlot;
+import com.psu.vet_clinic.entity.Animal;
+import com.psu.vet_clinic.entity.AnimalType;
+import com.psu.vet_clinic.entity.Appointment;
+import com.psu.vet_clinic.entity.AuditEntry;
+import com.psu.vet_clinic.entity.MedicalRecord;
+import com.psu.vet_clinic.entity.OutboxEvent;
+import com.psu.vet_clinic.entity.Reminder;
+import org.springframework.aot.hint.annotation.RegisterReflectionForBinding;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.data.domain.SliceImpl;
+
+/**
+ * Подсказки для сборки нативного образа GraalVM.
+ * Регистрирует рефлексию для типов, которые сериализуются Jackson вне сигнатур контроллеров
+ * (события outbox, сжатые ответы), для сущностей JPA, используемых как тела запросов и ответов,
+ * и для страниц данных, свойства которых читаются шаблонами Thymeleaf.
+ * В обычной JVM-сборке не влияет на работу приложения.
+ */
+@Configuration
+@RegisterReflectionForBinding({
+        Animal.class, AnimalType.class, MedicalRecord.class, Appointment.class, Reminder.class, OutboxEvent.class,
+        AnimalRow.class, MedicalRecordRow.class, CompactAnimals.class, CompactMedicalRecords.class,
+        IngestTicket.class, TimeSlot.class, AppointmentOutcome.class, AuditEntry.class, AuditSnapshot.class,
+        SliceImpl.class
+})
+public class NativeHintsConfig {
+}
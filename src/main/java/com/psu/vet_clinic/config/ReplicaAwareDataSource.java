@@ -0,0 +1,122 @@
+package com.psu.vet_clinic.config;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+import org.springframework.scheduling.annotation.Scheduled;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+/**
+ * Источник соединений для читающих транзакций.
+ * Выдает соединения с реплики, пока она доступна и ее отставание не превышает порога;
+ * иначе — соединения с основной базы данных.
+ *
+ * <p>Отставание проверяется периодически: если реплика применила все полученные изменения
+ * ({@code pg_last_wal_receive_lsn() = pg_last_wal_replay_lsn()}), оно равно нулю, иначе это время
+ * с момента последней примененной транзакции ({@code pg_last_xact_replay_timestamp()}). Сравнение
+ * позиций нужно потому, что при отсутствии записей на основной базе данных время последней
+ * примененной транзакции растет, хотя реплика не отстает.
+ * Для экземпляра, который не является репликой (например, второй локальной базы данных),
+ * отставание считается нулевым.</p>
+ *
+ * <p>Метрика {@code datasource.routing.reads} учитывает выданные соединения с тегом
+ * {@code target} (replica или primary).</p>
+ */
+public class ReplicaAwareDataSource extends DelegatingDataSource {
+
+    private static final Logger log = LoggerFactory.getLogger(ReplicaAwareDataSource.class);
+
+    private static final String LAG_QUERY = """
+            select case
+                when not pg_is_in_recovery() then 0
+                when pg_last_wal_receive_lsn() = pg_last_wal_replay_lsn() then 0
+                else coalesce(extract(epoch from now() - pg_last_xact_replay_timestamp()), 0)
+            end
+            """;
+
+    private final DataSource primary;
+    private final double maxLagSeconds;
+    private final MeterRegistry meterRegistry;
+    private volatile boolean replicaUsable = true;
+
+    /**
+     * Создает источник соединений для читающих транзакций.
+     *
+     * @param replica Пул соединений реплики
+     * @param primary Пул соединений основной базы данных
+     * @param maxLagSeconds Допустимое отставание реплики в секундах
+     * @param meterRegistry Реестр метрик
+     */
+    public ReplicaAwareDataSource(DataSource replica, DataSource primary,
+                                  double maxLagSeconds, MeterRegistry meterRegistry) {
+        super(replica);
+        this.primary = primary;
+        this.maxLagSeconds = maxLagSeconds;
+        this.meterRegistry = meterRegistry;
+        meterRegistry.gauge("datasource.replica.usable", this, ds -> ds.replicaUsable ? 1 : 0);
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        if (replicaUsable) {
+            try {
+                Connection connection = obtainTargetDataSource().getConnection();
+                count("replica");
+                return connection;
+            } catch (SQLException ex) {
+                log.warn("Replica unavailable, routing reads to primary: {}", ex.getMessage());
+                replicaUsable = false;
+            }
+        }
+        count("primary");
+        return primary.getConnection();
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        return getConnection();
+    }
+
+    /**
+     * Возвращает признак того, что соединения для чтения сейчас выдаются с реплики.
+     *
+     * @return true, если реплика доступна и ее отставание не превышает порога
+     */
+    public boolean isReplicaUsable() {
+        return replicaUsable;
+    }
+
+    /**
+     * Проверяет доступность и отставание реплики и включает или отключает чтение с нее.
+     */
+    @Scheduled(fixedDelayString = "${vet-clinic.datasource.replica.lag-check-interval-ms:5000}")
+    public void checkReplica() {
+        boolean usable;
+        try (Connection connection = obtainTargetDataSource().getConnection();
+             Statement statement = connection.createStatement();
+             ResultSet rs = statement.executeQuery(LAG_QUERY)) {
+            rs.next();
+            double lag = rs.getDouble(1);
+            usable = lag <= maxLagSeconds;
+            if (!usable && replicaUsable) {
+                log.warn("Replica lag {}s exceeds {}s, routing reads to primary", lag, maxLagSeconds);
+            }
+        } catch (SQLException ex) {
+            usable = false;
+        }
+        if (usable && !replicaUsable) {
+            log.info("Replica is back, routing reads to replica");
+        }
+        replicaUsable = usable;
+    }
+
+    private void count(String target) {
+        meterRegistry.counter("datasource.routing.reads", "target", target).increment();
+    }
+}
@@ -0,0 +1,18 @@
+package com.psu.vet_clinic.config;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+/**
+ * Конфигурация планировщика задач.
+ * Включает выполнение методов, помеченных аннотацией {@code @Scheduled}.
+ *
+ * <p>Все периодические задачи выполняются общим пулом планировщика. По умолчанию в нем один поток,
+ * и ночной расчет напоминаний на время своей работы останавливал бы опрос outbox, проверку
+ * отставания реплики и остальные задачи, поэтому размер пула задается параметром
+ * {@code spring.task.scheduling.pool.size}.</p>
+ */
+@Configuration
+@EnableScheduling
+public class SchedulingConfig {
+}
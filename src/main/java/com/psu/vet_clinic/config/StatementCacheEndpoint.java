@@ -0,0 +1,71 @@
+package com.psu.vet_clinic.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.jdbc.DataSourceUnwrapper;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Properties;
+
+/**
+ * Эндпоинт Actuator {@code /actuator/statementcache}.
+ * Показывает настройки кэша подготовленных выражений драйвера PostgreSQL
+ * и статистику кэша планов запросов Hibernate, чтобы проверить, что повторяющиеся
+ * запросы репозиториев выполняются по закэшированным планам.
+ * Статистика Hibernate собирается, только если задано {@code vet-clinic.hibernate.statistics=true};
+ * иначе счетчики равны нулю, а {@code statisticsEnabled} — false.
+ */
+@Component
+@Endpoint(id = "statementcache")
+public class StatementCacheEndpoint {
+
+    private final HikariDataSource hikari;
+    private final Statistics statistics;
+
+    /**
+     * Конструктор с внедрением зависимостей.
+     *
+     * @param dataSource Источник данных (используется пул Hikari основной базы данных)
+     * @param entityManagerFactory Фабрика EntityManager (для статистики Hibernate)
+     */
+    public StatementCacheEndpoint(DataSource dataSource, EntityManagerFactory entityManagerFactory) {
+        this.hikari = DataSourceUnwrapper.unwrap(dataSource, HikariDataSource.class);
+        this.statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+    }
+
+    /**
+     * Возвращает настройки драйвера и статистику кэша планов.
+     *
+     * @return Настройки и статистика
+     */
+    @ReadOperation
+    public Map<String, Object> statementCache() {
+        Map<String, Object> driver = new LinkedHashMap<>();
+        if (hikari != null) {
+            Properties props = hikari.getDataSourceProperties();
+            driver.put("prepareThreshold", props.getProperty("prepareThreshold", "5"));
+            driver.put("preparedStatementCacheQueries", props.getProperty("preparedStatementCacheQueries", "256"));
+            driver.put("preparedStatementCacheSizeMiB", props.getProperty("preparedStatementCacheSizeMiB", "5"));
+        }
+
+        Map<String, Object> hibernate = new LinkedHashMap<>();
+        hibernate.put("statisticsEnabled", statistics.isStatisticsEnabled());
+        hibernate.put("queryPlanCacheHitCount", statistics.getQueryPlanCacheHitCount());
+        hibernate.put("queryPlanCacheMissCount", statistics.getQueryPlanCacheMissCount());
+        hibernate.put("queryExecutionCount", statistics.getQueryExecutionCount());
+        hibernate.put("queryExecutionMaxTimeMs", statistics.getQueryExecutionMaxTime());
+        hibernate.put("prepareStatementCount", statistics.getPrepareStatementCount());
+
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("driver", driver);
+        result.put("hibernate", hibernate);
+        return result;
+    }
+}
@@ -0,0 +1,61 @@
+package com.psu.vet_clinic.config;
+
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.Map;
+
+/**
+ * Источник данных, выбирающий пул соединений по признаку readOnly текущей транзакции:
+ * транзакции {@code @Transactional(readOnly = true)} получают соединения из источника для чтения,
+ * остальные запросы — из основной базы данных.
+ *
+ * <p>Соединения читающих транзакций помечаются только для чтения ({@link Connection#setReadOnly}),
+ * и драйвер PostgreSQL начинает их транзакции с {@code BEGIN READ ONLY}. Hibernate при
+ * {@code DELAYED_ACQUISITION_AND_RELEASE_AFTER_TRANSACTION} сам этого не делает.
+ * Пул Hikari восстанавливает исходный признак при возврате соединения.</p>
+ *
+ * <p>Признак readOnly выставляется после начала транзакции, а Hibernate запрашивает соединение
+ * уже при ее начале, поэтому источник должен использоваться через
+ * {@link org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy}: тогда соединение
+ * выбирается при первом запросе к базе данных.</p>
+ */
+public class TransactionRoutingDataSource extends AbstractRoutingDataSource {
+
+    /**
+     * Создает источник данных.
+     *
+     * @param primary Пул соединений основной базы данных
+     * @param readDataSource Источник соединений для читающих транзакций
+     */
+    public TransactionRoutingDataSource(DataSource primary, DataSource readDataSource) {
+        setTargetDataSources(Map.of(false, primary, true, readDataSource));
+        setDefaultTargetDataSource(primary);
+        afterPropertiesSet();
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        return prepare(super.getConnection());
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        return prepare(super.getConnection(username, password));
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        return TransactionSynchronizationManager.isCurrentTransactionReadOnly();
+    }
+
+    private static Connection prepare(Connection connection) throws SQLException {
+        if (TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+            connection.setReadOnly(true);
+        }
+        return connection;
+    }
+}
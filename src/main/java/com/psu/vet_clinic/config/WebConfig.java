@@ -0,0 +1,37 @@
+package com.psu.vet_clinic.config;
+
+import com.psu.vet_clinic.web.RateLimitInterceptor;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+/**
+ * Конфигурация Spring MVC.
+ * Подключает ограничитель нагрузки к эндпоинтам REST API и страницам веб-интерфейса,
+ * которые загружают данные из базы.
+ */
+@Configuration
+public class WebConfig implements WebMvcConfigurer {
+
+    /**
+     * Ограничитель нагрузки на REST API
+     */
+    private final RateLimitInterceptor rateLimitInterceptor;
+
+    /**
+     * Конструктор с внедрением зависимости.
+     *
+     * @param rateLimitInterceptor Ограничитель нагрузки на REST API
+     */
+    public WebConfig(RateLimitInterceptor rateLimitInterceptor) {
+        this.rateLimitInterceptor = rateLimitInterceptor;
+    }
+
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        registry.addInterceptor(rateLimitInterceptor)
+                .addPathPatterns("/animals/**", "/animal-types/**", "/medical-records/**", "/appointments/**",
+                        "/reminders/**", "/reports/**", "/audit/**",
+                        "/animals.html", "/animal-types.html", "/medical-records.html");
+    }
+}
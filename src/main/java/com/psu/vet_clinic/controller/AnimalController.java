@@ -1,10 +1,13 @@
 package com.psu.vet_clinic.controller;
 
+import com.psu.vet_clinic.dto.CompactAnimals;
 import com.psu.vet_clinic.entity.Animal;
 import com.psu.vet_clinic.entity.AnimalType;
 import com.psu.vet_clinic.service.AnimalService;
 import com.psu.vet_clinic.service.AnimalTypeService;
+import com.psu.vet_clinic.web.IdempotencyStore;
 import jakarta.validation.Valid;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
 import java.util.List;
@@ -27,15 +30,23 @@ public class AnimalController {
      */
     private final AnimalTypeService animalTypeService;
 
+    /**
+     * Хранилище ответов для идемпотентных запросов
+     */
+    private final IdempotencyStore idempotencyStore;
+
     /**
      * Конструктор с внедрением зависимостей.
      *
      * @param animalService Сервис для работы с животными
      * @param animalTypeService Сервис для работы с типами животных
+     * @param idempotencyStore Хранилище ответов для идемпотентных запросов
      */
-    public AnimalController(AnimalService animalService, AnimalTypeService animalTypeService) {
+    public AnimalController(AnimalService animalService, AnimalTypeService animalTypeService,
+                            IdempotencyStore idempotencyStore) {
         this.animalService = animalService;
         this.animalTypeService = animalTypeService;
+        this.idempotencyStore = idempotencyStore;
     }
 
     /**
@@ -48,6 +59,17 @@ public class AnimalController {
         return animalService.findAll();
     }
 
+    /**
+     * Получает список всех животных в сжатом виде (параметр {@code view=compact}).
+     * Типы животных передаются один раз в справочнике, животные ссылаются на них по идентификатору.
+     *
+     * @return Сжатый список животных со справочником типов
+     */
+    @GetMapping(params = "view=compact")
+    public CompactAnimals findAllCompact() {
+        return CompactAnimals.of(animalService.findAll());
+    }
+
     /**
      * Получает информацию о животном по его идентификатору.
      *
@@ -62,20 +84,26 @@ public class AnimalController {
     /**
      * Создает новое животное в системе.
      * Перед сохранением проверяет существование типа животного.
+     * Повторный запрос с тем же заголовком Idempotency-Key возвращает сохраненный ответ без создания дубликата.
      *
      * @param animal Объект животного для создания
+     * @param idempotencyKey Ключ идемпотентности (необязательный)
      * @return Созданное животное с присвоенным идентификатором
      */
     @PostMapping
-    public Animal create(@Valid @RequestBody Animal animal) {
-        AnimalType type = animalTypeService.findById(animal.getAnimalType().getId());
-        animal.setAnimalType(type);
-        return animalService.save(animal);
+    public ResponseEntity<Animal> create(@Valid @RequestBody Animal animal,
+                                         @RequestHeader(value = "Idempotency-Key", required = false) String idempotencyKey) {
+        return idempotencyStore.execute("POST /animals", idempotencyKey, animal, () -> {
+            AnimalType type = animalTypeService.findById(animal.getAnimalType().getId());
+            animal.setAnimalType(type);
+            return ResponseEntity.ok(animalService.save(animal));
+        });
     }
 
     /**
      * Обновляет информацию о существующем животном.
-     * Проверяет существование животного и типа животного перед обновлением.
+     * Загружает тип животного, после чего обновляет животное одним запросом;
+     * существование животного проверяется по количеству обновленных строк.
      *
      * @param id Идентификатор животного для обновления
      * @param animal Новые данные животного
@@ -83,13 +111,10 @@ public class AnimalController {
      */
     @PutMapping("/{id}")
     public Animal update(@PathVariable Integer id, @Valid @RequestBody Animal animal) {
-        animalService.findById(id);
-        animal.setId(id);
-
         AnimalType type = animalTypeService.findById(animal.getAnimalType().getId());
         animal.setAnimalType(type);
 
-        return animalService.save(animal);
+        return animalService.update(id, animal);
     }
 
     /**
@@ -2,7 +2,9 @@ package com.psu.vet_clinic.controller;
 
 import com.psu.vet_clinic.entity.AnimalType;
 import com.psu.vet_clinic.service.AnimalTypeService;
+import com.psu.vet_clinic.web.IdempotencyStore;
 import jakarta.validation.Valid;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
 import java.util.List;
@@ -21,12 +23,19 @@ public class AnimalTypeController {
     private final AnimalTypeService service;
 
     /**
-     * Конструктор с внедрением зависимости.
+     * Хранилище ответов для идемпотентных запросов
+     */
+    private final IdempotencyStore idempotencyStore;
+
+    /**
+     * Конструктор с внедрением зависимостей.
      *
      * @param service Сервис для работы с типами животных
+     * @param idempotencyStore Хранилище ответов для идемпотентных запросов
      */
-    public AnimalTypeController(AnimalTypeService service) {
+    public AnimalTypeController(AnimalTypeService service, IdempotencyStore idempotencyStore) {
         this.service = service;
+        this.idempotencyStore = idempotencyStore;
     }
 
     /**
@@ -41,13 +50,17 @@ public class AnimalTypeController {
 
     /**
      * Создает новый тип животного в системе.
+     * Повторный запрос с тем же заголовком Idempotency-Key возвращает сохраненный ответ без создания дубликата.
      *
      * @param type Объект типа животного для создания
+     * @param idempotencyKey Ключ идемпотентности (необязательный)
      * @return Созданный тип животного с присвоенным идентификатором
      */
     @PostMapping
-    public AnimalType create(@Valid @RequestBody AnimalType type) {
-        return service.save(type);
+    public ResponseEntity<AnimalType> create(@Valid @RequestBody AnimalType type,
+                                             @RequestHeader(value = "Idempotency-Key", required = false) String idempotencyKey) {
+        return idempotencyStore.execute("POST /animal-types", idempotencyKey, type,
+                () -> ResponseEntity.ok(service.save(type)));
     }
 
     /**
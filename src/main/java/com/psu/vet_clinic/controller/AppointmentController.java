@@ -0,0 +1,156 @@
+package com.psu.vet_clinic.controller;
+
+import com.psu.vet_clinic.dto.AppointmentOutcome;
+import com.psu.vet_clinic.dto.TimeSlot;
+import com.psu.vet_clinic.entity.Appointment;
+import com.psu.vet_clinic.entity.MedicalRecord;
+import com.psu.vet_clinic.service.AnimalService;
+import com.psu.vet_clinic.service.AppointmentService;
+import com.psu.vet_clinic.web.IdempotencyStore;
+import jakarta.validation.Valid;
+import org.hibernate.Hibernate;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * Контроллер для записи животных на прием.
+ * Предоставляет REST API для поиска свободного времени, создания, отмены и завершения приемов.
+ */
+@RestController
+@RequestMapping("/appointments")
+public class AppointmentController {
+
+    /**
+     * Сервис записи на прием
+     */
+    private final AppointmentService service;
+
+    /**
+     * Сервис для работы с животными
+     */
+    private final AnimalService animalService;
+
+    /**
+     * Хранилище ответов для идемпотентных запросов
+     */
+    private final IdempotencyStore idempotencyStore;
+
+    /**
+     * Конструктор с внедрением зависимостей.
+     *
+     * @param service Сервис записи на прием
+     * @param animalService Сервис для работы с животными
+     * @param idempotencyStore Хранилище ответов для идемпотентных запросов
+     */
+    public AppointmentController(AppointmentService service, AnimalService animalService,
+                                 IdempotencyStore idempotencyStore) {
+        this.service = service;
+        this.animalService = animalService;
+        this.idempotencyStore = idempotencyStore;
+    }
+
+    /**
+     * Получает записи на прием на указанный день.
+     *
+     * @param date День в формате ГГГГ-ММ-ДД
+     * @return Список записей на прием в порядке начала
+     */
+    @GetMapping
+    public List<Appointment> findByDay(@RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate date) {
+        return service.findByDay(date);
+    }
+
+    /**
+     * Получает запись на прием по идентификатору.
+     *
+     * @param id Идентификатор записи на прием
+     * @return Запись на прием
+     */
+    @GetMapping("/{id}")
+    public Appointment findById(@PathVariable Integer id) {
+        return service.findById(id);
+    }
+
+    /**
+     * Получает все записи животного на прием.
+     *
+     * @param animalId Идентификатор животного
+     * @return Список записей на прием в порядке начала
+     */
+    @GetMapping("/by-animal/{animalId}")
+    public List<Appointment> findByAnimal(@PathVariable Integer animalId) {
+        return service.findByAnimalId(animalId);
+    }
+
+    /**
+     * Находит свободное время на указанный день.
+     * Если указаны животное и (или) ветеринар, учитывается занятость каждого из них.
+     *
+     * @param date День в формате ГГГГ-ММ-ДД
+     * @param duration Длительность приема в минутах
+     * @param animalId Идентификатор животного (необязательный)
+     * @param vet Ветеринар (необязательный)
+     * @return Свободные интервалы в порядке начала
+     */
+    @GetMapping("/slots")
+    public List<TimeSlot> findFreeSlots(@RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate date,
+                                        @RequestParam(defaultValue = "30") int duration,
+                                        @RequestParam(required = false) Integer animalId,
+                                        @RequestParam(required = false) String vet) {
+        return service.findFreeSlots(date, duration, animalId, vet);
+    }
+
+    /**
+     * Записывает животное на прием.
+     * Повторный запрос с тем же заголовком Idempotency-Key возвращает сохраненный ответ без создания дубликата.
+     *
+     * @param appointment Запись на прием с идентификатором животного
+     * @param idempotencyKey Ключ идемпотентности (необязательный)
+     * @return Созданная запись на прием
+     * @throws IllegalArgumentException Если идентификатор животного не указан
+     */
+    @PostMapping
+    public ResponseEntity<Appointment> create(@Valid @RequestBody Appointment appointment,
+                                              @RequestHeader(value = "Idempotency-Key", required = false) String idempotencyKey) {
+        if (appointment.getAnimal() == null || appointment.getAnimal().getId() == null) {
+            throw new IllegalArgumentException("Animal ID is required");
+        }
+
+        return idempotencyStore.execute("POST /appointments", idempotencyKey, appointment, () -> {
+            appointment.setAnimal(animalService.getReference(appointment.getAnimal().getId()));
+            Appointment saved = service.create(appointment);
+            if (IdempotencyStore.isPresent(idempotencyKey)) {
+                // Сохраненный ответ может быть повторно отправлен после закрытия сессии
+                Hibernate.initialize(saved.getAnimal());
+            }
+            return ResponseEntity.ok(saved);
+        });
+    }
+
+    /**
+     * Завершает прием и создает по нему медицинскую запись.
+     *
+     * @param id Идентификатор записи на прием
+     * @param outcome Итог приема с диагнозом
+     * @return Созданная медицинская запись
+     */
+    @PostMapping("/{id}/complete")
+    public MedicalRecord complete(@PathVariable Integer id, @RequestBody AppointmentOutcome outcome) {
+        return service.complete(id, outcome.diagnosis());
+    }
+
+    /**
+     * Отменяет прием и освобождает его время.
+     *
+     * @param id Идентификатор записи на прием
+     * @return Отмененная запись на прием
+     */
+    @PostMapping("/{id}/cancel")
+    public Appointment cancel(@PathVariable Integer id) {
+        return service.cancel(id);
+    }
+}
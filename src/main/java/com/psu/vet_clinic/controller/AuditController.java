@@ -0,0 +1,58 @@
+package com.psu.vet_clinic.controller;
+
+import com.psu.vet_clinic.dto.AuditSnapshot;
+import com.psu.vet_clinic.entity.AuditEntry;
+import com.psu.vet_clinic.service.AuditService;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.web.bind.annotation.*;
+
+import java.time.OffsetDateTime;
+import java.util.List;
+
+/**
+ * Контроллер для просмотра истории изменений животных, типов животных и медицинских записей.
+ */
+@RestController
+@RequestMapping("/audit")
+public class AuditController {
+
+    /**
+     * Сервис чтения истории изменений
+     */
+    private final AuditService service;
+
+    /**
+     * Конструктор с внедрением зависимости.
+     *
+     * @param service Сервис чтения истории изменений
+     */
+    public AuditController(AuditService service) {
+        this.service = service;
+    }
+
+    /**
+     * Получает все версии сущности: полное состояние при создании и измененные поля при обновлениях.
+     *
+     * @param entity Тип сущности: animals, animal-types или medical-records
+     * @param id Идентификатор сущности
+     * @return Список версий в порядке создания
+     */
+    @GetMapping("/{entity}/{id}")
+    public List<AuditEntry> findHistory(@PathVariable String entity, @PathVariable Integer id) {
+        return service.findHistory(entity, id);
+    }
+
+    /**
+     * Восстанавливает состояние сущности на указанный момент.
+     *
+     * @param entity Тип сущности: animals, animal-types или medical-records
+     * @param id Идентификатор сущности
+     * @param at Момент времени в формате ISO 8601 со смещением (например, 2026-10-01T12:00:00+03:00)
+     * @return Состояние сущности на указанный момент
+     */
+    @GetMapping(value = "/{entity}/{id}", params = "at")
+    public AuditSnapshot findStateAt(@PathVariable String entity, @PathVariable Integer id,
+                                     @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) OffsetDateTime at) {
+        return service.findStateAt(entity, id, at.toInstant());
+    }
+}
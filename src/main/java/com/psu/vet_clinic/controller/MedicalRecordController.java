@@ -1,9 +1,16 @@
 package com.psu.vet_clinic.controller;
 
+import com.psu.vet_clinic.dto.CompactMedicalRecords;
+import com.psu.vet_clinic.dto.IngestTicket;
+import com.psu.vet_clinic.entity.Animal;
 import com.psu.vet_clinic.entity.MedicalRecord;
+import com.psu.vet_clinic.exception.NotFoundException;
 import com.psu.vet_clinic.service.AnimalService;
 import com.psu.vet_clinic.service.MedicalRecordService;
+import com.psu.vet_clinic.web.IdempotencyStore;
 import jakarta.validation.Valid;
+import org.hibernate.Hibernate;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
 import java.util.List;
@@ -26,16 +33,24 @@ public class MedicalRecordController {
      */
     private final AnimalService animalService;
 
+    /**
+     * Хранилище ответов для идемпотентных запросов
+     */
+    private final IdempotencyStore idempotencyStore;
+
     /**
      * Конструктор с внедрением зависимостей.
      *
      * @param service Сервис для работы с медицинскими записями
      * @param animalService Сервис для работы с животными
+     * @param idempotencyStore Хранилище ответов для идемпотентных запросов
      */
     public MedicalRecordController(MedicalRecordService service,
-                                   AnimalService animalService) {
+                                   AnimalService animalService,
+                                   IdempotencyStore idempotencyStore) {
         this.service = service;
         this.animalService = animalService;
+        this.idempotencyStore = idempotencyStore;
     }
 
     /**
@@ -48,25 +63,67 @@ public class MedicalRecordController {
         return service.findAll();
     }
 
+    /**
+     * Получает список всех медицинских записей в сжатом виде (параметр {@code view=compact}).
+     * Животные и их типы передаются по одному разу в справочниках, записи ссылаются на них по идентификатору.
+     *
+     * @return Сжатый список медицинских записей со справочниками животных и типов
+     */
+    @GetMapping(params = "view=compact")
+    public CompactMedicalRecords findAllCompact() {
+        return CompactMedicalRecords.of(service.findAll());
+    }
+
     /**
      * Создает новую медицинскую запись.
-     * Перед сохранением проверяет наличие идентификатора животного и загружает полный объект Animal.
+     * Перед сохранением проверяет наличие идентификатора животного и устанавливает ссылку на него
+     * без загрузки полного объекта Animal; существование животного в текущей клинике проверяется
+     * внешним ключом при вставке.
+     * В режиме отложенной записи запись помещается в очередь и возвращается статус 202 (Accepted)
+     * с идентификатором отслеживания.
+     * Повторный запрос с тем же заголовком Idempotency-Key возвращает сохраненный ответ без создания дубликата.
      *
      * @param record Объект медицинской записи для создания
+     * @param idempotencyKey Ключ идемпотентности (необязательный)
      * @return Созданная медицинская запись с присвоенным идентификатором
+     *         либо состояние записи, принятой в очередь
      * @throws IllegalArgumentException Если идентификатор животного не указан
+     * @throws NotFoundException Если животное не найдено в текущей клинике (при сохранении без очереди)
      */
     @PostMapping
-    public MedicalRecord create(@Valid @RequestBody MedicalRecord record) {
+    public ResponseEntity<?> create(@Valid @RequestBody MedicalRecord record,
+                                    @RequestHeader(value = "Idempotency-Key", required = false) String idempotencyKey) {
         if (record.getAnimal() == null || record.getAnimal().getId() == null) {
             throw new IllegalArgumentException("Animal ID is required");
         }
 
-        record.setAnimal(
-                animalService.findById(record.getAnimal().getId())
-        );
+        return idempotencyStore.<Object>execute("POST /medical-records", idempotencyKey, record, () -> {
+            Animal animal = animalService.getReference(record.getAnimal().getId());
+            if (service.isWriteBehindEnabled()) {
+                return ResponseEntity.accepted()
+                        .body(service.enqueue(record, animal.getId()));
+            }
+
+            record.setAnimal(animal);
+
+            MedicalRecord saved = service.save(record);
+            if (IdempotencyStore.isPresent(idempotencyKey)) {
+                // Сохраненный ответ может быть повторно отправлен после закрытия сессии
+                Hibernate.initialize(saved.getAnimal());
+            }
+            return ResponseEntity.ok(saved);
+        });
+    }
 
-        return service.save(record);
+    /**
+     * Получает состояние медицинской записи, принятой в очередь отложенной записи.
+     *
+     * @param trackingId Идентификатор отслеживания
+     * @return Состояние записи (PENDING, SAVED или FAILED) и идентификатор сохраненной записи
+     */
+    @GetMapping("/ingest/{trackingId}")
+    public IngestTicket findIngestStatus(@PathVariable String trackingId) {
+        return service.findIngestStatus(trackingId);
     }
 
     /**
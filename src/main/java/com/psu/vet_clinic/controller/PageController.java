@@ -0,0 +1,184 @@
+package com.psu.vet_clinic.controller;
+
+import com.psu.vet_clinic.service.AnimalService;
+import com.psu.vet_clinic.service.AnimalTypeService;
+import com.psu.vet_clinic.service.MedicalRecordService;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.stereotype.Controller;
+import org.springframework.ui.Model;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+
+import java.util.Map;
+
+/**
+ * Контроллер страниц веб-интерфейса.
+ * Страницы формируются на сервере шаблонами Thymeleaf и содержат только одну страницу данных
+ * без подсчета общего количества строк.
+ * Поиск и сортировка выполняются сервисами; неизвестное поле сортировки заменяется полем
+ * по умолчанию. Добавление, изменение и удаление выполняются со страниц через REST API.
+ */
+@Controller
+public class PageController {
+
+    /**
+     * Максимальный размер страницы, который можно запросить параметром size
+     */
+    private static final int MAX_PAGE_SIZE = 100;
+
+    /**
+     * Сервис для работы с животными
+     */
+    private final AnimalService animalService;
+
+    /**
+     * Сервис для работы с типами животных
+     */
+    private final AnimalTypeService animalTypeService;
+
+    /**
+     * Сервис для работы с медицинскими записями
+     */
+    private final MedicalRecordService medicalRecordService;
+
+    /**
+     * Размер страницы по умолчанию
+     */
+    private final int defaultPageSize;
+
+    /**
+     * Конструктор с внедрением зависимостей.
+     *
+     * @param animalService Сервис для работы с животными
+     * @param animalTypeService Сервис для работы с типами животных
+     * @param medicalRecordService Сервис для работы с медицинскими записями
+     * @param defaultPageSize Размер страницы по умолчанию
+     */
+    public PageController(AnimalService animalService, AnimalTypeService animalTypeService,
+                          MedicalRecordService medicalRecordService,
+                          @Value("${vet-clinic.pages.page-size:25}") int defaultPageSize) {
+        this.animalService = animalService;
+        this.animalTypeService = animalTypeService;
+        this.medicalRecordService = medicalRecordService;
+        this.defaultPageSize = defaultPageSize;
+    }
+
+    /**
+     * Открывает главную страницу.
+     *
+     * @return Имя шаблона
+     */
+    @GetMapping({"/", "/index.html"})
+    public String index() {
+        return "index";
+    }
+
+    /**
+     * Открывает страницу животных.
+     *
+     * @param q Строка поиска по кличке и породе
+     * @param sort Поле сортировки
+     * @param dir Направление сортировки: asc или desc
+     * @param page Номер страницы, начиная с 0
+     * @param size Размер страницы
+     * @param model Модель шаблона
+     * @return Имя шаблона
+     */
+    @GetMapping("/animals.html")
+    public String animals(@RequestParam(defaultValue = "") String q,
+                          @RequestParam(defaultValue = "name") String sort,
+                          @RequestParam(defaultValue = "asc") String dir,
+                          @RequestParam(defaultValue = "0") int page,
+                          @RequestParam(required = false) Integer size,
+                          Model model) {
+        sort = sortField(sort, AnimalService.SORT_FIELDS, "name");
+        model.addAttribute("page", animalService.findPage(q, pageable(page, size, sort, dir)));
+        model.addAttribute("types", animalTypeService.findAll());
+        addQuery(model, q, sort, dir);
+        return "animals";
+    }
+
+    /**
+     * Открывает страницу типов животных.
+     *
+     * @param q Строка поиска по названию
+     * @param sort Поле сортировки
+     * @param dir Направление сортировки: asc или desc
+     * @param page Номер страницы, начиная с 0
+     * @param size Размер страницы
+     * @param model Модель шаблона
+     * @return Имя шаблона
+     */
+    @GetMapping("/animal-types.html")
+    public String animalTypes(@RequestParam(defaultValue = "") String q,
+                              @RequestParam(defaultValue = "name") String sort,
+                              @RequestParam(defaultValue = "asc") String dir,
+                              @RequestParam(defaultValue = "0") int page,
+                              @RequestParam(required = false) Integer size,
+                              Model model) {
+        sort = sortField(sort, AnimalTypeService.SORT_FIELDS, "name");
+        model.addAttribute("page", animalTypeService.findPage(q, pageable(page, size, sort, dir)));
+        addQuery(model, q, sort, dir);
+        return "animal-types";
+    }
+
+    /**
+     * Открывает страницу медицинских записей всех животных или одного животного.
+     *
+     * @param animalId Идентификатор животного (необязательный)
+     * @param q Строка поиска по диагнозу и процедуре
+     * @param sort Поле сортировки
+     * @param dir Направление сортировки: asc или desc
+     * @param page Номер страницы, начиная с 0
+     * @param size Размер страницы
+     * @param model Модель шаблона
+     * @return Имя шаблона
+     */
+    @GetMapping("/medical-records.html")
+    public String medicalRecords(@RequestParam(required = false) Integer animalId,
+                                 @RequestParam(defaultValue = "") String q,
+                                 @RequestParam(defaultValue = "visitDate") String sort,
+                                 @RequestParam(defaultValue = "desc") String dir,
+                                 @RequestParam(defaultValue = "0") int page,
+                                 @RequestParam(required = false) Integer size,
+                                 Model model) {
+        if (animalId != null) {
+            model.addAttribute("animal", animalService.findById(animalId));
+        }
+        model.addAttribute("animalId", animalId);
+        sort = sortField(sort, MedicalRecordService.SORT_FIELDS, "visitDate");
+        model.addAttribute("page", medicalRecordService.findPage(animalId, q, pageable(page, size, sort, dir)));
+        addQuery(model, q, sort, dir);
+        return "medical-records";
+    }
+
+    /**
+     * Возвращает поле сортировки, если оно разрешено, иначе поле по умолчанию.
+     */
+    private static String sortField(String sort, Map<String, ?> fields, String defaultField) {
+        return fields.containsKey(sort) ? sort : defaultField;
+    }
+
+    /**
+     * Строит запрос страницы; для одинаковых значений поля сортировки порядок задается идентификатором,
+     * чтобы строки не повторялись и не пропадали при переходе между страницами.
+     */
+    private Pageable pageable(int page, Integer size, String sort, String dir) {
+        Sort.Direction direction = "desc".equalsIgnoreCase(dir) ? Sort.Direction.DESC : Sort.Direction.ASC;
+        Sort order = Sort.by(direction, sort);
+        if (!"id".equals(sort)) {
+            order = order.and(Sort.by(direction, "id"));
+        }
+        int pageSize = size != null ? Math.min(Math.max(size, 1), MAX_PAGE_SIZE) : defaultPageSize;
+        return PageRequest.of(Math.max(page, 0), pageSize, order);
+    }
+
+    private static void addQuery(Model model, String q, String sort, String dir) {
+        model.addAttribute("q", q);
+        model.addAttribute("sort", sort);
+        model.addAttribute("dir", "desc".equalsIgnoreCase(dir) ? "desc" : "asc");
+    }
+}
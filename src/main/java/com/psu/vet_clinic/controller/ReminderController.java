@@ -0,0 +1,54 @@
+package com.psu.vet_clinic.controller;
+
+import com.psu.vet_clinic.entity.Reminder;
+import com.psu.vet_clinic.service.ReminderService;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.web.bind.annotation.*;
+
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * Контроллер для просмотра напоминаний о предстоящих процедурах.
+ */
+@RestController
+@RequestMapping("/reminders")
+public class ReminderController {
+
+    /**
+     * Сервис для чтения напоминаний
+     */
+    private final ReminderService service;
+
+    /**
+     * Конструктор с внедрением зависимости.
+     *
+     * @param service Сервис для чтения напоминаний
+     */
+    public ReminderController(ReminderService service) {
+        this.service = service;
+    }
+
+    /**
+     * Получает напоминания со сроком не позже указанной даты (по умолчанию — сегодня).
+     *
+     * @param until Последняя дата срока в формате ГГГГ-ММ-ДД (необязательная)
+     * @return Список напоминаний в порядке срока
+     */
+    @GetMapping
+    public List<Reminder> findDue(@RequestParam(required = false)
+                                  @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate until) {
+        return service.findDue(until != null ? until : LocalDate.now());
+    }
+
+    /**
+     * Получает все напоминания животного.
+     *
+     * @param animalId Идентификатор животного
+     * @return Список напоминаний в порядке срока
+     */
+    @GetMapping("/by-animal/{animalId}")
+    public List<Reminder> findByAnimal(@PathVariable Integer animalId) {
+        return service.findByAnimalId(animalId);
+    }
+}
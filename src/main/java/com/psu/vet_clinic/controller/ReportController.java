@@ -0,0 +1,71 @@
+package com.psu.vet_clinic.controller;
+
+import com.psu.vet_clinic.service.ReportService;
+import com.psu.vet_clinic.tenant.TenantContext;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.List;
+
+/**
+ * Контроллер для выгрузки отчетов по животным.
+ */
+@RestController
+@RequestMapping("/reports")
+public class ReportController {
+
+    /**
+     * Сервис формирования отчетов
+     */
+    private final ReportService service;
+
+    /**
+     * Конструктор с внедрением зависимости.
+     *
+     * @param service Сервис формирования отчетов
+     */
+    public ReportController(ReportService service) {
+        this.service = service;
+    }
+
+    /**
+     * Выгружает ZIP-архив с медицинской историей (CSV) каждого из указанных животных.
+     * Архив передается клиенту по мере формирования документов.
+     *
+     * @param animalIds Идентификаторы животных
+     * @return Потоковый ответ с ZIP-архивом
+     * @throws IllegalArgumentException Если список пуст или превышает допустимый размер
+     */
+    @PostMapping("/histories")
+    public ResponseEntity<StreamingResponseBody> histories(@RequestBody List<Integer> animalIds) {
+        List<Integer> ids = service.validate(animalIds);
+        // Тело ответа пишется в другом потоке, поэтому клиника запроса передается явно
+        int clinicId = TenantContext.currentClinicId();
+        StreamingResponseBody body = out -> {
+            try {
+                TenantContext.callAs(clinicId, () -> {
+                    try {
+                        service.writeHistories(ids, out);
+                    } catch (IOException ex) {
+                        throw new UncheckedIOException(ex);
+                    }
+                    return null;
+                });
+            } catch (UncheckedIOException ex) {
+                throw ex.getCause();
+            }
+        };
+
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType("application/zip"))
+                .header(HttpHeaders.CONTENT_DISPOSITION,
+                        ContentDisposition.attachment().filename("histories.zip").build().toString())
+                .body(body);
+    }
+}
@@ -0,0 +1,34 @@
+package com.psu.vet_clinic.dto;
+
+import com.psu.vet_clinic.entity.Animal;
+
+import java.math.BigDecimal;
+
+/**
+ * Компактное представление животного для сжатого режима сериализации.
+ * Вместо вложенного объекта AnimalType содержит только его идентификатор.
+ *
+ * @param id Идентификатор животного
+ * @param name Кличка животного
+ * @param age Возраст животного в годах
+ * @param breed Порода животного
+ * @param gender Пол животного
+ * @param weight Вес животного в килограммах
+ * @param color Окрас животного
+ * @param animalTypeId Идентификатор типа животного
+ */
+public record AnimalRow(Integer id, String name, Integer age, String breed, String gender,
+                        BigDecimal weight, String color, Integer animalTypeId) {
+
+    /**
+     * Создает компактное представление из сущности Animal.
+     *
+     * @param animal Сущность животного
+     * @return Компактное представление животного
+     */
+    public static AnimalRow of(Animal animal) {
+        return new AnimalRow(animal.getId(), animal.getName(), animal.getAge(), animal.getBreed(),
+                animal.getGender(), animal.getWeight(), animal.getColor(),
+                animal.getAnimalType() != null ? animal.getAnimalType().getId() : null);
+    }
+}
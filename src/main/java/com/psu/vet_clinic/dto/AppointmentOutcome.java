@@ -0,0 +1,9 @@
+package com.psu.vet_clinic.dto;
+
+/**
+ * Итог приема, по которому создается медицинская запись.
+ *
+ * @param diagnosis Диагноз, поставленный на приеме
+ */
+public record AppointmentOutcome(String diagnosis) {
+}
@@ -0,0 +1,17 @@
+package com.psu.vet_clinic.dto;
+
+import com.fasterxml.jackson.databind.JsonNode;
+
+import java.time.Instant;
+
+/**
+ * Состояние сущности, восстановленное по истории изменений на указанный момент.
+ *
+ * @param entityType Тип сущности
+ * @param entityId Идентификатор сущности
+ * @param version Номер последней примененной версии
+ * @param changedAt Момент последнего примененного изменения
+ * @param state Поля сущности на указанный момент
+ */
+public record AuditSnapshot(String entityType, Integer entityId, int version, Instant changedAt, JsonNode state) {
+}
@@ -0,0 +1,40 @@
+package com.psu.vet_clinic.dto;
+
+import com.psu.vet_clinic.entity.Animal;
+import com.psu.vet_clinic.entity.AnimalType;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Сжатый ответ со списком животных.
+ * Каждый тип животного сериализуется один раз в справочнике animalTypes,
+ * а животные ссылаются на него по идентификатору.
+ *
+ * @param animals Список животных в компактном виде
+ * @param animalTypes Справочник типов животных по идентификатору
+ */
+public record CompactAnimals(List<AnimalRow> animals, Map<Integer, AnimalType> animalTypes) {
+
+    /**
+     * Строит сжатый ответ из списка сущностей Animal.
+     *
+     * @param source Список животных
+     * @return Сжатый ответ со справочником типов
+     */
+    public static CompactAnimals of(List<Animal> source) {
+        List<AnimalRow> animals = new ArrayList<>(source.size());
+        Map<Integer, AnimalType> animalTypes = new LinkedHashMap<>();
+
+        for (Animal animal : source) {
+            animals.add(AnimalRow.of(animal));
+            AnimalType type = animal.getAnimalType();
+            if (type != null) {
+                animalTypes.putIfAbsent(type.getId(), type);
+            }
+        }
+        return new CompactAnimals(animals, animalTypes);
+    }
+}
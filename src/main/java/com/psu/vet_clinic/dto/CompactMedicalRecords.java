@@ -0,0 +1,49 @@
+package com.psu.vet_clinic.dto;
+
+import com.psu.vet_clinic.entity.Animal;
+import com.psu.vet_clinic.entity.AnimalType;
+import com.psu.vet_clinic.entity.MedicalRecord;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Сжатый ответ со списком медицинских записей.
+ * Животные и их типы сериализуются по одному разу в справочниках animals и animalTypes,
+ * а записи ссылаются на животных по идентификатору.
+ *
+ * @param records Список медицинских записей в компактном виде
+ * @param animals Справочник животных по идентификатору
+ * @param animalTypes Справочник типов животных по идентификатору
+ */
+public record CompactMedicalRecords(List<MedicalRecordRow> records,
+                                    Map<Integer, AnimalRow> animals,
+                                    Map<Integer, AnimalType> animalTypes) {
+
+    /**
+     * Строит сжатый ответ из списка сущностей MedicalRecord.
+     *
+     * @param source Список медицинских записей
+     * @return Сжатый ответ со справочниками животных и типов
+     */
+    public static CompactMedicalRecords of(List<MedicalRecord> source) {
+        List<MedicalRecordRow> records = new ArrayList<>(source.size());
+        Map<Integer, AnimalRow> animals = new LinkedHashMap<>();
+        Map<Integer, AnimalType> animalTypes = new LinkedHashMap<>();
+
+        for (MedicalRecord record : source) {
+            records.add(MedicalRecordRow.of(record));
+            Animal animal = record.getAnimal();
+            if (animal != null && !animals.containsKey(animal.getId())) {
+                animals.put(animal.getId(), AnimalRow.of(animal));
+                AnimalType type = animal.getAnimalType();
+                if (type != null) {
+                    animalTypes.putIfAbsent(type.getId(), type);
+                }
+            }
+        }
+        return new CompactMedicalRecords(records, animals, animalTypes);
+    }
+}
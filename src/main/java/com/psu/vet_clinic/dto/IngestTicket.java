@@ -0,0 +1,11 @@
+package com.psu.vet_clinic.dto;
+
+/**
+ * Состояние медицинской записи, принятой в очередь отложенной записи.
+ *
+ * @param trackingId Идентификатор для отслеживания записи
+ * @param status Текущее состояние: PENDING, SAVED или FAILED
+ * @param recordId Идентификатор сохраненной медицинской записи (null, пока запись не сохранена)
+ */
+public record IngestTicket(String trackingId, String status, Integer recordId) {
+}
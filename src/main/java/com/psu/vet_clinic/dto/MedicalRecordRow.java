@@ -0,0 +1,30 @@
+package com.psu.vet_clinic.dto;
+
+import com.psu.vet_clinic.entity.MedicalRecord;
+
+import java.time.LocalDate;
+
+/**
+ * Компактное представление медицинской записи для сжатого режима сериализации.
+ * Вместо вложенного объекта Animal содержит только его идентификатор.
+ *
+ * @param id Идентификатор медицинской записи
+ * @param visitDate Дата визита
+ * @param procedureType Тип процедуры
+ * @param diagnosis Диагноз
+ * @param animalId Идентификатор животного
+ */
+public record MedicalRecordRow(Integer id, LocalDate visitDate, String procedureType,
+                               String diagnosis, Integer animalId) {
+
+    /**
+     * Создает компактное представление из сущности MedicalRecord.
+     *
+     * @param record Сущность медицинской записи
+     * @return Компактное представление медицинской записи
+     */
+    public static MedicalRecordRow of(MedicalRecord record) {
+        return new MedicalRecordRow(record.getId(), record.getVisitDate(), record.getProcedureType(),
+                record.getDiagnosis(), record.getAnimal() != null ? record.getAnimal().getId() : null);
+    }
+}
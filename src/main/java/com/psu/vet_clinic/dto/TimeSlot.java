@@ -0,0 +1,12 @@
+package com.psu.vet_clinic.dto;
+
+import java.time.LocalDateTime;
+
+/**
+ * Свободный интервал времени для записи на прием.
+ *
+ * @param start Начало интервала
+ * @param end Окончание интервала
+ */
+public record TimeSlot(LocalDateTime start, LocalDateTime end) {
+}
@@ -1,7 +1,10 @@
 package com.psu.vet_clinic.entity;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
 import jakarta.persistence.*;
 import jakarta.validation.constraints.*;
+import org.hibernate.annotations.TenantId;
 import java.math.BigDecimal;
 
 /**
@@ -9,9 +12,19 @@ import java.math.BigDecimal;
  * Содержит основную информацию о животном для ведения учета и медицинской документации.
  */
 @Entity
-@Table(name = "animals")
+@JsonIgnoreProperties({"hibernateLazyInitializer", "handler"})
+@Table(name = "animals", uniqueConstraints = @UniqueConstraint(
+        name = Animal.UNIQUE_NAME_BREED_TYPE, columnNames = {"clinic_id", "name", "breed", "animal_types_id"}))
 public class Animal {
 
+    /**
+     * Имя уникального индекса по клинике, кличке, породе и типу животного.
+     * Индекс начинается с clinic_id и служит также для выборки животных одной клиники.
+     * Значения хранятся уже нормализованными, поэтому индекс выявляет дубликаты с точностью до регистра и пробелов.
+     * Если индекса нет, скрипт db/unique-constraints.sql при запуске объединяет накопленные дубликаты и создает его.
+     */
+    public static final String UNIQUE_NAME_BREED_TYPE = "uk_animals_clinic_name_breed_type";
+
     /**
      * Уникальный идентификатор животного в системе.
      * Генерируется автоматически базой данных при создании записи.
@@ -83,6 +96,15 @@ public class Animal {
     @JoinColumn(name = "animal_types_id", nullable = false)
     private AnimalType animalType;
 
+    /**
+     * Идентификатор клиники, которой принадлежит животное.
+     * Заполняется Hibernate из текущей клиники при сохранении и не передается в API.
+     */
+    @TenantId
+    @JsonIgnore
+    @Column(name = "clinic_id", nullable = false, updatable = false, columnDefinition = "integer default 1")
+    private Integer clinicId;
+
     /**
      * Конструктор по умолчанию.
      * Требуется для JPA и Hibernate.
@@ -169,6 +191,10 @@ public class Animal {
         this.animalType = animalType;
     }
 
+    public Integer getClinicId() {
+        return clinicId;
+    }
+
     /**
      * Возвращает строковое представление объекта Animal.
      * Включает основные поля для отладки и логирования.
@@ -1,17 +1,31 @@
 package com.psu.vet_clinic.entity;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
 import jakarta.persistence.*;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.PositiveOrZero;
+import org.hibernate.annotations.TenantId;
 
 /**
  * Сущность, представляющая тип (вид) животного в ветеринарной клинике.
  * Используется для классификации животных по видам (например, собака, кошка и т.д.).
  */
 @Entity
-@Table(name = "animal_types")
+@JsonIgnoreProperties({"hibernateLazyInitializer", "handler"})
+@Table(name = "animal_types", uniqueConstraints = @UniqueConstraint(
+        name = AnimalType.UNIQUE_NAME, columnNames = {"clinic_id", "name"}))
 public class AnimalType {
 
+    /**
+     * Имя уникального индекса по клинике и названию типа животного.
+     * Названия уникальны в пределах клиники; ведущий столбец clinic_id позволяет
+     * использовать индекс и для выборки всех типов клиники.
+     * Название хранится уже нормализованным, поэтому индекс выявляет дубликаты с точностью до регистра и пробелов.
+     * Если индекса нет, скрипт db/unique-constraints.sql при запуске объединяет накопленные дубликаты и создает его.
+     */
+    public static final String UNIQUE_NAME = "uk_animal_types_clinic_name";
+
     /**
      * Уникальный идентификатор типа животного в системе.
      * Генерируется автоматически базой данных при создании записи.
@@ -38,6 +52,15 @@ public class AnimalType {
     @Column(name = "average_lifespan")
     private Integer averageLifespan;
 
+    /**
+     * Идентификатор клиники, которой принадлежит тип животного.
+     * Заполняется Hibernate из текущей клиники при сохранении и не передается в API.
+     */
+    @TenantId
+    @JsonIgnore
+    @Column(name = "clinic_id", nullable = false, updatable = false, columnDefinition = "integer default 1")
+    private Integer clinicId;
+
     /**
      * Конструктор по умолчанию.
      * Требуется для JPA и Hibernate.
@@ -78,6 +101,10 @@ public class AnimalType {
         this.averageLifespan = averageLifespan;
     }
 
+    public Integer getClinicId() {
+        return clinicId;
+    }
+
     /**
      * Возвращает строковое представление объекта AnimalType.
      * Включает основные поля для отладки и логирования.
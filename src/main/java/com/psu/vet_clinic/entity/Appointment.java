@@ -0,0 +1,206 @@
+package com.psu.vet_clinic.entity;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import jakarta.persistence.*;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+import org.hibernate.annotations.TenantId;
+
+import java.time.LocalDateTime;
+
+/**
+ * Сущность, представляющая запись животного на прием к ветеринару.
+ * В отличие от медицинской записи описывает будущий визит: интервал времени, ветеринара
+ * и планируемую процедуру. После приема запись преобразуется в медицинскую запись.
+ */
+@Entity
+@JsonIgnoreProperties({"hibernateLazyInitializer", "handler"})
+@Table(name = "appointments", indexes = {
+        @Index(name = "idx_appointments_clinic_starts_at", columnList = "clinic_id, starts_at"),
+        @Index(name = "idx_appointments_clinic_animal", columnList = "clinic_id, animals_id")
+})
+public class Appointment {
+
+    /**
+     * Имя внешнего ключа на животное
+     */
+    public static final String FOREIGN_KEY_ANIMAL = "fk_appointment_animal";
+
+    /**
+     * Имя внешнего ключа (animals_id, clinic_id) на животное той же клиники,
+     * создаваемого скриптом {@code db/clinic-constraints.sql}
+     */
+    public static final String FOREIGN_KEY_CLINIC_ANIMAL = "fk_appointments_clinic_animal";
+
+    /**
+     * Уникальный идентификатор записи на прием.
+     * Генерируется автоматически базой данных при создании записи.
+     */
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @Column(name = "id")
+    private Integer id;
+
+    /**
+     * Животное, записанное на прием.
+     * Связь с сущностью Animal. Не может быть null.
+     */
+    @NotNull(message = "Животное обязательно")
+    @ManyToOne(fetch = FetchType.EAGER)
+    @JoinColumn(name = "animals_id", nullable = false, foreignKey = @ForeignKey(name = FOREIGN_KEY_ANIMAL))
+    private Animal animal;
+
+    /**
+     * Ветеринар, ведущий прием (имя или табельный идентификатор).
+     * Не может быть пустым и не должен превышать 100 символов.
+     */
+    @NotBlank(message = "Ветеринар обязателен")
+    @Size(max = 100, message = "Имя ветеринара не может превышать 100 символов")
+    @Column(name = "vet", nullable = false, length = 100)
+    private String vet;
+
+    /**
+     * Начало приема.
+     */
+    @NotNull(message = "Время начала приема обязательно")
+    @Column(name = "starts_at", nullable = false)
+    private LocalDateTime startsAt;
+
+    /**
+     * Окончание приема. Должно быть позже начала и в тот же день.
+     */
+    @NotNull(message = "Время окончания приема обязательно")
+    @Column(name = "ends_at", nullable = false)
+    private LocalDateTime endsAt;
+
+    /**
+     * Планируемая процедура (например, вакцинация, осмотр).
+     * Не может быть пустой и не должна превышать 100 символов.
+     */
+    @NotBlank(message = "Тип процедуры обязателен")
+    @Size(max = 100, message = "Тип процедуры не может превышать 100 символов")
+    @Column(name = "procedure_type", nullable = false, length = 100)
+    private String procedureType;
+
+    /**
+     * Состояние записи. Устанавливается сервисом и не принимается от клиента.
+     */
+    @Enumerated(EnumType.STRING)
+    @Column(name = "status", nullable = false, length = 20)
+    private AppointmentStatus status;
+
+    /**
+     * Идентификатор медицинской записи, созданной по итогам приема (null, пока прием не состоялся).
+     */
+    @Column(name = "medical_records_id")
+    private Integer medicalRecordId;
+
+    /**
+     * Идентификатор клиники, в которой назначен прием.
+     * Заполняется Hibernate из текущей клиники при сохранении и не передается в API.
+     */
+    @TenantId
+    @JsonIgnore
+    @Column(name = "clinic_id", nullable = false, updatable = false, columnDefinition = "integer default 1")
+    private Integer clinicId;
+
+    /**
+     * Конструктор по умолчанию.
+     * Требуется для JPA и Hibernate.
+     */
+    public Appointment() {}
+
+    /**
+     * Конструктор с параметрами для создания новой записи на прием.
+     *
+     * @param animal Животное
+     * @param vet Ветеринар
+     * @param startsAt Начало приема
+     * @param endsAt Окончание приема
+     * @param procedureType Планируемая процедура
+     */
+    public Appointment(Animal animal, String vet, LocalDateTime startsAt, LocalDateTime endsAt, String procedureType) {
+        this.animal = animal;
+        this.vet = vet;
+        this.startsAt = startsAt;
+        this.endsAt = endsAt;
+        this.procedureType = procedureType;
+    }
+
+    /** Стандартные геттеры и сеттеры для всех полей */
+
+    public Integer getId() {
+        return id;
+    }
+    public void setId(Integer id) {
+        this.id = id;
+    }
+
+    public Animal getAnimal() {
+        return animal;
+    }
+    public void setAnimal(Animal animal) {
+        this.animal = animal;
+    }
+
+    public String getVet() {
+        return vet;
+    }
+    public void setVet(String vet) {
+        this.vet = vet;
+    }
+
+    public LocalDateTime getStartsAt() {
+        return startsAt;
+    }
+    public void setStartsAt(LocalDateTime startsAt) {
+        this.startsAt = startsAt;
+    }
+
+    public LocalDateTime getEndsAt() {
+        return endsAt;
+    }
+    public void setEndsAt(LocalDateTime endsAt) {
+        this.endsAt = endsAt;
+    }
+
+    public String getProcedureType() {
+        return procedureType;
+    }
+    public void setProcedureType(String procedureType) {
+        this.procedureType = procedureType;
+    }
+
+    public AppointmentStatus getStatus() {
+        return status;
+    }
+    public void setStatus(AppointmentStatus status) {
+        this.status = status;
+    }
+
+    public Integer getMedicalRecordId() {
+        return medicalRecordId;
+    }
+    public void setMedicalRecordId(Integer medicalRecordId) {
+        this.medicalRecordId = medicalRecordId;
+    }
+
+    public Integer getClinicId() {
+        return clinicId;
+    }
+
+    /**
+     * Возвращает строковое представление объекта Appointment.
+     * Включает основные поля для отладки и логирования.
+     *
+     * @return Строковое представление записи на прием
+     */
+    @Override
+    public String toString() {
+        return "Appointment{id=" + id + ", vet='" + vet + "', startsAt=" + startsAt +
+                ", endsAt=" + endsAt + ", procedureType='" + procedureType + "', status=" + status +
+                ", animal=" + (animal != null ? animal.getName() : "null") + "}";
+    }
+}
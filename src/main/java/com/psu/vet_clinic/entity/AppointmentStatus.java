@@ -0,0 +1,22 @@
+package com.psu.vet_clinic.entity;
+
+/**
+ * Состояние записи на прием.
+ */
+public enum AppointmentStatus {
+
+    /**
+     * Прием запланирован и занимает время ветеринара и животного
+     */
+    SCHEDULED,
+
+    /**
+     * Прием состоялся, по нему создана медицинская запись
+     */
+    COMPLETED,
+
+    /**
+     * Прием отменен, время освобождено
+     */
+    CANCELLED
+}
@@ -0,0 +1,148 @@
+package com.psu.vet_clinic.entity;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonRawValue;
+import jakarta.persistence.*;
+import org.hibernate.annotations.TenantId;
+
+import java.time.Instant;
+
+/**
+ * Сущность, представляющая одну версию изменения животного, типа животного или медицинской записи.
+ * Для создания и контрольных версий хранится полное состояние сущности, для остальных изменений —
+ * только измененные поля с новыми значениями. Состояние на любой момент восстанавливается
+ * последовательным применением версий, начиная с ближайшего полного состояния.
+ */
+@Entity
+@Table(name = "audit_entries",
+        uniqueConstraints = @UniqueConstraint(name = "uk_audit_entries_clinic_entity_version",
+                columnNames = {"clinic_id", "entity_type", "entity_id", "version"}))
+public class AuditEntry {
+
+    /**
+     * Уникальный идентификатор записи аудита.
+     */
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @Column(name = "id")
+    private Long id;
+
+    /**
+     * Тип сущности: "Animal", "AnimalType" или "MedicalRecord".
+     */
+    @Column(name = "entity_type", nullable = false, length = 50)
+    private String entityType;
+
+    /**
+     * Идентификатор измененной сущности.
+     */
+    @Column(name = "entity_id", nullable = false)
+    private Integer entityId;
+
+    /**
+     * Номер версии сущности, начиная с 1.
+     */
+    @Column(name = "version", nullable = false)
+    private Integer version;
+
+    /**
+     * Операция: CREATED, UPDATED или DELETED.
+     */
+    @Column(name = "operation", nullable = false, length = 20)
+    private String operation;
+
+    /**
+     * Признак того, что {@link #changes} содержит полное состояние сущности, а не только изменения.
+     */
+    @Column(name = "full_state", nullable = false)
+    private boolean fullState;
+
+    /**
+     * Измененные поля (или полное состояние) в формате JSON.
+     */
+    @JsonRawValue
+    @Column(name = "changes", nullable = false, columnDefinition = "text")
+    private String changes;
+
+    /**
+     * Момент изменения сущности.
+     */
+    @Column(name = "changed_at", nullable = false)
+    private Instant changedAt;
+
+    /**
+     * Идентификатор события outbox, из которого записана версия.
+     * Позволяет не записывать версию повторно при повторной доставке события.
+     */
+    @JsonIgnore
+    @Column(name = "event_id")
+    private Long eventId;
+
+    /**
+     * Идентификатор клиники, которой принадлежит сущность.
+     */
+    @TenantId
+    @JsonIgnore
+    @Column(name = "clinic_id", nullable = false, updatable = false, columnDefinition = "integer default 1")
+    private Integer clinicId;
+
+    /**
+     * Конструктор по умолчанию.
+     * Требуется для JPA и Hibernate.
+     */
+    public AuditEntry() {}
+
+    /** Стандартные геттеры для всех полей (записи аудита создаются пакетами через JDBC и не изменяются) */
+
+    public Long getId() {
+        return id;
+    }
+
+    public String getEntityType() {
+        return entityType;
+    }
+
+    public Integer getEntityId() {
+        return entityId;
+    }
+
+    public Integer getVersion() {
+        return version;
+    }
+
+    public String getOperation() {
+        return operation;
+    }
+
+    public boolean isFullState() {
+        return fullState;
+    }
+
+    public String getChanges() {
+        return changes;
+    }
+
+    public Instant getChangedAt() {
+        return changedAt;
+    }
+
+    public Long getEventId() {
+        return eventId;
+    }
+
+    public Integer getClinicId() {
+        return clinicId;
+    }
+
+    /**
+     * Возвращает строковое представление объекта AuditEntry.
+     * Включает основные поля для отладки и логирования.
+     *
+     * @return Строковое представление записи аудита
+     */
+    @Override
+    public String toString() {
+        return "AuditEntry{id=" + id + ", entityType='" + entityType + "', entityId=" + entityId +
+                ", version=" + version + ", operation='" + operation + "', changedAt=" + changedAt + "}";
+    }
+}
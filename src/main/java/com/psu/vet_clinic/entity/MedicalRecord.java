@@ -1,10 +1,12 @@
 package com.psu.vet_clinic.entity;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import jakarta.persistence.*;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.NotNull;
 import jakarta.validation.constraints.PastOrPresent;
 import jakarta.validation.constraints.Size;
+import org.hibernate.annotations.TenantId;
 import java.time.LocalDate;
 
 /**
@@ -12,9 +14,39 @@ import java.time.LocalDate;
  * Содержит информацию о проведенных процедурах, диагнозе и дате визита.
  */
 @Entity
-@Table(name = "medical_records")
+@Table(name = "medical_records", indexes = {
+        @Index(name = MedicalRecord.INDEX_CLINIC_ANIMAL, columnList = "clinic_id, animals_id, id"),
+        @Index(name = MedicalRecord.INDEX_CLINIC_VISIT_DATE, columnList = "clinic_id, visit_date, id")})
 public class MedicalRecord {
 
+    /**
+     * Имя индекса по клинике, животному и идентификатору записи.
+     * Каждый запрос к записям ограничен клиникой, поэтому clinic_id стоит первым:
+     * индекс обслуживает и выборку всех записей клиники, и записи одного животного,
+     * а также постраничный обход записей по ключу (clinic_id, animals_id, id) в задаче напоминаний.
+     */
+    public static final String INDEX_CLINIC_ANIMAL = "idx_medical_records_clinic_animal";
+
+    /**
+     * Имя индекса по клинике и дате визита.
+     * Страница записей по умолчанию упорядочена по дате визита, и индекс позволяет
+     * читать только строки запрошенной страницы, а не сортировать все записи клиники.
+     */
+    public static final String INDEX_CLINIC_VISIT_DATE = "idx_medical_records_clinic_visit_date";
+
+    /**
+     * Имя внешнего ключа на животное.
+     * Его нарушение при вставке означает, что животное, на которое ссылается запись, не существует.
+     */
+    public static final String FOREIGN_KEY_ANIMAL = "fk_medical_record_animal";
+
+    /**
+     * Имя внешнего ключа (animals_id, clinic_id) на животное той же клиники.
+     * Создается скриптом {@code db/clinic-constraints.sql}, так как clinic_id заполняется Hibernate
+     * и не может входить в отображение связи.
+     */
+    public static final String FOREIGN_KEY_CLINIC_ANIMAL = "fk_medical_records_clinic_animal";
+
     /**
      * Уникальный идентификатор медицинской записи в системе.
      * Генерируется автоматически базой данных при создании записи.
@@ -57,9 +89,18 @@ public class MedicalRecord {
      */
     @NotNull(message = "Животное обязательно")
     @ManyToOne(fetch = FetchType.EAGER)
-    @JoinColumn(name = "animals_id", nullable = false, foreignKey = @ForeignKey(name = "fk_medical_record_animal"))
+    @JoinColumn(name = "animals_id", nullable = false, foreignKey = @ForeignKey(name = FOREIGN_KEY_ANIMAL))
     private Animal animal;
 
+    /**
+     * Идентификатор клиники, которой принадлежит запись.
+     * Заполняется Hibernate из текущей клиники при сохранении и не передается в API.
+     */
+    @TenantId
+    @JsonIgnore
+    @Column(name = "clinic_id", nullable = false, updatable = false, columnDefinition = "integer default 1")
+    private Integer clinicId;
+
     /**
      * Конструктор по умолчанию.
      * Требуется для JPA и Hibernate.
@@ -118,6 +159,10 @@ public class MedicalRecord {
         this.animal = animal;
     }
 
+    public Integer getClinicId() {
+        return clinicId;
+    }
+
     /**
      * Возвращает строковое представление объекта MedicalRecord.
      * Включает основные поля для отладки и логирования.
@@ -0,0 +1,149 @@
+package com.psu.vet_clinic.entity;
+
+import jakarta.persistence.*;
+
+import java.time.Instant;
+
+/**
+ * Сущность, представляющая доменное событие в таблице outbox.
+ * Событие записывается в той же транзакции, что и изменение животного или медицинской записи,
+ * и затем асинхронно передается внешним системам (биллинг, напоминания).
+ */
+@Entity
+@Table(name = "outbox_events")
+public class OutboxEvent {
+
+    /**
+     * Уникальный идентификатор события.
+     * Определяет порядок доставки событий.
+     */
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @Column(name = "id")
+    private Long id;
+
+    /**
+     * Тип сущности, к которой относится событие (например, "Animal", "MedicalRecord").
+     */
+    @Column(name = "aggregate_type", nullable = false, length = 50)
+    private String aggregateType;
+
+    /**
+     * Идентификатор сущности, к которой относится событие.
+     */
+    @Column(name = "aggregate_id", nullable = false)
+    private Integer aggregateId;
+
+    /**
+     * Тип события: CREATED, UPDATED или DELETED.
+     */
+    @Column(name = "event_type", nullable = false, length = 20)
+    private String eventType;
+
+    /**
+     * Данные сущности в формате JSON (null для событий удаления).
+     */
+    @Column(name = "payload", columnDefinition = "text")
+    private String payload;
+
+    /**
+     * Момент создания события.
+     */
+    @Column(name = "created_at", nullable = false)
+    private Instant createdAt;
+
+    /**
+     * Идентификатор клиники, в которой произошло изменение.
+     * Не является дискриминатором Hibernate: обработчик outbox выбирает события всех клиник базы данных.
+     */
+    @Column(name = "clinic_id", nullable = false, columnDefinition = "integer default 1")
+    private Integer clinicId;
+
+    /**
+     * Конструктор по умолчанию.
+     * Требуется для JPA и Hibernate.
+     */
+    public OutboxEvent() {}
+
+    /**
+     * Конструктор с параметрами для создания нового события.
+     *
+     * @param clinicId Идентификатор клиники
+     * @param aggregateType Тип сущности
+     * @param aggregateId Идентификатор сущности
+     * @param eventType Тип события
+     * @param payload Данные сущности в формате JSON
+     */
+    public OutboxEvent(Integer clinicId, String aggregateType, Integer aggregateId, String eventType, String payload) {
+        this.clinicId = clinicId;
+        this.aggregateType = aggregateType;
+        this.aggregateId = aggregateId;
+        this.eventType = eventType;
+        this.payload = payload;
+        this.createdAt = Instant.now();
+    }
+
+    /** Стандартные геттеры и сеттеры для всех полей */
+
+    public Long getId() {
+        return id;
+    }
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public String getAggregateType() {
+        return aggregateType;
+    }
+    public void setAggregateType(String aggregateType) {
+        this.aggregateType = aggregateType;
+    }
+
+    public Integer getAggregateId() {
+        return aggregateId;
+    }
+    public void setAggregateId(Integer aggregateId) {
+        this.aggregateId = aggregateId;
+    }
+
+    public String getEventType() {
+        return eventType;
+    }
+    public void setEventType(String eventType) {
+        this.eventType = eventType;
+    }
+
+    public String getPayload() {
+        return payload;
+    }
+    public void setPayload(String payload) {
+        this.payload = payload;
+    }
+
+    public Instant getCreatedAt() {
+        return createdAt;
+    }
+    public void setCreatedAt(Instant createdAt) {
+        this.createdAt = createdAt;
+    }
+
+    public Integer getClinicId() {
+        return clinicId;
+    }
+    public void setClinicId(Integer clinicId) {
+        this.clinicId = clinicId;
+    }
+
+    /**
+     * Возвращает строковое представление объекта OutboxEvent.
+     * Включает основные поля для отладки и логирования.
+     *
+     * @return Строковое представление события
+     */
+    @Override
+    public String toString() {
+        return "OutboxEvent{id=" + id + ", clinicId=" + clinicId + ", aggregateType='" + aggregateType +
+                "', aggregateId=" + aggregateId + ", eventType='" + eventType +
+                "', createdAt=" + createdAt + "}";
+    }
+}
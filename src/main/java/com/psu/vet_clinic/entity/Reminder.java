@@ -0,0 +1,135 @@
+package com.psu.vet_clinic.entity;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import jakarta.persistence.*;
+import org.hibernate.annotations.TenantId;
+
+import java.time.Instant;
+import java.time.LocalDate;
+
+/**
+ * Сущность, представляющая напоминание о предстоящей процедуре для животного.
+ * Напоминания рассчитываются ночной задачей по медицинским записям. Для животного хранится одно
+ * напоминание каждого вида по каждой процедуре: при пересчете срок обновляется на месте,
+ * а напоминания, которые больше не рассчитываются, удаляются.
+ */
+@Entity
+@Table(name = "reminders",
+        uniqueConstraints = @UniqueConstraint(name = Reminder.UNIQUE_ANIMAL_KIND_PROCEDURE,
+                columnNames = {"clinic_id", "animals_id", "kind", "procedure_type"}),
+        indexes = @Index(name = "idx_reminders_clinic_due", columnList = "clinic_id, due_date"))
+public class Reminder {
+
+    /**
+     * Имя уникального ключа напоминания: клиника, животное, вид и процедура
+     */
+    public static final String UNIQUE_ANIMAL_KIND_PROCEDURE = "uk_reminders_clinic_animal_kind_procedure";
+
+    /**
+     * Уникальный идентификатор напоминания.
+     */
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @Column(name = "id")
+    private Long id;
+
+    /**
+     * Идентификатор животного, к которому относится напоминание.
+     * Хранится без связи с сущностью, так как напоминания записываются пакетами через JDBC.
+     */
+    @Column(name = "animals_id", nullable = false)
+    private Integer animalId;
+
+    /**
+     * Вид напоминания.
+     */
+    @Enumerated(EnumType.STRING)
+    @Column(name = "kind", nullable = false, length = 20)
+    private ReminderKind kind;
+
+    /**
+     * Процедура, которую необходимо провести.
+     */
+    @Column(name = "procedure_type", nullable = false, length = 100)
+    private String procedureType;
+
+    /**
+     * Дата, к которой процедуру необходимо провести.
+     */
+    @Column(name = "due_date", nullable = false)
+    private LocalDate dueDate;
+
+    /**
+     * Момент создания напоминания.
+     */
+    @Column(name = "created_at", nullable = false)
+    private Instant createdAt;
+
+    /**
+     * Момент последнего расчета напоминания задачей.
+     * Напоминания, не обновленные последним запуском, удаляются как устаревшие.
+     */
+    @JsonIgnore
+    @Column(name = "refreshed_at")
+    private Instant refreshedAt;
+
+    /**
+     * Идентификатор клиники, которой принадлежит напоминание.
+     */
+    @TenantId
+    @JsonIgnore
+    @Column(name = "clinic_id", nullable = false, updatable = false, columnDefinition = "integer default 1")
+    private Integer clinicId;
+
+    /**
+     * Конструктор по умолчанию.
+     * Требуется для JPA и Hibernate.
+     */
+    public Reminder() {}
+
+    /** Стандартные геттеры для всех полей (напоминания создаются задачей и не изменяются через API) */
+
+    public Long getId() {
+        return id;
+    }
+
+    public Integer getAnimalId() {
+        return animalId;
+    }
+
+    public ReminderKind getKind() {
+        return kind;
+    }
+
+    public String getProcedureType() {
+        return procedureType;
+    }
+
+    public LocalDate getDueDate() {
+        return dueDate;
+    }
+
+    public Instant getCreatedAt() {
+        return createdAt;
+    }
+
+    public Instant getRefreshedAt() {
+        return refreshedAt;
+    }
+
+    public Integer getClinicId() {
+        return clinicId;
+    }
+
+    /**
+     * Возвращает строковое представление объекта Reminder.
+     * Включает основные поля для отладки и логирования.
+     *
+     * @return Строковое представление напоминания
+     */
+    @Override
+    public String toString() {
+        return "Reminder{id=" + id + ", animalId=" + animalId + ", kind=" + kind +
+                ", procedureType='" + procedureType + "', dueDate=" + dueDate + "}";
+    }
+}
@@ -0,0 +1,17 @@
+package com.psu.vet_clinic.entity;
+
+/**
+ * Вид напоминания.
+ */
+public enum ReminderKind {
+
+    /**
+     * Повтор регулярной процедуры (например, ежегодной вакцинации)
+     */
+    FOLLOW_UP,
+
+    /**
+     * Осмотр пожилого животного, возраст которого приближается к средней продолжительности жизни вида
+     */
+    SENIOR_CARE
+}
@@ -0,0 +1,16 @@
+package com.psu.vet_clinic.exception;
+
+/**
+ * Исключение, которое выбрасывается при попытке создать дубликат существующего ресурса.
+ * Используется, например, когда животное или тип животного с такими же данными уже зарегистрированы.
+ */
+public class ConflictException extends RuntimeException {
+    /**
+     * Создает новое исключение с указанным сообщением об ошибке.
+     *
+     * @param message Сообщение об ошибке, которое будет отображено пользователю
+     */
+    public ConflictException(String message) {
+        super(message);
+    }
+}
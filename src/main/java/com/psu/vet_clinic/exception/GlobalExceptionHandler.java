@@ -1,6 +1,8 @@
 package com.psu.vet_clinic.exception;
 
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.MethodArgumentNotValidException;
 import org.springframework.web.bind.annotation.ExceptionHandler;
 import org.springframework.web.bind.annotation.ResponseStatus;
@@ -28,6 +30,60 @@ public class GlobalExceptionHandler {
         return ex.getMessage();
     }
 
+    /**
+     * Обрабатывает исключение ConflictException.
+     * Возвращает HTTP статус 409 (Conflict) с сообщением об ошибке.
+     *
+     * @param ex Исключение ConflictException
+     * @return Сообщение об ошибке
+     */
+    @ExceptionHandler(ConflictException.class)
+    @ResponseStatus(HttpStatus.CONFLICT)
+    public String handleConflict(ConflictException ex) {
+        return ex.getMessage();
+    }
+
+    /**
+     * Обрабатывает исключение IdempotencyKeyReusedException.
+     * Возвращает HTTP статус 422 (Unprocessable Entity) с сообщением об ошибке.
+     *
+     * @param ex Исключение IdempotencyKeyReusedException
+     * @return Сообщение об ошибке
+     */
+    @ExceptionHandler(IdempotencyKeyReusedException.class)
+    @ResponseStatus(HttpStatus.UNPROCESSABLE_ENTITY)
+    public String handleIdempotencyKeyReused(IdempotencyKeyReusedException ex) {
+        return ex.getMessage();
+    }
+
+    /**
+     * Обрабатывает исключение ServiceOverloadedException.
+     * Возвращает HTTP статус 503 (Service Unavailable) с заголовком Retry-After и сообщением об ошибке.
+     *
+     * @param ex Исключение ServiceOverloadedException
+     * @return Ответ с сообщением об ошибке
+     */
+    @ExceptionHandler(ServiceOverloadedException.class)
+    public ResponseEntity<String> handleOverloaded(ServiceOverloadedException ex) {
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, String.valueOf(ex.getRetryAfterSeconds()))
+                .body(ex.getMessage());
+    }
+
+    /**
+     * Обрабатывает исключение TooManyRequestsException.
+     * Возвращает HTTP статус 429 (Too Many Requests) с заголовком Retry-After и сообщением об ошибке.
+     *
+     * @param ex Исключение TooManyRequestsException
+     * @return Ответ с сообщением об ошибке
+     */
+    @ExceptionHandler(TooManyRequestsException.class)
+    public ResponseEntity<String> handleTooManyRequests(TooManyRequestsException ex) {
+        return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+                .header(HttpHeaders.RETRY_AFTER, String.valueOf(ex.getRetryAfterSeconds()))
+                .body(ex.getMessage());
+    }
+
     /**
      * Обрабатывает исключения валидации данных.
      * Возвращает HTTP статус 400 (Bad Request) с сообщениями об ошибках валидации.
@@ -0,0 +1,16 @@
+package com.psu.vet_clinic.exception;
+
+/**
+ * Исключение, которое выбрасывается, когда ключ идемпотентности повторно использован
+ * с другим телом запроса.
+ */
+public class IdempotencyKeyReusedException extends RuntimeException {
+    /**
+     * Создает новое исключение с указанным сообщением об ошибке.
+     *
+     * @param message Сообщение об ошибке, которое будет отображено пользователю
+     */
+    public IdempotencyKeyReusedException(String message) {
+        super(message);
+    }
+}
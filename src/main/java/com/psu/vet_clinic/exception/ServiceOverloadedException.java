@@ -0,0 +1,38 @@
+package com.psu.vet_clinic.exception;
+
+/**
+ * Исключение, которое выбрасывается, когда сервер временно не может принять запрос из-за перегрузки.
+ * Используется, например, при переполнении очереди отложенной записи или при сбросе нагрузки.
+ */
+public class ServiceOverloadedException extends RuntimeException {
+
+    /**
+     * Рекомендуемое время ожидания перед повтором в секундах
+     */
+    private final long retryAfterSeconds;
+
+    /**
+     * Создает новое исключение с указанным сообщением об ошибке.
+     * Рекомендуемое время ожидания — 1 секунда.
+     *
+     * @param message Сообщение об ошибке, которое будет отображено пользователю
+     */
+    public ServiceOverloadedException(String message) {
+        this(message, 1);
+    }
+
+    /**
+     * Создает новое исключение с указанным сообщением и временем ожидания.
+     *
+     * @param message Сообщение об ошибке, которое будет отображено пользователю
+     * @param retryAfterSeconds Рекомендуемое время ожидания перед повтором в секундах
+     */
+    public ServiceOverloadedException(String message, long retryAfterSeconds) {
+        super(message);
+        this.retryAfterSeconds = retryAfterSeconds;
+    }
+
+    public long getRetryAfterSeconds() {
+        return retryAfterSeconds;
+    }
+}
@@ -0,0 +1,28 @@
+package com.psu.vet_clinic.exception;
+
+/**
+ * Исключение, которое выбрасывается, когда клиент превысил допустимую частоту запросов.
+ * Содержит рекомендуемое время ожидания перед повторным запросом.
+ */
+public class TooManyRequestsException extends RuntimeException {
+
+    /**
+     * Рекомендуемое время ожидания перед повтором в секундах
+     */
+    private final long retryAfterSeconds;
+
+    /**
+     * Создает новое исключение с указанным сообщением и временем ожидания.
+     *
+     * @param message Сообщение об ошибке, которое будет отображено пользователю
+     * @param retryAfterSeconds Рекомендуемое время ожидания перед повтором в секундах
+     */
+    public TooManyRequestsException(String message, long retryAfterSeconds) {
+        super(message);
+        this.retryAfterSeconds = retryAfterSeconds;
+    }
+
+    public long getRetryAfterSeconds() {
+        return retryAfterSeconds;
+    }
+}
@@ -1,7 +1,14 @@
 package com.psu.vet_clinic.repository;
 
 import com.psu.vet_clinic.entity.Animal;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
 
 /**
  * Репозиторий для работы с сущностью Animal (Животное).
@@ -10,4 +17,52 @@ import org.springframework.data.jpa.repository.JpaRepository;
  * <p>Дополнительные методы для поиска можно добавлять при помощи Spring Data JPA.</p>
  */
 public interface AnimalRepository extends JpaRepository<Animal, Integer> {
-}
\ No newline at end of file
+
+    /**
+     * Получает страницу животных вместе с их типами без подсчета общего количества.
+     *
+     * @param pageable Номер, размер и сортировка страницы
+     * @return Страница животных
+     */
+    @EntityGraph(attributePaths = "animalType")
+    @Query("select a from Animal a")
+    Slice<Animal> findPage(Pageable pageable);
+
+    /**
+     * Получает страницу животных, кличка или порода которых соответствует шаблону.
+     *
+     * @param pattern Шаблон LIKE в нижнем регистре, экранированный символом '!'
+     * @param pageable Номер, размер и сортировка страницы
+     * @return Страница животных
+     */
+    @EntityGraph(attributePaths = "animalType")
+    @Query("""
+            select a from Animal a
+            where lower(a.name) like :pattern escape '!' or lower(a.breed) like :pattern escape '!'
+            """)
+    Slice<Animal> findPage(@Param("pattern") String pattern, Pageable pageable);
+
+    /**
+     * Обновляет поля животного одним запросом UPDATE ... WHERE id = ? AND clinic_id = ?
+     * без предварительной загрузки сущности.
+     * Обновляется только строка текущей клиники.
+     *
+     * @param animal Новые данные животного с заполненным идентификатором
+     * @return Количество обновленных строк (0, если животное не найдено)
+     */
+    @Transactional
+    @Modifying(clearAutomatically = true)
+    @Query("""
+            update Animal a set
+                a.name = :#{#animal.name},
+                a.age = :#{#animal.age},
+                a.breed = :#{#animal.breed},
+                a.gender = :#{#animal.gender},
+                a.weight = :#{#animal.weight},
+                a.color = :#{#animal.color},
+                a.animalType = :#{#animal.animalType}
+            where a.id = :#{#animal.id}
+              and a.clinicId = :#{T(com.psu.vet_clinic.tenant.TenantContext).currentClinicId()}
+            """)
+    int updateFields(@Param("animal") Animal animal);
+}
@@ -1,7 +1,13 @@
 package com.psu.vet_clinic.repository;
 
 import com.psu.vet_clinic.entity.AnimalType;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
 
 /**
  * Репозиторий для работы с сущностью AnimalType (Тип животного).
@@ -10,4 +16,42 @@ import org.springframework.data.jpa.repository.JpaRepository;
  * <p>Дополнительные методы для поиска можно добавлять при помощи Spring Data JPA.</p>
  */
 public interface AnimalTypeRepository extends JpaRepository<AnimalType, Integer> {
-}
\ No newline at end of file
+
+    /**
+     * Получает страницу типов животных без подсчета общего количества.
+     *
+     * @param pageable Номер, размер и сортировка страницы
+     * @return Страница типов животных
+     */
+    @Query("select t from AnimalType t")
+    Slice<AnimalType> findPage(Pageable pageable);
+
+    /**
+     * Получает страницу типов животных, название которых соответствует шаблону.
+     *
+     * @param pattern Шаблон LIKE в нижнем регистре, экранированный символом '!'
+     * @param pageable Номер, размер и сортировка страницы
+     * @return Страница типов животных
+     */
+    @Query("select t from AnimalType t where lower(t.name) like :pattern escape '!'")
+    Slice<AnimalType> findPage(@Param("pattern") String pattern, Pageable pageable);
+
+    /**
+     * Обновляет поля типа животного одним запросом UPDATE ... WHERE id = ? AND clinic_id = ?
+     * без предварительной загрузки сущности.
+     * Обновляется только строка текущей клиники.
+     *
+     * @param type Новые данные типа животного с заполненным идентификатором
+     * @return Количество обновленных строк (0, если тип не найден)
+     */
+    @Transactional
+    @Modifying(clearAutomatically = true)
+    @Query("""
+            update AnimalType t set
+                t.name = :#{#type.name},
+                t.averageLifespan = :#{#type.averageLifespan}
+            where t.id = :#{#type.id}
+              and t.clinicId = :#{T(com.psu.vet_clinic.tenant.TenantContext).currentClinicId()}
+            """)
+    int updateFields(@Param("type") AnimalType type);
+}
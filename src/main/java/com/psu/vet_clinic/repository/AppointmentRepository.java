@@ -0,0 +1,55 @@
+package com.psu.vet_clinic.repository;
+
+import com.psu.vet_clinic.entity.Appointment;
+import com.psu.vet_clinic.entity.AppointmentStatus;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Репозиторий для работы с сущностью Appointment (Запись на прием).
+ */
+public interface AppointmentRepository extends JpaRepository<Appointment, Integer> {
+
+    /**
+     * Находит записи на прием, начинающиеся в указанном интервале, в порядке начала.
+     *
+     * @param from Начало интервала (включительно)
+     * @param to Конец интервала (не включительно)
+     * @return Список записей на прием
+     */
+    List<Appointment> findByStartsAtGreaterThanEqualAndStartsAtLessThanOrderByStartsAt(LocalDateTime from,
+                                                                                      LocalDateTime to);
+
+    /**
+     * Находит все записи на прием животного в порядке начала.
+     *
+     * @param animalId Идентификатор животного
+     * @return Список записей на прием
+     */
+    List<Appointment> findByAnimalIdOrderByStartsAt(Integer animalId);
+
+    /**
+     * Находит записи в указанном состоянии, начинающиеся не раньше указанного момента.
+     * Используется для построения индекса расписания при запуске.
+     *
+     * @param status Состояние записи
+     * @param from Начало интервала (включительно)
+     * @return Список записей на прием
+     */
+    List<Appointment> findByStatusAndStartsAtGreaterThanEqual(AppointmentStatus status, LocalDateTime from);
+
+    /**
+     * Находит запись на прием по идентификатору с блокировкой строки до конца транзакции.
+     * Используется при смене состояния, чтобы прием нельзя было одновременно завершить и отменить.
+     *
+     * @param id Идентификатор записи на прием
+     * @return Запись на прием, если найдена
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    Optional<Appointment> findWithLockById(Integer id);
+}
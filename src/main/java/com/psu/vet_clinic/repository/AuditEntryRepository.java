@@ -0,0 +1,46 @@
+package com.psu.vet_clinic.repository;
+
+import com.psu.vet_clinic.entity.AuditEntry;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * Репозиторий для работы с сущностью AuditEntry (Запись аудита).
+ * Записи аудита создаются получателем outbox {@code AuditOutboxSink} через JDBC; репозиторий используется для чтения.
+ */
+public interface AuditEntryRepository extends JpaRepository<AuditEntry, Long> {
+
+    /**
+     * Находит все версии сущности в порядке их создания.
+     *
+     * @param entityType Тип сущности
+     * @param entityId Идентификатор сущности
+     * @return Список версий
+     */
+    List<AuditEntry> findByEntityTypeAndEntityIdOrderByVersion(String entityType, Integer entityId);
+
+    /**
+     * Находит версии, необходимые для восстановления состояния сущности на указанный момент:
+     * последнюю версию с полным состоянием не позже момента и все последующие до него.
+     *
+     * @param entityType Тип сущности
+     * @param entityId Идентификатор сущности
+     * @param at Момент времени
+     * @return Список версий в порядке создания
+     */
+    @Query("""
+            select e from AuditEntry e
+            where e.entityType = :entityType and e.entityId = :entityId and e.changedAt <= :at
+              and e.version >= coalesce((select max(s.version) from AuditEntry s
+                                         where s.entityType = :entityType and s.entityId = :entityId
+                                           and s.fullState = true and s.changedAt <= :at), 0)
+            order by e.version
+            """)
+    List<AuditEntry> findForReplay(@Param("entityType") String entityType,
+                                   @Param("entityId") Integer entityId,
+                                   @Param("at") Instant at);
+}
@@ -1,8 +1,17 @@
 package com.psu.vet_clinic.repository;
 
+import com.psu.vet_clinic.dto.MedicalRecordRow;
 import com.psu.vet_clinic.entity.MedicalRecord;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.util.Collection;
 import java.util.List;
 
 /**
@@ -19,4 +28,92 @@ public interface MedicalRecordRepository extends JpaRepository<MedicalRecord, In
      */
     List<MedicalRecord> findByAnimalId(Integer animalId);
 
-}
\ No newline at end of file
+    /**
+     * Получает страницу медицинских записей вместе с животными без подсчета общего количества.
+     *
+     * @param pageable Номер, размер и сортировка страницы
+     * @return Страница медицинских записей
+     */
+    @EntityGraph(attributePaths = {"animal", "animal.animalType"})
+    @Query("select r from MedicalRecord r")
+    Slice<MedicalRecord> findPage(Pageable pageable);
+
+    /**
+     * Получает страницу медицинских записей, диагноз или процедура которых соответствует шаблону.
+     *
+     * @param pattern Шаблон LIKE в нижнем регистре, экранированный символом '!'
+     * @param pageable Номер, размер и сортировка страницы
+     * @return Страница медицинских записей
+     */
+    @EntityGraph(attributePaths = {"animal", "animal.animalType"})
+    @Query("""
+            select r from MedicalRecord r
+            where lower(r.diagnosis) like :pattern escape '!' or lower(r.procedureType) like :pattern escape '!'
+            """)
+    Slice<MedicalRecord> findPage(@Param("pattern") String pattern, Pageable pageable);
+
+    /**
+     * Получает страницу медицинских записей одного животного.
+     *
+     * @param animalId Идентификатор животного
+     * @param pageable Номер, размер и сортировка страницы
+     * @return Страница медицинских записей
+     */
+    @EntityGraph(attributePaths = {"animal", "animal.animalType"})
+    @Query("select r from MedicalRecord r where r.animal.id = :animalId")
+    Slice<MedicalRecord> findPageByAnimal(@Param("animalId") Integer animalId, Pageable pageable);
+
+    /**
+     * Получает страницу медицинских записей одного животного, диагноз или процедура которых
+     * соответствует шаблону.
+     *
+     * @param animalId Идентификатор животного
+     * @param pattern Шаблон LIKE в нижнем регистре, экранированный символом '!'
+     * @param pageable Номер, размер и сортировка страницы
+     * @return Страница медицинских записей
+     */
+    @EntityGraph(attributePaths = {"animal", "animal.animalType"})
+    @Query("""
+            select r from MedicalRecord r
+            where r.animal.id = :animalId
+              and (lower(r.diagnosis) like :pattern escape '!' or lower(r.procedureType) like :pattern escape '!')
+            """)
+    Slice<MedicalRecord> findPageByAnimal(@Param("animalId") Integer animalId, @Param("pattern") String pattern,
+                                          Pageable pageable);
+
+    /**
+     * Находит медицинские записи нескольких животных одним запросом.
+     * Возвращает компактные строки без загрузки сущностей животных; записи упорядочены
+     * по животному и дате визита.
+     *
+     * @param animalIds Идентификаторы животных
+     * @return Компактные строки медицинских записей
+     */
+    @Query("""
+            select new com.psu.vet_clinic.dto.MedicalRecordRow(r.id, r.visitDate, r.procedureType, r.diagnosis, r.animal.id)
+            from MedicalRecord r
+            where r.animal.id in :animalIds
+            order by r.animal.id, r.visitDate, r.id
+            """)
+    List<MedicalRecordRow> findRowsByAnimalIds(@Param("animalIds") Collection<Integer> animalIds);
+
+    /**
+     * Обновляет дату визита, процедуру и диагноз одним запросом UPDATE ... WHERE id = ? AND clinic_id = ?.
+     * Связь с животным не изменяется.
+     *
+     * @param record Новые данные медицинской записи с заполненным идентификатором
+     * @return Количество обновленных строк (0, если запись не найдена)
+     */
+    @Transactional
+    @Modifying(clearAutomatically = true)
+    @Query("""
+            update MedicalRecord r set
+                r.visitDate = :#{#record.visitDate},
+                r.procedureType = :#{#record.procedureType},
+                r.diagnosis = :#{#record.diagnosis}
+            where r.id = :#{#record.id}
+              and r.clinicId = :#{T(com.psu.vet_clinic.tenant.TenantContext).currentClinicId()}
+            """)
+    int updateFields(@Param("record") MedicalRecord record);
+
+}
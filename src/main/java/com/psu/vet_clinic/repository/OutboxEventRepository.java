@@ -0,0 +1,44 @@
+package com.psu.vet_clinic.repository;
+
+import com.psu.vet_clinic.entity.OutboxEvent;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.util.List;
+
+/**
+ * Репозиторий для работы с сущностью OutboxEvent (Доменное событие).
+ * Наследует JpaRepository, предоставляя стандартные CRUD-операции и методы для работы с данными.
+ */
+public interface OutboxEventRepository extends JpaRepository<OutboxEvent, Long> {
+
+    /**
+     * Выбирает и блокирует очередной пакет событий в порядке их создания.
+     * Строки, заблокированные другим экземпляром приложения, пропускаются,
+     * поэтому несколько экземпляров могут разбирать outbox параллельно.
+     *
+     * <p>Чтобы события одной сущности обрабатывались по порядку, для каждой строки пакета берется
+     * рекомендательная блокировка сущности до конца транзакции. Если сущность уже обрабатывается
+     * другим экземпляром, ее следующие события пропускаются и будут выбраны после того,
+     * как тот экземпляр удалит предыдущие. Блокировки берутся только для строк, уже отобранных
+     * с учетом limit (материализованный CTE), чтобы не блокировать сущности, события которых
+     * этот экземпляр обрабатывать не будет.</p>
+     *
+     * Должен вызываться внутри транзакции.
+     *
+     * @param limit Максимальный размер пакета
+     * @return Пакет событий
+     */
+    @Query(value = """
+            with candidates as materialized (
+                select id, aggregate_type, aggregate_id from outbox_events
+                order by id limit :limit for update skip locked
+            )
+            select e.* from outbox_events e
+            join candidates c on c.id = e.id
+            where pg_try_advisory_xact_lock(hashtext(c.aggregate_type), c.aggregate_id)
+            order by e.id
+            """, nativeQuery = true)
+    List<OutboxEvent> lockNextBatch(@Param("limit") int limit);
+}
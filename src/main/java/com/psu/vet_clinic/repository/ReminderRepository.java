@@ -0,0 +1,30 @@
+package com.psu.vet_clinic.repository;
+
+import com.psu.vet_clinic.entity.Reminder;
+import org.springframework.data.jpa.repository.JpaRepository;
+
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * Репозиторий для работы с сущностью Reminder (Напоминание).
+ * Напоминания записываются задачей {@code ReminderJob} напрямую через JDBC; репозиторий используется для чтения.
+ */
+public interface ReminderRepository extends JpaRepository<Reminder, Long> {
+
+    /**
+     * Находит напоминания со сроком не позже указанной даты в порядке срока.
+     *
+     * @param until Последняя дата срока (включительно)
+     * @return Список напоминаний
+     */
+    List<Reminder> findByDueDateLessThanEqualOrderByDueDate(LocalDate until);
+
+    /**
+     * Находит все напоминания животного в порядке срока.
+     *
+     * @param animalId Идентификатор животного
+     * @return Список напоминаний
+     */
+    List<Reminder> findByAnimalIdOrderByDueDate(Integer animalId);
+}
@@ -1,33 +1,77 @@
 package com.psu.vet_clinic.service;
 
+import com.psu.vet_clinic.dto.AnimalRow;
 import com.psu.vet_clinic.entity.Animal;
+import com.psu.vet_clinic.exception.ConflictException;
 import com.psu.vet_clinic.exception.NotFoundException;
 import com.psu.vet_clinic.repository.AnimalRepository;
+import com.psu.vet_clinic.util.ConstraintViolations;
+import com.psu.vet_clinic.util.Paging;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.util.Comparator;
 import java.util.List;
+import java.util.Map;
 
+import static com.psu.vet_clinic.util.Paging.containsIgnoreCase;
 import static com.psu.vet_clinic.util.TextNormalizer.capitalize;
 
 /**
  * Сервис для работы с животными в ветеринарной клинике.
  * Обеспечивает бизнес-логику операций CRUD для сущности Animal.
+ *
+ * <p>Методы чтения выполняются в транзакциях только для чтения: Hibernate не отслеживает изменения
+ * загруженных сущностей и не выполняет flush, а драйвер открывает транзакцию READ ONLY.
+ * Каждый метод изменения данных выполняется в одной транзакции целиком.</p>
+ *
+ * <p>Если включена модель чтения {@link ClinicReadModel}, запросы обслуживаются из памяти
+ * без SQL-запросов к базе данных; изменения передаются в модель и применяются после фиксации транзакции.</p>
  */
 @Service
 public class AnimalService {
 
+    /**
+     * Поля, по которым можно сортировать страницу животных, с порядком сравнения для модели чтения.
+     * Значения null располагаются в конце, как при сортировке по возрастанию в PostgreSQL.
+     */
+    public static final Map<String, Comparator<Animal>> SORT_FIELDS = Map.of(
+            "id", Comparator.comparing(Animal::getId),
+            "name", Comparator.comparing(Animal::getName, Comparator.nullsLast(Comparator.naturalOrder())),
+            "age", Comparator.comparing(Animal::getAge, Comparator.nullsLast(Comparator.naturalOrder())),
+            "breed", Comparator.comparing(Animal::getBreed, Comparator.nullsLast(Comparator.naturalOrder())),
+            "weight", Comparator.comparing(Animal::getWeight, Comparator.nullsLast(Comparator.naturalOrder())));
+
     /**
      * Репозиторий для работы с данными животных
      */
     private final AnimalRepository repository;
 
     /**
-     * Конструктор с внедрением зависимости репозитория.
+     * Сервис записи доменных событий
+     */
+    private final OutboxService outboxService;
+
+    /**
+     * Модель чтения данных клиники в памяти
+     */
+    private final ClinicReadModel readModel;
+
+    /**
+     * Конструктор с внедрением зависимостей.
      *
      * @param repository Репозиторий для работы с животными
+     * @param outboxService Сервис записи доменных событий
+     * @param readModel Модель чтения данных клиники в памяти
      */
-    public AnimalService(AnimalRepository repository) {
+    public AnimalService(AnimalRepository repository, OutboxService outboxService,
+                         ClinicReadModel readModel) {
         this.repository = repository;
+        this.outboxService = outboxService;
+        this.readModel = readModel;
     }
 
     /**
@@ -35,10 +79,37 @@ public class AnimalService {
      *
      * @return Список всех животных
      */
+    @Transactional(readOnly = true)
     public List<Animal> findAll() {
+        if (readModel.isActive()) {
+            return readModel.findAllAnimals();
+        }
         return repository.findAll();
     }
 
+    /**
+     * Получает страницу животных с поиском по кличке и породе.
+     * Общее количество животных не подсчитывается. В модели чтения страница выбирается
+     * одним проходом по всем животным клиники ({@link Paging#slice}) без полной сортировки.
+     *
+     * @param query Строка поиска (может быть пустой)
+     * @param pageable Номер, размер и сортировка страницы
+     * @return Страница животных с признаком наличия следующей страницы
+     * @throws IllegalArgumentException Если сортировка использует поле не из {@link #SORT_FIELDS}
+     */
+    @Transactional(readOnly = true)
+    public Slice<Animal> findPage(String query, Pageable pageable) {
+        Comparator<Animal> order = Paging.comparator(pageable.getSort(), SORT_FIELDS);
+        if (readModel.isActive()) {
+            String q = Paging.normalizeQuery(query);
+            return Paging.slice(readModel.findAllAnimals(),
+                    a -> q == null || containsIgnoreCase(a.getName(), q) || containsIgnoreCase(a.getBreed(), q),
+                    order, pageable);
+        }
+        String pattern = Paging.containsPattern(query);
+        return pattern == null ? repository.findPage(pageable) : repository.findPage(pattern, pageable);
+    }
+
     /**
      * Находит животное по его идентификатору.
      *
@@ -46,35 +117,130 @@ public class AnimalService {
      * @return Найденное животное
      * @throws NotFoundException Если животное с указанным идентификатором не найдено
      */
+    @Transactional(readOnly = true)
     public Animal findById(Integer id) {
+        if (readModel.isActive()) {
+            Animal animal = readModel.findAnimal(id);
+            if (animal == null) {
+                throw new NotFoundException("Animal not found: " + id);
+            }
+            return animal;
+        }
         return repository.findById(id)
             .orElseThrow(() -> new NotFoundException("Animal not found: " + id));
     }
 
     /**
-     * Сохраняет животное в системе.
+     * Сохраняет животное в системе и записывает событие CREATED в outbox в той же транзакции.
      * Перед сохранением выполняет нормализацию строковых полей:
      * - Имя, порода и цвет приводятся к виду с заглавной первой буквой
      * - Пол приводится к нижнему регистру
      *
      * @param animal Объект животного для сохранения
      * @return Сохраненное животное
+     * @throws ConflictException Если животное с такими же кличкой, породой и типом уже существует
      */
+    @Transactional
     public Animal save(Animal animal) {
+        normalize(animal);
+        Animal saved;
+        try {
+            saved = repository.save(animal);
+        } catch (DataIntegrityViolationException ex) {
+            throw duplicateOr(ex, animal);
+        }
+        outboxService.record("Animal", saved.getId(), "CREATED", AnimalRow.of(saved));
+        readModel.putAnimal(saved);
+        return saved;
+    }
+
+    /**
+     * Обновляет существующее животное одним запросом UPDATE ... WHERE id = ?
+     * без предварительной загрузки и слияния сущности.
+     * Нормализация полей выполняется так же, как при сохранении; событие UPDATED
+     * записывается в outbox в той же транзакции.
+     *
+     * @param id Идентификатор животного для обновления
+     * @param animal Новые данные животного (тип животного должен быть уже загружен)
+     * @return Обновленное животное
+     * @throws NotFoundException Если животное с указанным идентификатором не найдено
+     * @throws ConflictException Если другое животное с такими же кличкой, породой и типом уже существует
+     */
+    @Transactional
+    public Animal update(Integer id, Animal animal) {
+        animal.setId(id);
+        normalize(animal);
+
+        int updated;
+        try {
+            updated = repository.updateFields(animal);
+        } catch (DataIntegrityViolationException ex) {
+            throw duplicateOr(ex, animal);
+        }
+        if (updated == 0) {
+            throw new NotFoundException("Animal not found: " + id);
+        }
+        outboxService.record("Animal", id, "UPDATED", AnimalRow.of(animal));
+        readModel.putAnimal(animal);
+        return animal;
+    }
+
+    /**
+     * Возвращает ссылку на животное без обращения к базе данных.
+     * Используется для установки связей, когда полный объект не нужен.
+     * Существование животного в текущей клинике проверяется внешним ключом (animals_id, clinic_id)
+     * при вставке ссылающейся строки.
+     *
+     * @param id Идентификатор животного
+     * @return Прокси-ссылка на животное
+     */
+    public Animal getReference(Integer id) {
+        return repository.getReferenceById(id);
+    }
+
+    /**
+     * Преобразует нарушение уникального индекса по кличке, породе и типу в ConflictException.
+     * Прочие нарушения целостности возвращаются без изменений.
+     *
+     * @param ex Исключение нарушения целостности данных
+     * @param animal Сохраняемое животное
+     * @return Исключение для выбрасывания
+     */
+    private RuntimeException duplicateOr(DataIntegrityViolationException ex, Animal animal) {
+        if (ConstraintViolations.violates(ex, Animal.UNIQUE_NAME_BREED_TYPE)) {
+            return new ConflictException("Animal already exists: " + animal.getName()
+                    + ", " + animal.getBreed());
+        }
+        return ex;
+    }
+
+    /**
+     * Нормализует строковые поля животного:
+     * - Имя, порода и цвет приводятся к виду с заглавной первой буквой
+     * - Пол приводится к нижнему регистру
+     *
+     * @param animal Объект животного для нормализации
+     */
+    private void normalize(Animal animal) {
         animal.setName(capitalize(animal.getName()));
         animal.setBreed(capitalize(animal.getBreed()));
         animal.setColor(capitalize(animal.getColor()));
         animal.setGender(animal.getGender().toLowerCase());
-
-        return repository.save(animal);
     }
 
     /**
      * Удаляет животное из системы по идентификатору.
+     * Событие DELETED записывается в outbox в той же транзакции.
      *
      * @param id Идентификатор животного для удаления
+     * @throws NotFoundException Если животное с указанным идентификатором не найдено
      */
+    @Transactional
     public void delete(Integer id) {
-        repository.deleteById(id);
+        Animal animal = repository.findById(id)
+                .orElseThrow(() -> new NotFoundException("Animal not found: " + id));
+        repository.delete(animal);
+        outboxService.record("Animal", id, "DELETED", null);
+        readModel.removeAnimal(id);
     }
 }
\ No newline at end of file
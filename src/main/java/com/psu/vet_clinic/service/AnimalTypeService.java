@@ -1,33 +1,71 @@
 package com.psu.vet_clinic.service;
 
 import com.psu.vet_clinic.entity.AnimalType;
+import com.psu.vet_clinic.exception.ConflictException;
 import com.psu.vet_clinic.exception.NotFoundException;
 import com.psu.vet_clinic.repository.AnimalTypeRepository;
+import com.psu.vet_clinic.util.ConstraintViolations;
+import com.psu.vet_clinic.util.Paging;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.util.Comparator;
 import java.util.List;
+import java.util.Map;
 
+import static com.psu.vet_clinic.util.Paging.containsIgnoreCase;
 import static com.psu.vet_clinic.util.TextNormalizer.capitalize;
 
 /**
  * Сервис для работы с типами животных в ветеринарной клинике.
  * Обеспечивает бизнес-логику операций CRUD для сущности AnimalType.
+ *
+ * <p>Запросы выполняются в транзакциях только для чтения, изменения — в отдельной транзакции на вызов
+ * вместе с записью события в outbox (по событиям ведется история изменений).
+ * Если включена модель чтения {@link ClinicReadModel}, запросы обслуживаются из памяти.</p>
  */
 @Service
 public class AnimalTypeService {
 
+    /**
+     * Поля, по которым можно сортировать страницу типов животных, с порядком сравнения для модели чтения
+     */
+    public static final Map<String, Comparator<AnimalType>> SORT_FIELDS = Map.of(
+            "id", Comparator.comparing(AnimalType::getId),
+            "name", Comparator.comparing(AnimalType::getName, Comparator.nullsLast(Comparator.naturalOrder())),
+            "averageLifespan", Comparator.comparing(AnimalType::getAverageLifespan,
+                    Comparator.nullsLast(Comparator.naturalOrder())));
+
     /**
      * Репозиторий для работы с данными типов животных
      */
     private final AnimalTypeRepository repository;
 
     /**
-     * Конструктор с внедрением зависимости репозитория.
+     * Сервис записи доменных событий
+     */
+    private final OutboxService outboxService;
+
+    /**
+     * Модель чтения данных клиники в памяти
+     */
+    private final ClinicReadModel readModel;
+
+    /**
+     * Конструктор с внедрением зависимостей.
      *
      * @param repository Репозиторий для работы с типами животных
+     * @param outboxService Сервис записи доменных событий
+     * @param readModel Модель чтения данных клиники в памяти
      */
-    public AnimalTypeService(AnimalTypeRepository repository) {
+    public AnimalTypeService(AnimalTypeRepository repository, OutboxService outboxService,
+                             ClinicReadModel readModel) {
         this.repository = repository;
+        this.outboxService = outboxService;
+        this.readModel = readModel;
     }
 
     /**
@@ -35,10 +73,34 @@ public class AnimalTypeService {
      *
      * @return Список всех типов животных
      */
+    @Transactional(readOnly = true)
     public List<AnimalType> findAll() {
+        if (readModel.isActive()) {
+            return readModel.findAllTypes();
+        }
         return repository.findAll();
     }
 
+    /**
+     * Получает страницу типов животных с поиском по названию.
+     *
+     * @param query Строка поиска (может быть пустой)
+     * @param pageable Номер, размер и сортировка страницы
+     * @return Страница типов животных с признаком наличия следующей страницы
+     * @throws IllegalArgumentException Если сортировка использует поле не из {@link #SORT_FIELDS}
+     */
+    @Transactional(readOnly = true)
+    public Slice<AnimalType> findPage(String query, Pageable pageable) {
+        Comparator<AnimalType> order = Paging.comparator(pageable.getSort(), SORT_FIELDS);
+        if (readModel.isActive()) {
+            String q = Paging.normalizeQuery(query);
+            return Paging.slice(readModel.findAllTypes(), t -> q == null || containsIgnoreCase(t.getName(), q),
+                    order, pageable);
+        }
+        String pattern = Paging.containsPattern(query);
+        return pattern == null ? repository.findPage(pageable) : repository.findPage(pattern, pageable);
+    }
+
     /**
      * Находит тип животного по его идентификатору.
      *
@@ -46,52 +108,114 @@ public class AnimalTypeService {
      * @return Найденный тип животного
      * @throws NotFoundException Если тип животного с указанным идентификатором не найден
      */
+    @Transactional(readOnly = true)
     public AnimalType findById(Integer id) {
+        if (readModel.isActive()) {
+            AnimalType type = readModel.findType(id);
+            if (type == null) {
+                throw new NotFoundException("AnimalType not found: " + id);
+            }
+            return type;
+        }
         return repository.findById(id)
                 .orElseThrow(() ->
                         new NotFoundException("AnimalType not found: " + id));
     }
 
     /**
-     * Сохраняет тип животного в системе.
+     * Сохраняет тип животного в системе и записывает событие CREATED в outbox в той же транзакции.
      * Перед сохранением нормализует название типа, приводя его к виду с заглавной первой буквой.
      *
      * @param type Объект типа животного для сохранения
      * @return Сохраненный тип животного
+     * @throws ConflictException Если тип животного с таким названием уже существует
      */
+    @Transactional
     public AnimalType save(AnimalType type) {
-        if (type.getName() == null || type.getName().isBlank()) {
-            throw new IllegalArgumentException("Название типа обязательно");
+        normalize(type);
+        AnimalType saved;
+        try {
+            saved = repository.save(type);
+        } catch (DataIntegrityViolationException ex) {
+            throw duplicateOr(ex, type);
         }
-
-        type.setName(capitalize(type.getName()));
-        return repository.save(type);
+        outboxService.record("AnimalType", saved.getId(), "CREATED", saved);
+        readModel.putType(saved);
+        return saved;
     }
 
     /**
      * Обновляет информацию о типе животного.
-     * Находит существующий тип по идентификатору и обновляет его поля.
+     * Выполняется одним запросом UPDATE ... WHERE id = ?, существование типа
+     * проверяется по количеству обновленных строк. Событие UPDATED записывается в outbox в той же транзакции.
      *
      * @param id Идентификатор типа животного для обновления
      * @param type Новые данные типа животного (название, средняя продолжительность жизни)
      * @return Обновленный объект типа животного
+     * @throws NotFoundException Если тип животного с указанным идентификатором не найден
+     * @throws ConflictException Если другой тип животного с таким названием уже существует
      */
-
+    @Transactional
     public AnimalType update(Integer id, AnimalType type) {
-        AnimalType existing = findById(id);
+        type.setId(id);
+        normalize(type);
+
+        int updated;
+        try {
+            updated = repository.updateFields(type);
+        } catch (DataIntegrityViolationException ex) {
+            throw duplicateOr(ex, type);
+        }
+        if (updated == 0) {
+            throw new NotFoundException("AnimalType not found: " + id);
+        }
+        outboxService.record("AnimalType", id, "UPDATED", type);
+        readModel.putType(type);
+        return type;
+    }
+
+    /**
+     * Преобразует нарушение уникального индекса по названию в ConflictException.
+     * Прочие нарушения целостности возвращаются без изменений.
+     *
+     * @param ex Исключение нарушения целостности данных
+     * @param type Сохраняемый тип животного
+     * @return Исключение для выбрасывания
+     */
+    private RuntimeException duplicateOr(DataIntegrityViolationException ex, AnimalType type) {
+        if (ConstraintViolations.violates(ex, AnimalType.UNIQUE_NAME)) {
+            return new ConflictException("AnimalType already exists: " + type.getName());
+        }
+        return ex;
+    }
 
-        existing.setName(type.getName());
-        existing.setAverageLifespan(type.getAverageLifespan());
+    /**
+     * Проверяет и нормализует название типа животного.
+     *
+     * @param type Объект типа животного
+     * @throws IllegalArgumentException Если название не указано
+     */
+    private void normalize(AnimalType type) {
+        if (type.getName() == null || type.getName().isBlank()) {
+            throw new IllegalArgumentException("Название типа обязательно");
+        }
 
-        return save(existing);
+        type.setName(capitalize(type.getName()));
     }
 
     /**
      * Удаляет тип животного из системы по идентификатору.
+     * Событие DELETED записывается в outbox в той же транзакции.
      *
      * @param id Идентификатор типа животного для удаления
+     * @throws NotFoundException Если тип животного с указанным идентификатором не найден
      */
+    @Transactional
     public void delete(Integer id) {
-        repository.deleteById(id);
+        AnimalType type = repository.findById(id)
+                .orElseThrow(() -> new NotFoundException("AnimalType not found: " + id));
+        repository.delete(type);
+        outboxService.record("AnimalType", id, "DELETED", null);
+        readModel.removeType(id);
     }
 }
\ No newline at end of file
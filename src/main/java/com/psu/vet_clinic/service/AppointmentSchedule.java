@@ -0,0 +1,302 @@
+package com.psu.vet_clinic.service;
+
+import com.psu.vet_clinic.entity.Appointment;
+import com.psu.vet_clinic.entity.AppointmentStatus;
+import com.psu.vet_clinic.exception.ConflictException;
+import com.psu.vet_clinic.exception.ServiceOverloadedException;
+import com.psu.vet_clinic.repository.AppointmentRepository;
+import com.psu.vet_clinic.tenant.TenancyProperties;
+import com.psu.vet_clinic.tenant.TenantContext;
+import com.psu.vet_clinic.util.IntervalTree;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Индекс расписания приемов в памяти.
+ *
+ * <p>Для каждой пары «ресурс + день» (животное или ветеринар клиники) хранится дерево интервалов
+ * запланированных приемов в минутах от начала дня. Проверка пересечения и поиск свободного времени
+ * выполняются по деревьям за O(log n) без обращения к таблице приемов.</p>
+ *
+ * <p>Бронирование выполняется в два шага: {@link #reserve(Appointment)} атомарно проверяет оба ресурса
+ * и занимает интервал временным идентификатором, а после вставки строки {@link #confirm(Appointment, int)}
+ * заменяет его идентификатором приема. Если транзакция откатывается, интервал освобождается.</p>
+ *
+ * <p>Индекс строится из базы данных после запуска и рассчитан на один экземпляр приложения:
+ * брони, сделанные другим экземпляром, ему не видны.</p>
+ */
+@Component
+@Lazy(false)
+public class AppointmentSchedule {
+
+    private static final Logger log = LoggerFactory.getLogger(AppointmentSchedule.class);
+
+    /**
+     * Ключ дерева интервалов: ресурс клиники в конкретный день.
+     *
+     * @param clinicId Идентификатор клиники
+     * @param resource Ресурс: "animal:{id}" или "vet:{имя}"
+     * @param day День
+     */
+    private record ResourceDay(int clinicId, String resource, LocalDate day) {
+    }
+
+    private final AppointmentRepository repository;
+    private final TenancyProperties tenancy;
+
+    /**
+     * Деревья интервалов по ресурсу и дню (доступ под блокировкой объекта)
+     */
+    private final Map<ResourceDay, IntervalTree> trees = new HashMap<>();
+
+    /**
+     * Следующий временный идентификатор брони; временные идентификаторы отрицательны
+     */
+    private int nextReservation = -1;
+    private volatile boolean loaded;
+
+    /**
+     * Конструктор с внедрением зависимостей.
+     *
+     * @param repository Репозиторий записей на прием
+     * @param tenancy Настройки размещения клиник по базам данных
+     */
+    public AppointmentSchedule(AppointmentRepository repository, TenancyProperties tenancy) {
+        this.repository = repository;
+        this.tenancy = tenancy;
+    }
+
+    /**
+     * Загружает запланированные приемы, начиная с текущего дня, из всех баз данных.
+     * Загрузка выполняется под блокировкой индекса, поэтому отмены, зафиксированные во время
+     * загрузки, применяются уже после нее.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public synchronized void load() {
+        long start = System.nanoTime();
+        LocalDateTime from = LocalDate.now().atStartOfDay();
+        int count = 0;
+        for (int shardClinicId : tenancy.shardClinicIds()) {
+            List<Appointment> scheduled = TenantContext.callAsRoot(shardClinicId, () ->
+                    repository.findByStatusAndStartsAtGreaterThanEqual(AppointmentStatus.SCHEDULED, from));
+            for (Appointment appointment : scheduled) {
+                insert(appointment.getClinicId(), appointment, appointment.getId());
+            }
+            count += scheduled.size();
+        }
+        loaded = true;
+        log.info("Appointment schedule loaded: {} appointments in {} ms",
+                count, (System.nanoTime() - start) / 1_000_000);
+    }
+
+    /**
+     * Проверяет, что животное и ветеринар свободны в интервале приема текущей клиники,
+     * и занимает интервал временной бронью.
+     *
+     * @param appointment Новый прием с заполненными животным, ветеринаром и временем
+     * @return Временный идентификатор брони
+     * @throws ConflictException Если животное или ветеринар уже заняты в это время
+     * @throws ServiceOverloadedException Если индекс еще не загружен
+     */
+    public synchronized int reserve(Appointment appointment) {
+        requireLoaded();
+        int clinicId = TenantContext.currentClinicId();
+        LocalDate day = appointment.getStartsAt().toLocalDate();
+        int start = minuteOfDay(appointment.getStartsAt());
+        int end = minuteOfDay(appointment.getEndsAt());
+
+        IntervalTree animalTree = trees.get(new ResourceDay(clinicId, animal(appointment), day));
+        if (animalTree != null && animalTree.overlaps(start, end)) {
+            throw new ConflictException("Animal already has an appointment at " + appointment.getStartsAt());
+        }
+        IntervalTree vetTree = trees.get(new ResourceDay(clinicId, vet(appointment.getVet()), day));
+        if (vetTree != null && vetTree.overlaps(start, end)) {
+            throw new ConflictException("Vet " + appointment.getVet() + " is busy at " + appointment.getStartsAt());
+        }
+
+        int reservation = nextReservation;
+        nextReservation = reservation == Integer.MIN_VALUE + 1 ? -1 : reservation - 1;
+        insert(clinicId, appointment, reservation);
+        return reservation;
+    }
+
+    /**
+     * Заменяет временную бронь идентификатором сохраненного приема.
+     * Если текущая транзакция будет откачена, интервал освобождается.
+     *
+     * @param appointment Сохраненный прием
+     * @param reservation Временный идентификатор брони
+     */
+    public synchronized void confirm(Appointment appointment, int reservation) {
+        int clinicId = TenantContext.currentClinicId();
+        remove(clinicId, appointment, reservation);
+        insert(clinicId, appointment, appointment.getId());
+
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    if (status != STATUS_COMMITTED) {
+                        removeLocked(clinicId, appointment, appointment.getId());
+                    }
+                }
+            });
+        }
+    }
+
+    /**
+     * Освобождает временную бронь, если сохранить прием не удалось.
+     *
+     * @param appointment Прием, для которого была сделана бронь
+     * @param reservation Временный идентификатор брони
+     */
+    public synchronized void cancelReservation(Appointment appointment, int reservation) {
+        remove(TenantContext.currentClinicId(), appointment, reservation);
+    }
+
+    /**
+     * Освобождает время приема после фиксации текущей транзакции (или сразу, если транзакции нет).
+     *
+     * @param appointment Отмененный прием
+     */
+    public void release(Appointment appointment) {
+        int clinicId = TenantContext.currentClinicId();
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    removeLocked(clinicId, appointment, appointment.getId());
+                }
+            });
+        } else {
+            removeLocked(clinicId, appointment, appointment.getId());
+        }
+    }
+
+    /**
+     * Находит начала свободных интервалов заданной длины, в которые свободны и животное,
+     * и ветеринар текущей клиники. Занятость обоих ресурсов объединяется и обходится один раз.
+     *
+     * @param animalId Идентификатор животного (null — не учитывать)
+     * @param vet Ветеринар (null — не учитывать)
+     * @param day День
+     * @param from Первая проверяемая минута дня
+     * @param to Минута окончания рабочего дня
+     * @param duration Длительность приема в минутах
+     * @param step Шаг сетки начала приема в минутах
+     * @return Начала свободных интервалов в минутах от начала дня
+     * @throws ServiceOverloadedException Если индекс еще не загружен
+     */
+    public List<Integer> findFreeStarts(Integer animalId, String vet, LocalDate day,
+                                        int from, int to, int duration, int step) {
+        requireLoaded();
+        int clinicId = TenantContext.currentClinicId();
+        List<int[]> busy = new ArrayList<>();
+        synchronized (this) {
+            if (animalId != null) {
+                collect(new ResourceDay(clinicId, "animal:" + animalId, day), from, to, busy);
+            }
+            if (vet != null) {
+                collect(new ResourceDay(clinicId, vet(vet), day), from, to, busy);
+            }
+        }
+        busy.sort(Comparator.comparingInt(interval -> interval[0]));
+
+        List<Integer> starts = new ArrayList<>();
+        int next = 0;
+        int busyUntil = Integer.MIN_VALUE;
+        for (int start = from; start + duration <= to; start += step) {
+            // Учитываются все занятые интервалы, начинающиеся до конца проверяемого;
+            // проверяемый интервал свободен, если все они заканчиваются не позже его начала
+            while (next < busy.size() && busy.get(next)[0] < start + duration) {
+                busyUntil = Math.max(busyUntil, busy.get(next)[1]);
+                next++;
+            }
+            if (busyUntil <= start) {
+                starts.add(start);
+            }
+        }
+        return starts;
+    }
+
+    /**
+     * Удаляет деревья прошедших дней.
+     */
+    @Scheduled(cron = "${vet-clinic.appointments.evict-cron:0 5 0 * * *}")
+    public synchronized void evictPastDays() {
+        LocalDate today = LocalDate.now();
+        trees.keySet().removeIf(key -> key.day().isBefore(today));
+    }
+
+    /**
+     * Возвращает минуту дня для момента времени.
+     *
+     * @param time Момент времени
+     * @return Количество минут от начала дня
+     */
+    static int minuteOfDay(LocalDateTime time) {
+        return time.getHour() * 60 + time.getMinute();
+    }
+
+    private void requireLoaded() {
+        if (!loaded) {
+            throw new ServiceOverloadedException("Appointment schedule is loading");
+        }
+    }
+
+    private void collect(ResourceDay key, int from, int to, List<int[]> busy) {
+        IntervalTree tree = trees.get(key);
+        if (tree != null) {
+            tree.forEachOverlapping(from, to, (start, end, id) -> busy.add(new int[]{start, end}));
+        }
+    }
+
+    private void insert(int clinicId, Appointment appointment, int id) {
+        LocalDate day = appointment.getStartsAt().toLocalDate();
+        int start = minuteOfDay(appointment.getStartsAt());
+        int end = minuteOfDay(appointment.getEndsAt());
+        trees.computeIfAbsent(new ResourceDay(clinicId, animal(appointment), day), key -> new IntervalTree())
+                .insert(start, end, id);
+        trees.computeIfAbsent(new ResourceDay(clinicId, vet(appointment.getVet()), day), key -> new IntervalTree())
+                .insert(start, end, id);
+    }
+
+    private synchronized void removeLocked(int clinicId, Appointment appointment, int id) {
+        remove(clinicId, appointment, id);
+    }
+
+    private void remove(int clinicId, Appointment appointment, int id) {
+        LocalDate day = appointment.getStartsAt().toLocalDate();
+        int start = minuteOfDay(appointment.getStartsAt());
+        for (ResourceDay key : List.of(new ResourceDay(clinicId, animal(appointment), day),
+                new ResourceDay(clinicId, vet(appointment.getVet()), day))) {
+            IntervalTree tree = trees.get(key);
+            if (tree != null && tree.remove(start, id) && tree.size() == 0) {
+                trees.remove(key);
+            }
+        }
+    }
+
+    private static String animal(Appointment appointment) {
+        return "animal:" + appointment.getAnimal().getId();
+    }
+
+    private static String vet(String vet) {
+        return "vet:" + vet;
+    }
+}
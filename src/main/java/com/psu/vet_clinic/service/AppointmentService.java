@@ -0,0 +1,323 @@
+package com.psu.vet_clinic.service;
+
+import com.psu.vet_clinic.dto.TimeSlot;
+import com.psu.vet_clinic.entity.Appointment;
+import com.psu.vet_clinic.entity.AppointmentStatus;
+import com.psu.vet_clinic.entity.MedicalRecord;
+import com.psu.vet_clinic.exception.ConflictException;
+import com.psu.vet_clinic.exception.NotFoundException;
+import com.psu.vet_clinic.repository.AppointmentRepository;
+import com.psu.vet_clinic.util.ConstraintViolations;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+
+import static com.psu.vet_clinic.util.TextNormalizer.capitalize;
+
+/**
+ * Сервис записи животных на прием.
+ *
+ * <p>Проверка занятости животного и ветеринара и поиск свободного времени выполняются
+ * по индексу расписания {@link AppointmentSchedule} в памяти; база данных используется
+ * только для сохранения приемов и их чтения по запросу. Состоявшийся прием преобразуется
+ * в медицинскую запись в той же транзакции, что и смена его состояния.</p>
+ *
+ * <p>Метрика {@code appointments.slots.search} — время поиска свободного времени.</p>
+ */
+@Service
+public class AppointmentService {
+
+    /**
+     * Репозиторий для работы с записями на прием
+     */
+    private final AppointmentRepository repository;
+
+    /**
+     * Индекс расписания приемов в памяти
+     */
+    private final AppointmentSchedule schedule;
+
+    /**
+     * Сервис для создания медицинских записей по итогам приема
+     */
+    private final MedicalRecordService medicalRecordService;
+
+    /**
+     * Начало рабочего дня клиники
+     */
+    private final LocalTime openingTime;
+
+    /**
+     * Окончание рабочего дня клиники
+     */
+    private final LocalTime closingTime;
+
+    /**
+     * Шаг сетки начала приема в минутах
+     */
+    private final int slotStepMinutes;
+
+    private final Timer slotSearchTimer;
+
+    /**
+     * Конструктор с внедрением зависимостей и настроек рабочего дня.
+     *
+     * @param repository Репозиторий для работы с записями на прием
+     * @param schedule Индекс расписания приемов в памяти
+     * @param medicalRecordService Сервис для работы с медицинскими записями
+     * @param meterRegistry Реестр метрик
+     * @param openingTime Начало рабочего дня (ЧЧ:ММ)
+     * @param closingTime Окончание рабочего дня (ЧЧ:ММ)
+     * @param slotStepMinutes Шаг сетки начала приема в минутах
+     */
+    public AppointmentService(AppointmentRepository repository,
+                              AppointmentSchedule schedule,
+                              MedicalRecordService medicalRecordService,
+                              MeterRegistry meterRegistry,
+                              @Value("${vet-clinic.appointments.opening-time:09:00}") String openingTime,
+                              @Value("${vet-clinic.appointments.closing-time:18:00}") String closingTime,
+                              @Value("${vet-clinic.appointments.slot-step-minutes:15}") int slotStepMinutes) {
+        this.repository = repository;
+        this.schedule = schedule;
+        this.medicalRecordService = medicalRecordService;
+        this.openingTime = LocalTime.parse(openingTime);
+        this.closingTime = LocalTime.parse(closingTime);
+        this.slotStepMinutes = slotStepMinutes;
+        this.slotSearchTimer = Timer.builder("appointments.slots.search")
+                .description("Time to find free appointment slots for one day")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Получает записи на прием на указанный день в порядке начала.
+     *
+     * @param day День
+     * @return Список записей на прием
+     */
+    @Transactional(readOnly = true)
+    public List<Appointment> findByDay(LocalDate day) {
+        return repository.findByStartsAtGreaterThanEqualAndStartsAtLessThanOrderByStartsAt(
+                day.atStartOfDay(), day.plusDays(1).atStartOfDay());
+    }
+
+    /**
+     * Находит запись на прием по идентификатору.
+     *
+     * @param id Идентификатор записи на прием
+     * @return Найденная запись на прием
+     * @throws NotFoundException Если запись на прием не найдена
+     */
+    @Transactional(readOnly = true)
+    public Appointment findById(Integer id) {
+        return repository.findById(id)
+                .orElseThrow(() -> new NotFoundException("Appointment not found: " + id));
+    }
+
+    /**
+     * Получает все записи животного на прием в порядке начала.
+     *
+     * @param animalId Идентификатор животного
+     * @return Список записей на прием
+     */
+    @Transactional(readOnly = true)
+    public List<Appointment> findByAnimalId(Integer animalId) {
+        return repository.findByAnimalIdOrderByStartsAt(animalId);
+    }
+
+    /**
+     * Находит свободное время на указанный день, когда свободны и животное, и ветеринар.
+     * Начала интервалов выравниваются по сетке рабочего дня; для текущего дня прошедшее время пропускается.
+     *
+     * @param day День
+     * @param durationMinutes Длительность приема в минутах
+     * @param animalId Идентификатор животного (необязательный)
+     * @param vet Ветеринар (необязательный)
+     * @return Свободные интервалы в порядке начала
+     * @throws IllegalArgumentException Если длительность не положительна
+     */
+    public List<TimeSlot> findFreeSlots(LocalDate day, int durationMinutes, Integer animalId, String vet) {
+        if (durationMinutes <= 0) {
+            throw new IllegalArgumentException("Длительность приема должна быть положительной");
+        }
+        LocalDate today = LocalDate.now();
+        if (day.isBefore(today)) {
+            return List.of();
+        }
+
+        int opening = openingTime.toSecondOfDay() / 60;
+        int closing = closingTime.toSecondOfDay() / 60;
+        int from = opening;
+        if (day.equals(today)) {
+            int now = AppointmentSchedule.minuteOfDay(LocalDateTime.now());
+            if (now > from) {
+                from += ((now - from + slotStepMinutes - 1) / slotStepMinutes) * slotStepMinutes;
+            }
+        }
+
+        int start = from;
+        List<Integer> starts = slotSearchTimer.record(() -> schedule.findFreeStarts(
+                animalId, normalizeVet(vet), day, start, closing, durationMinutes, slotStepMinutes));
+        LocalDateTime midnight = day.atStartOfDay();
+        return starts.stream()
+                .map(minute -> new TimeSlot(midnight.plusMinutes(minute), midnight.plusMinutes(minute + durationMinutes)))
+                .toList();
+    }
+
+    /**
+     * Создает запись на прием.
+     * Время проверяется и бронируется в индексе расписания до вставки строки,
+     * поэтому одновременные записи на пересекающееся время не проходят.
+     *
+     * @param appointment Новая запись на прием со ссылкой на животное
+     * @return Сохраненная запись на прием
+     * @throws IllegalArgumentException Если не пройдена валидация данных
+     * @throws ConflictException Если животное или ветеринар уже заняты в это время
+     * @throws NotFoundException Если животное не существует в текущей клинике
+     */
+    @Transactional
+    public Appointment create(Appointment appointment) {
+        validateAndNormalize(appointment);
+        appointment.setId(null);
+        appointment.setStatus(AppointmentStatus.SCHEDULED);
+        appointment.setMedicalRecordId(null);
+
+        int reservation = schedule.reserve(appointment);
+        Appointment saved;
+        try {
+            saved = repository.save(appointment);
+        } catch (RuntimeException ex) {
+            schedule.cancelReservation(appointment, reservation);
+            if (ex instanceof DataIntegrityViolationException violation && ConstraintViolations.violates(violation,
+                    Appointment.FOREIGN_KEY_ANIMAL, Appointment.FOREIGN_KEY_CLINIC_ANIMAL)) {
+                throw new NotFoundException("Animal not found: " + appointment.getAnimal().getId());
+            }
+            throw ex;
+        }
+        schedule.confirm(saved, reservation);
+        return saved;
+    }
+
+    /**
+     * Завершает прием и создает по нему медицинскую запись с датой приема, процедурой и диагнозом.
+     * Смена состояния и создание медицинской записи выполняются в одной транзакции.
+     *
+     * @param id Идентификатор записи на прием
+     * @param diagnosis Диагноз, поставленный на приеме
+     * @return Созданная медицинская запись
+     * @throws NotFoundException Если запись на прием не найдена
+     * @throws ConflictException Если прием уже завершен или отменен
+     * @throws IllegalArgumentException Если прием еще не наступил или диагноз не указан
+     */
+    @Transactional
+    public MedicalRecord complete(Integer id, String diagnosis) {
+        Appointment appointment = findScheduledForUpdate(id);
+        if (appointment.getStartsAt().toLocalDate().isAfter(LocalDate.now())) {
+            throw new IllegalArgumentException("Прием еще не состоялся");
+        }
+
+        MedicalRecord record = medicalRecordService.save(new MedicalRecord(
+                appointment.getStartsAt().toLocalDate(), appointment.getProcedureType(),
+                diagnosis, appointment.getAnimal()));
+        appointment.setStatus(AppointmentStatus.COMPLETED);
+        appointment.setMedicalRecordId(record.getId());
+        return record;
+    }
+
+    /**
+     * Отменяет прием и освобождает его время после фиксации транзакции.
+     *
+     * @param id Идентификатор записи на прием
+     * @return Отмененная запись на прием
+     * @throws NotFoundException Если запись на прием не найдена
+     * @throws ConflictException Если прием уже завершен или отменен
+     */
+    @Transactional
+    public Appointment cancel(Integer id) {
+        Appointment appointment = findScheduledForUpdate(id);
+        appointment.setStatus(AppointmentStatus.CANCELLED);
+        schedule.release(appointment);
+        return appointment;
+    }
+
+    /**
+     * Находит запланированный прием и блокирует его строку до конца транзакции.
+     */
+    private Appointment findScheduledForUpdate(Integer id) {
+        Appointment appointment = repository.findWithLockById(id)
+                .orElseThrow(() -> new NotFoundException("Appointment not found: " + id));
+        if (appointment.getStatus() != AppointmentStatus.SCHEDULED) {
+            throw new ConflictException("Appointment " + id + " is already " + appointment.getStatus());
+        }
+        return appointment;
+    }
+
+    /**
+     * Проверяет и нормализует данные записи на прием:
+     * - время начала и окончания округляется до минут
+     * - прием начинается в будущем, заканчивается позже начала и в тот же день
+     * - прием укладывается в рабочий день клиники
+     * - ветеринар и процедура не пустые; процедура приводится к виду с заглавной первой буквой
+     *
+     * @param appointment Запись на прием
+     * @throws IllegalArgumentException Если не пройдена валидация данных
+     */
+    private void validateAndNormalize(Appointment appointment) {
+        if (appointment.getStartsAt() == null || appointment.getEndsAt() == null) {
+            throw new IllegalArgumentException("Время начала и окончания приема обязательно");
+        }
+        appointment.setStartsAt(appointment.getStartsAt().truncatedTo(ChronoUnit.MINUTES));
+        appointment.setEndsAt(appointment.getEndsAt().truncatedTo(ChronoUnit.MINUTES));
+
+        LocalDateTime startsAt = appointment.getStartsAt();
+        LocalDateTime endsAt = appointment.getEndsAt();
+        if (!endsAt.isAfter(startsAt)) {
+            throw new IllegalArgumentException("Окончание приема должно быть позже начала");
+        }
+        if (!endsAt.toLocalDate().equals(startsAt.toLocalDate())) {
+            throw new IllegalArgumentException("Прием должен начинаться и заканчиваться в один день");
+        }
+        if (startsAt.isBefore(LocalDateTime.now())) {
+            throw new IllegalArgumentException("Время приема не может быть в прошлом");
+        }
+        if (startsAt.getYear() > 2100) {
+            throw new IllegalArgumentException("Год приема должен быть не позже 2100");
+        }
+        if (startsAt.toLocalTime().isBefore(openingTime) || endsAt.toLocalTime().isAfter(closingTime)) {
+            throw new IllegalArgumentException("Прием должен проходить с " + openingTime + " до " + closingTime);
+        }
+
+        String vet = normalizeVet(appointment.getVet());
+        if (vet == null) {
+            throw new IllegalArgumentException("Ветеринар обязателен");
+        }
+        if (appointment.getProcedureType() == null || appointment.getProcedureType().isBlank()) {
+            throw new IllegalArgumentException("Процедура обязательна");
+        }
+
+        appointment.setVet(vet);
+        appointment.setProcedureType(capitalize(appointment.getProcedureType()));
+    }
+
+    /**
+     * Приводит имя ветеринара к единому виду, чтобы занятость одного ветеринара
+     * не разделялась из-за пробелов и регистра.
+     *
+     * @param vet Имя ветеринара
+     * @return Нормализованное имя или null, если имя не указано
+     */
+    private static String normalizeVet(String vet) {
+        if (vet == null || vet.isBlank()) {
+            return null;
+        }
+        return capitalize(vet);
+    }
+}
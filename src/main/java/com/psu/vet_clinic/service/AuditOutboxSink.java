@@ -0,0 +1,376 @@
+package com.psu.vet_clinic.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.JsonNodeFactory;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.psu.vet_clinic.entity.OutboxEvent;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.dao.RecoverableDataAccessException;
+import org.springframework.dao.TransientDataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.CannotCreateTransactionException;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Получатель событий outbox, который ведет историю изменений животных, типов животных
+ * и медицинских записей в таблице {@code audit_entries}.
+ *
+ * <p>События содержат полное состояние сущности после изменения. Получатель сравнивает его
+ * с последним записанным состоянием и сохраняет только измененные поля; полное состояние
+ * сохраняется при создании, для сущностей без истории и для каждой {@code snapshot-interval}-й версии,
+ * чтобы восстановление не требовало чтения всей истории.</p>
+ *
+ * <p>История пишется обработчиком outbox в фоне, поэтому запросы, изменяющие данные, не ждут ее записи.
+ * Каждый пакет записывается в отдельной транзакции: ошибка аудита не откатывает обработку outbox
+ * и не мешает другим получателям. Если пакет не удалось записать из-за ошибки данных, события
+ * записываются по одному, а событие с ошибкой пропускается с записью в лог; следующее изменение
+ * сущности сравнивается с последним записанным состоянием, поэтому история остается согласованной.
+ * При временной недоступности базы данных исключение передается обработчику outbox, и пакет
+ * будет доставлен повторно.</p>
+ *
+ * <p>Каждая версия хранит идентификатор события outbox; события, которые уже записаны
+ * (повторная доставка после отката транзакции обработчика), пропускаются. Для каждого пакета
+ * последние состояния загружаются одним запросом на клинику и тип сущности, а новые версии
+ * вставляются пакетом JDBC.</p>
+ *
+ * <p>Метрики: {@code audit.write} — время записи истории для одного пакета outbox,
+ * {@code audit.entries.written} — количество записанных версий, {@code audit.events.skipped} —
+ * количество событий, пропущенных из-за ошибок, {@code audit.lag} — задержка
+ * между изменением сущности и записью его в историю.</p>
+ */
+@Component
+@ConditionalOnProperty(name = "vet-clinic.audit.enabled", havingValue = "true", matchIfMissing = true)
+public class AuditOutboxSink implements OutboxEventSink {
+
+    private static final Logger log = LoggerFactory.getLogger(AuditOutboxSink.class);
+
+    /**
+     * Версии, начиная с последнего полного состояния, для набора сущностей одного типа и клиники
+     */
+    private static final String HEAD_SQL = """
+            select e.entity_id, e.version, e.operation, e.full_state, e.changes, e.event_id
+            from audit_entries e
+            where e.clinic_id = ? and e.entity_type = ? and e.entity_id = any(?)
+              and e.version >= (select coalesce(max(s.version), 0) from audit_entries s
+                                where s.clinic_id = e.clinic_id and s.entity_type = e.entity_type
+                                  and s.entity_id = e.entity_id and s.full_state)
+            order by e.entity_id, e.version
+            """;
+
+    private static final String INSERT_SQL = """
+            insert into audit_entries (clinic_id, entity_type, entity_id, version, operation, full_state, changes, changed_at, event_id)
+            values (?, ?, ?, ?, ?, ?, ?, ?, ?)
+            """;
+
+    /**
+     * Сущность клиники, для которой ведется история.
+     *
+     * @param clinicId Идентификатор клиники
+     * @param entityType Тип сущности
+     * @param entityId Идентификатор сущности
+     */
+    private record Key(int clinicId, String entityType, int entityId) {
+    }
+
+    /**
+     * Новая версия сущности для записи.
+     */
+    private record Entry(Key key, int version, String operation, boolean fullState, String changes,
+                         Instant changedAt, long eventId) {
+    }
+
+    /**
+     * Последнее записанное состояние сущности, обновляется по мере обработки пакета.
+     */
+    private static final class Head {
+        private int version;
+        private boolean exists;
+        private long lastEventId;
+        private final ObjectNode state;
+
+        private Head(ObjectNode state) {
+            this.state = state;
+        }
+    }
+
+    private final JdbcTemplate jdbcTemplate;
+    private final ObjectMapper objectMapper;
+
+    /**
+     * Шаблон отдельной транзакции записи истории
+     */
+    private final TransactionTemplate transactionTemplate;
+
+    /**
+     * Каждая версия с этим шагом сохраняется с полным состоянием
+     */
+    private final int snapshotInterval;
+
+    /**
+     * Количество строк в одном пакете JDBC
+     */
+    private final int batchSize;
+
+    private final Timer writeTimer;
+    private final Counter written;
+    private final Counter skipped;
+    private final Timer lag;
+
+    /**
+     * Конструктор с внедрением зависимостей и настроек.
+     *
+     * @param jdbcTemplate JdbcTemplate для чтения последних состояний и пакетной записи версий
+     * @param objectMapper ObjectMapper для разбора и сравнения состояний
+     * @param transactionManager Менеджер транзакций для отдельной транзакции записи истории
+     * @param meterRegistry Реестр метрик
+     * @param snapshotInterval Шаг версий, сохраняемых с полным состоянием
+     * @param batchSize Количество строк в одном пакете JDBC
+     */
+    public AuditOutboxSink(JdbcTemplate jdbcTemplate,
+                           ObjectMapper objectMapper,
+                           PlatformTransactionManager transactionManager,
+                           MeterRegistry meterRegistry,
+                           @Value("${vet-clinic.audit.snapshot-interval:50}") int snapshotInterval,
+                           @Value("${vet-clinic.audit.batch-size:500}") int batchSize) {
+        if (snapshotInterval < 1) {
+            throw new IllegalArgumentException("vet-clinic.audit.snapshot-interval must be positive");
+        }
+        this.jdbcTemplate = jdbcTemplate;
+        this.objectMapper = objectMapper;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.snapshotInterval = snapshotInterval;
+        this.batchSize = batchSize;
+        this.writeTimer = Timer.builder("audit.write")
+                .description("Time to write audit history for one outbox batch")
+                .register(meterRegistry);
+        this.written = Counter.builder("audit.entries.written")
+                .description("Number of audit entries written")
+                .register(meterRegistry);
+        this.skipped = Counter.builder("audit.events.skipped")
+                .description("Number of outbox events not written to audit history because of errors")
+                .register(meterRegistry);
+        this.lag = Timer.builder("audit.lag")
+                .description("Delay between an entity change and its audit entry")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Записывает историю по пакету событий в отдельной транзакции.
+     *
+     * @param events Пакет событий в порядке их создания
+     * @throws RuntimeException Только при временной недоступности базы данных, чтобы пакет был доставлен повторно
+     */
+    @Override
+    public void publish(List<OutboxEvent> events) {
+        try {
+            writeTimer.record(() -> transactionTemplate.executeWithoutResult(status -> write(events)));
+        } catch (RuntimeException ex) {
+            if (isTransient(ex)) {
+                throw ex;
+            }
+            log.warn("Failed to write audit history for {} outbox events, writing them one by one", events.size(), ex);
+            for (OutboxEvent event : events) {
+                try {
+                    transactionTemplate.executeWithoutResult(status -> write(List.of(event)));
+                } catch (RuntimeException single) {
+                    if (isTransient(single)) {
+                        throw single;
+                    }
+                    log.error("Skipping audit history for outbox event {} ({} {} {})", event.getId(),
+                            event.getAggregateType(), event.getAggregateId(), event.getEventType(), single);
+                    skipped.increment();
+                }
+            }
+        }
+    }
+
+    /**
+     * Проверяет, вызвана ли ошибка временной недоступностью базы данных.
+     */
+    private static boolean isTransient(RuntimeException ex) {
+        return ex instanceof TransientDataAccessException || ex instanceof RecoverableDataAccessException
+                || ex instanceof CannotCreateTransactionException;
+    }
+
+    private void write(List<OutboxEvent> events) {
+        Map<Key, Head> heads = new LinkedHashMap<>();
+        for (OutboxEvent event : events) {
+            if (AuditService.AUDITED_TYPES.containsValue(event.getAggregateType())) {
+                heads.putIfAbsent(key(event), null);
+            }
+        }
+        if (heads.isEmpty()) {
+            return;
+        }
+        loadHeads(heads);
+
+        List<Entry> entries = new ArrayList<>();
+        for (OutboxEvent event : events) {
+            Key key = key(event);
+            Head head = heads.get(key);
+            if (head != null) {
+                Entry entry = next(key, head, event);
+                if (entry != null) {
+                    entries.add(entry);
+                }
+            }
+        }
+        if (entries.isEmpty()) {
+            return;
+        }
+
+        jdbcTemplate.batchUpdate(INSERT_SQL, entries, batchSize, (ps, entry) -> {
+            ps.setInt(1, entry.key().clinicId());
+            ps.setString(2, entry.key().entityType());
+            ps.setInt(3, entry.key().entityId());
+            ps.setInt(4, entry.version());
+            ps.setString(5, entry.operation());
+            ps.setBoolean(6, entry.fullState());
+            ps.setString(7, entry.changes());
+            ps.setTimestamp(8, Timestamp.from(entry.changedAt()));
+            ps.setLong(9, entry.eventId());
+        });
+        written.increment(entries.size());
+        Instant now = Instant.now();
+        for (Entry entry : entries) {
+            lag.record(Duration.between(entry.changedAt(), now));
+        }
+    }
+
+    /**
+     * Вычисляет следующую версию сущности по событию и применяет ее к последнему состоянию.
+     *
+     * @return Новая версия или null, если событие уже записано или не изменило ни одного поля
+     */
+    private Entry next(Key key, Head head, OutboxEvent event) {
+        if (event.getId() <= head.lastEventId) {
+            return null;
+        }
+        String operation = event.getEventType();
+        if (AuditService.DELETED.equals(operation)) {
+            head.version++;
+            head.exists = false;
+            head.lastEventId = event.getId();
+            AuditService.apply(head.state, operation, false, objectMapper.createObjectNode());
+            return new Entry(key, head.version, operation, false, "{}", event.getCreatedAt(), event.getId());
+        }
+        if (event.getPayload() == null) {
+            return null;
+        }
+
+        ObjectNode payload = parse(event.getPayload());
+        boolean fullState = isFullState(operation, head.exists, head.version + 1, snapshotInterval);
+        ObjectNode changes = fullState ? payload : diff(head.state, payload);
+        if (changes.isEmpty()) {
+            return null;
+        }
+
+        head.version++;
+        head.exists = true;
+        head.lastEventId = event.getId();
+        AuditService.apply(head.state, operation, fullState, changes);
+        return new Entry(key, head.version, operation, fullState, changes.toString(), event.getCreatedAt(),
+                event.getId());
+    }
+
+    /**
+     * Определяет, сохраняется ли версия с полным состоянием: при создании, при первом изменении
+     * сущности без истории и на каждой {@code snapshotInterval}-й версии.
+     *
+     * @param operation Операция события
+     * @param exists true, если у сущности есть история и она не удалена
+     * @param version Номер новой версии
+     * @param snapshotInterval Шаг версий с полным состоянием
+     * @return true, если версия сохраняется с полным состоянием
+     */
+    static boolean isFullState(String operation, boolean exists, int version, int snapshotInterval) {
+        return AuditService.CREATED.equals(operation) || !exists || version % snapshotInterval == 0;
+    }
+
+    /**
+     * Возвращает поля, значения которых отличаются от предыдущего состояния;
+     * поля, отсутствующие в новом состоянии, записываются со значением null.
+     *
+     * @param previous Последнее записанное состояние
+     * @param current Новое состояние
+     * @return Измененные поля
+     */
+    static ObjectNode diff(ObjectNode previous, ObjectNode current) {
+        ObjectNode changes = JsonNodeFactory.instance.objectNode();
+        for (Iterator<Map.Entry<String, JsonNode>> it = current.fields(); it.hasNext(); ) {
+            Map.Entry<String, JsonNode> field = it.next();
+            if (!field.getValue().equals(previous.get(field.getKey()))) {
+                changes.set(field.getKey(), field.getValue());
+            }
+        }
+        for (Iterator<String> it = previous.fieldNames(); it.hasNext(); ) {
+            String name = it.next();
+            if (!current.has(name)) {
+                changes.putNull(name);
+            }
+        }
+        return changes;
+    }
+
+    /**
+     * Загружает последние записанные состояния сущностей пакета: один запрос на клинику и тип сущности.
+     */
+    private void loadHeads(Map<Key, Head> heads) {
+        Map<Key, List<Integer>> groups = new LinkedHashMap<>();
+        for (Key key : heads.keySet()) {
+            heads.put(key, new Head(objectMapper.createObjectNode()));
+            groups.computeIfAbsent(new Key(key.clinicId(), key.entityType(), 0), group -> new ArrayList<>())
+                    .add(key.entityId());
+        }
+
+        for (Map.Entry<Key, List<Integer>> group : groups.entrySet()) {
+            Key groupKey = group.getKey();
+            jdbcTemplate.query(HEAD_SQL, ps -> {
+                ps.setInt(1, groupKey.clinicId());
+                ps.setString(2, groupKey.entityType());
+                ps.setArray(3, ps.getConnection().createArrayOf("integer", group.getValue().toArray()));
+            }, rs -> {
+                Head head = heads.get(new Key(groupKey.clinicId(), groupKey.entityType(), rs.getInt(1)));
+                String operation = rs.getString(3);
+                AuditService.apply(head.state, operation, rs.getBoolean(4), parse(rs.getString(5)));
+                head.version = rs.getInt(2);
+                head.exists = !AuditService.DELETED.equals(operation);
+                // У версий, записанных до появления столбца event_id, он пустой (0)
+                head.lastEventId = Math.max(head.lastEventId, rs.getLong(6));
+            });
+        }
+    }
+
+    private ObjectNode parse(String json) {
+        try {
+            return (ObjectNode) objectMapper.readTree(json);
+        } catch (JsonProcessingException ex) {
+            throw new IllegalStateException("Cannot parse audited state", ex);
+        }
+    }
+
+    private static Key key(OutboxEvent event) {
+        return new Key(event.getClinicId(), event.getAggregateType(), event.getAggregateId());
+    }
+}
@@ -0,0 +1,136 @@
+package com.psu.vet_clinic.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.psu.vet_clinic.dto.AuditSnapshot;
+import com.psu.vet_clinic.entity.AuditEntry;
+import com.psu.vet_clinic.exception.NotFoundException;
+import com.psu.vet_clinic.repository.AuditEntryRepository;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Сервис чтения истории изменений сущностей, записанной получателем outbox {@link AuditOutboxSink}.
+ * Позволяет получить все версии сущности и восстановить ее состояние на заданный момент.
+ *
+ * <p>История записывается асинхронно, поэтому последние изменения появляются в ней
+ * с задержкой до одного интервала опроса outbox.</p>
+ */
+@Service
+public class AuditService {
+
+    /**
+     * Типы сущностей, изменения которых записываются в историю, по сегменту пути REST API
+     */
+    static final Map<String, String> AUDITED_TYPES = Map.of(
+            "animals", "Animal",
+            "animal-types", "AnimalType",
+            "medical-records", "MedicalRecord");
+
+    static final String CREATED = "CREATED";
+    static final String UPDATED = "UPDATED";
+    static final String DELETED = "DELETED";
+
+    /**
+     * Репозиторий для работы с записями аудита
+     */
+    private final AuditEntryRepository repository;
+
+    /**
+     * ObjectMapper для разбора сохраненных изменений
+     */
+    private final ObjectMapper objectMapper;
+
+    /**
+     * Конструктор с внедрением зависимостей.
+     *
+     * @param repository Репозиторий для работы с записями аудита
+     * @param objectMapper ObjectMapper для разбора сохраненных изменений
+     */
+    public AuditService(AuditEntryRepository repository, ObjectMapper objectMapper) {
+        this.repository = repository;
+        this.objectMapper = objectMapper;
+    }
+
+    /**
+     * Получает все версии сущности текущей клиники.
+     *
+     * @param entity Сегмент пути сущности: animals, animal-types или medical-records
+     * @param id Идентификатор сущности
+     * @return Список версий в порядке создания
+     * @throws IllegalArgumentException Если тип сущности не поддерживается
+     */
+    @Transactional(readOnly = true)
+    public List<AuditEntry> findHistory(String entity, Integer id) {
+        return repository.findByEntityTypeAndEntityIdOrderByVersion(entityType(entity), id);
+    }
+
+    /**
+     * Восстанавливает состояние сущности текущей клиники на указанный момент.
+     *
+     * @param entity Сегмент пути сущности: animals, animal-types или medical-records
+     * @param id Идентификатор сущности
+     * @param at Момент времени
+     * @return Состояние сущности
+     * @throws IllegalArgumentException Если тип сущности не поддерживается
+     * @throws NotFoundException Если на указанный момент сущность не существовала или ее история не записана
+     */
+    @Transactional(readOnly = true)
+    public AuditSnapshot findStateAt(String entity, Integer id, Instant at) {
+        String type = entityType(entity);
+        List<AuditEntry> entries = repository.findForReplay(type, id, at);
+        if (entries.isEmpty()) {
+            throw new NotFoundException(type + " " + id + " has no history before " + at);
+        }
+
+        ObjectNode state = objectMapper.createObjectNode();
+        for (AuditEntry entry : entries) {
+            apply(state, entry.getOperation(), entry.isFullState(), parse(entry.getChanges()));
+        }
+        AuditEntry last = entries.get(entries.size() - 1);
+        if (DELETED.equals(last.getOperation())) {
+            throw new NotFoundException(type + " " + id + " was deleted at " + last.getChangedAt());
+        }
+        return new AuditSnapshot(type, id, last.getVersion(), last.getChangedAt(), state);
+    }
+
+    /**
+     * Применяет одну версию к восстанавливаемому состоянию сущности.
+     *
+     * @param state Состояние сущности, изменяется на месте
+     * @param operation Операция версии
+     * @param fullState true, если версия содержит полное состояние
+     * @param changes Измененные поля или полное состояние
+     */
+    static void apply(ObjectNode state, String operation, boolean fullState, ObjectNode changes) {
+        if (DELETED.equals(operation)) {
+            state.removeAll();
+            return;
+        }
+        if (fullState) {
+            state.removeAll();
+        }
+        state.setAll(changes);
+    }
+
+    private ObjectNode parse(String json) {
+        try {
+            return (ObjectNode) objectMapper.readTree(json);
+        } catch (JsonProcessingException ex) {
+            throw new IllegalStateException("Corrupted audit entry", ex);
+        }
+    }
+
+    private static String entityType(String entity) {
+        String type = AUDITED_TYPES.get(entity);
+        if (type == null) {
+            throw new IllegalArgumentException("История изменений не ведется для: " + entity);
+        }
+        return type;
+    }
+}
@@ -0,0 +1,511 @@
+package com.psu.vet_clinic.service;
+
+import com.psu.vet_clinic.dto.AnimalRow;
+import com.psu.vet_clinic.dto.MedicalRecordRow;
+import com.psu.vet_clinic.entity.Animal;
+import com.psu.vet_clinic.entity.AnimalType;
+import com.psu.vet_clinic.entity.MedicalRecord;
+import com.psu.vet_clinic.repository.AnimalRepository;
+import com.psu.vet_clinic.repository.AnimalTypeRepository;
+import com.psu.vet_clinic.repository.MedicalRecordRepository;
+import com.psu.vet_clinic.tenant.TenancyProperties;
+import com.psu.vet_clinic.tenant.TenantContext;
+import com.psu.vet_clinic.util.IntObjectMap;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Consumer;
+
+/**
+ * Модель чтения всех данных клиники в памяти процесса.
+ *
+ * <p>При запуске загружает типы животных, животных и медицинские записи в компактные структуры:
+ * хеш-таблицы с ключами int и неизменяемые строки ({@link AnimalRow}, {@link MedicalRecordRow}),
+ * а для каждого животного — отсортированный массив идентификаторов его записей. Сервисы обслуживают
+ * findAll/findById/findByAnimalId из модели без обращения к базе данных и сообщают модели
+ * о каждом изменении; изменения применяются после фиксации транзакции.</p>
+ *
+ * <p>Данные хранятся отдельно для каждой клиники; запросы обслуживаются из раздела
+ * текущей клиники ({@link TenantContext}).</p>
+ *
+ * <p>На каждый запрос создаются новые объекты сущностей, поэтому вызывающий код может
+ * изменять их, не затрагивая модель.</p>
+ *
+ * <p>Модель включается свойством {@code vet-clinic.read-model.enabled}. Пока она выключена
+ * или еще не загружена, сервисы читают данные из базы данных.</p>
+ *
+ * <p>Модель рассчитана только на один экземпляр приложения: она узнает лишь об изменениях,
+ * выполненных сервисами этого процесса. Изменения, сделанные другим экземпляром или напрямую
+ * в базе данных, в ней не появятся до перезапуска, поэтому при нескольких экземплярах
+ * модель должна быть выключена.</p>
+ */
+@Component
+public class ClinicReadModel {
+
+    private static final Logger log = LoggerFactory.getLogger(ClinicReadModel.class);
+
+    private static final int[] NO_RECORDS = new int[0];
+
+    private final AnimalTypeRepository animalTypeRepository;
+    private final AnimalRepository animalRepository;
+    private final MedicalRecordRepository medicalRecordRepository;
+    private final TenancyProperties tenancy;
+    private final boolean enabled;
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    /**
+     * Разделы модели по идентификатору клиники
+     */
+    private final IntObjectMap<Partition> partitions = new IntObjectMap<>(16);
+    private volatile boolean loaded;
+
+    /**
+     * Изменения, зафиксированные до окончания загрузки (доступ под блокировкой записи)
+     */
+    private final List<Runnable> pendingChanges = new ArrayList<>();
+
+    /**
+     * Конструктор с внедрением зависимостей.
+     *
+     * @param animalTypeRepository Репозиторий типов животных
+     * @param animalRepository Репозиторий животных
+     * @param medicalRecordRepository Репозиторий медицинских записей
+     * @param tenancy Настройки размещения клиник по базам данных
+     * @param enabled Включена ли модель чтения
+     */
+    public ClinicReadModel(AnimalTypeRepository animalTypeRepository,
+                           AnimalRepository animalRepository,
+                           MedicalRecordRepository medicalRecordRepository,
+                           TenancyProperties tenancy,
+                           @Value("${vet-clinic.read-model.enabled:false}") boolean enabled) {
+        this.animalTypeRepository = animalTypeRepository;
+        this.animalRepository = animalRepository;
+        this.medicalRecordRepository = medicalRecordRepository;
+        this.tenancy = tenancy;
+        this.enabled = enabled;
+    }
+
+    /**
+     * Проверяет, обслуживает ли модель запросы на чтение.
+     *
+     * @return true, если модель включена и загружена
+     */
+    public boolean isActive() {
+        return loaded;
+    }
+
+    /**
+     * Загружает данные всех клиник из основной базы данных и баз шардов после запуска приложения.
+     * Изменения, зафиксированные во время загрузки, накапливаются и применяются поверх
+     * загруженных данных; повторное применение уже прочитанного изменения ничего не меняет.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void load() {
+        if (!enabled) {
+            return;
+        }
+        long start = System.nanoTime();
+        List<AnimalType> allTypes = new ArrayList<>();
+        List<Animal> allAnimals = new ArrayList<>();
+        List<MedicalRecord> allRecords = new ArrayList<>();
+        for (int shardClinicId : tenancy.shardClinicIds()) {
+            TenantContext.callAsRoot(shardClinicId, () -> {
+                allTypes.addAll(animalTypeRepository.findAll());
+                allAnimals.addAll(animalRepository.findAll());
+                return allRecords.addAll(medicalRecordRepository.findAll());
+            });
+        }
+
+        lock.writeLock().lock();
+        try {
+            allTypes.forEach(type -> partition(type.getClinicId()).putType(type));
+            allAnimals.forEach(animal -> partition(animal.getClinicId()).putAnimal(AnimalRow.of(animal)));
+            allRecords.forEach(record -> partition(record.getClinicId()).putRecord(MedicalRecordRow.of(record)));
+            pendingChanges.forEach(Runnable::run);
+            pendingChanges.clear();
+            loaded = true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+        log.info("Read model loaded: {} types, {} animals, {} records in {} ms",
+                allTypes.size(), allAnimals.size(), allRecords.size(),
+                (System.nanoTime() - start) / 1_000_000);
+    }
+
+    /**
+     * Возвращает все типы животных в порядке идентификаторов.
+     *
+     * @return Список типов животных
+     */
+    public List<AnimalType> findAllTypes() {
+        lock.readLock().lock();
+        try {
+            Partition partition = currentPartition();
+            int[] ids = partition.types.sortedKeys();
+            List<AnimalType> result = new ArrayList<>(ids.length);
+            for (int id : ids) {
+                result.add(copy(partition.types.get(id)));
+            }
+            return result;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Возвращает тип животного по идентификатору.
+     *
+     * @param id Идентификатор типа
+     * @return Тип животного или null, если не найден
+     */
+    public AnimalType findType(int id) {
+        lock.readLock().lock();
+        try {
+            AnimalType type = currentPartition().types.get(id);
+            return type != null ? copy(type) : null;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Возвращает всех животных в порядке идентификаторов.
+     *
+     * @return Список животных
+     */
+    public List<Animal> findAllAnimals() {
+        lock.readLock().lock();
+        try {
+            Partition partition = currentPartition();
+            int[] ids = partition.animals.sortedKeys();
+            IntObjectMap<AnimalType> typeCache = new IntObjectMap<>(partition.types.size());
+            List<Animal> result = new ArrayList<>(ids.length);
+            for (int id : ids) {
+                result.add(partition.toAnimal(partition.animals.get(id), typeCache));
+            }
+            return result;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Возвращает животное по идентификатору.
+     *
+     * @param id Идентификатор животного
+     * @return Животное или null, если не найдено
+     */
+    public Animal findAnimal(int id) {
+        lock.readLock().lock();
+        try {
+            Partition partition = currentPartition();
+            AnimalRow row = partition.animals.get(id);
+            return row != null ? partition.toAnimal(row, new IntObjectMap<>(4)) : null;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Возвращает все медицинские записи в порядке идентификаторов.
+     *
+     * @return Список медицинских записей
+     */
+    public List<MedicalRecord> findAllRecords() {
+        lock.readLock().lock();
+        try {
+            Partition partition = currentPartition();
+            return partition.toRecords(partition.records.sortedKeys());
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Возвращает медицинскую запись по идентификатору.
+     *
+     * @param id Идентификатор записи
+     * @return Медицинская запись или null, если не найдена
+     */
+    public MedicalRecord findRecord(int id) {
+        lock.readLock().lock();
+        try {
+            Partition partition = currentPartition();
+            return partition.records.get(id) != null ? partition.toRecords(new int[]{id}).get(0) : null;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Возвращает медицинские записи животного в порядке идентификаторов.
+     *
+     * @param animalId Идентификатор животного
+     * @return Список медицинских записей
+     */
+    public List<MedicalRecord> findRecordsByAnimal(int animalId) {
+        lock.readLock().lock();
+        try {
+            Partition partition = currentPartition();
+            int[] ids = partition.recordIdsByAnimal.get(animalId);
+            return partition.toRecords(ids != null ? ids : NO_RECORDS);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Сохраняет тип животного в модели после фиксации текущей транзакции.
+     *
+     * @param type Сохраненный тип животного
+     */
+    public void putType(AnimalType type) {
+        AnimalType snapshot = copy(type);
+        afterCommit(partition -> partition.putType(snapshot));
+    }
+
+    /**
+     * Удаляет тип животного из модели после фиксации текущей транзакции.
+     *
+     * @param id Идентификатор типа
+     */
+    public void removeType(int id) {
+        afterCommit(partition -> partition.types.remove(id));
+    }
+
+    /**
+     * Сохраняет животное в модели после фиксации текущей транзакции.
+     *
+     * @param animal Сохраненное животное
+     */
+    public void putAnimal(Animal animal) {
+        AnimalRow row = AnimalRow.of(animal);
+        afterCommit(partition -> partition.putAnimal(row));
+    }
+
+    /**
+     * Удаляет животное из модели после фиксации текущей транзакции.
+     *
+     * @param id Идентификатор животного
+     */
+    public void removeAnimal(int id) {
+        afterCommit(partition -> {
+            partition.animals.remove(id);
+            partition.recordIdsByAnimal.remove(id);
+        });
+    }
+
+    /**
+     * Сохраняет медицинскую запись в модели после фиксации текущей транзакции.
+     *
+     * @param record Сохраненная медицинская запись
+     */
+    public void putRecord(MedicalRecord record) {
+        MedicalRecordRow row = MedicalRecordRow.of(record);
+        afterCommit(partition -> partition.putRecord(row));
+    }
+
+    /**
+     * Удаляет медицинскую запись из модели после фиксации текущей транзакции.
+     *
+     * @param id Идентификатор записи
+     */
+    public void removeRecord(int id) {
+        afterCommit(partition -> {
+            MedicalRecordRow removed = partition.records.remove(id);
+            if (removed != null && removed.animalId() != null) {
+                partition.unindex(removed.animalId(), id);
+            }
+        });
+    }
+
+    /**
+     * Выполняет изменение раздела текущей клиники под блокировкой записи после фиксации
+     * текущей транзакции (или сразу, если транзакции нет). Клиника определяется в момент вызова,
+     * так как после фиксации поток может уже обслуживать другую клинику.
+     * Пока модель выключена, изменения не учитываются.
+     *
+     * @param mutation Изменение раздела клиники
+     */
+    private void afterCommit(Consumer<Partition> mutation) {
+        if (!enabled) {
+            return;
+        }
+        int clinicId = TenantContext.currentClinicId();
+        Runnable change = () -> mutation.accept(partition(clinicId));
+        Runnable locked = () -> {
+            lock.writeLock().lock();
+            try {
+                if (loaded) {
+                    change.run();
+                } else {
+                    pendingChanges.add(change);
+                }
+            } finally {
+                lock.writeLock().unlock();
+            }
+        };
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    locked.run();
+                }
+            });
+        } else {
+            locked.run();
+        }
+    }
+
+    /**
+     * Возвращает раздел текущей клиники. Вызывается под блокировкой чтения.
+     */
+    private Partition currentPartition() {
+        Partition partition = partitions.get(TenantContext.currentClinicId());
+        return partition != null ? partition : Partition.EMPTY;
+    }
+
+    /**
+     * Возвращает раздел клиники, создавая его при необходимости. Вызывается под блокировкой записи.
+     */
+    private Partition partition(int clinicId) {
+        Partition partition = partitions.get(clinicId);
+        if (partition == null) {
+            partition = new Partition();
+            partitions.put(clinicId, partition);
+        }
+        return partition;
+    }
+
+    private static AnimalType copy(AnimalType type) {
+        AnimalType copy = new AnimalType(type.getName(), type.getAverageLifespan());
+        copy.setId(type.getId());
+        return copy;
+    }
+
+    /**
+     * Данные одной клиники. Доступ — под блокировкой модели.
+     */
+    private static final class Partition {
+
+        /**
+         * Пустой раздел для клиник без данных (только для чтения)
+         */
+        static final Partition EMPTY = new Partition();
+
+        final IntObjectMap<AnimalType> types = new IntObjectMap<>(64);
+        final IntObjectMap<AnimalRow> animals = new IntObjectMap<>(1024);
+        final IntObjectMap<MedicalRecordRow> records = new IntObjectMap<>(4096);
+        final IntObjectMap<int[]> recordIdsByAnimal = new IntObjectMap<>(1024);
+
+        void putType(AnimalType type) {
+            types.put(type.getId(), copy(type));
+        }
+
+        void putAnimal(AnimalRow row) {
+            animals.put(row.id(), row);
+        }
+
+        void putRecord(MedicalRecordRow row) {
+            MedicalRecordRow previous = records.get(row.id());
+            // При обновлении связь с животным не меняется, поэтому она берется из прежней строки
+            if (previous != null && row.animalId() == null) {
+                row = new MedicalRecordRow(row.id(), row.visitDate(), row.procedureType(),
+                        row.diagnosis(), previous.animalId());
+            }
+            records.put(row.id(), row);
+            if (previous == null && row.animalId() != null) {
+                index(row.animalId(), row.id());
+            }
+        }
+
+        void index(int animalId, int recordId) {
+            int[] ids = recordIdsByAnimal.get(animalId);
+            if (ids == null) {
+                recordIdsByAnimal.put(animalId, new int[]{recordId});
+                return;
+            }
+            int pos = Arrays.binarySearch(ids, recordId);
+            if (pos >= 0) {
+                return;
+            }
+            pos = -pos - 1;
+            int[] grown = new int[ids.length + 1];
+            System.arraycopy(ids, 0, grown, 0, pos);
+            grown[pos] = recordId;
+            System.arraycopy(ids, pos, grown, pos + 1, ids.length - pos);
+            recordIdsByAnimal.put(animalId, grown);
+        }
+
+        void unindex(int animalId, int recordId) {
+            int[] ids = recordIdsByAnimal.get(animalId);
+            if (ids == null) {
+                return;
+            }
+            int pos = Arrays.binarySearch(ids, recordId);
+            if (pos < 0) {
+                return;
+            }
+            if (ids.length == 1) {
+                recordIdsByAnimal.remove(animalId);
+                return;
+            }
+            int[] shrunk = new int[ids.length - 1];
+            System.arraycopy(ids, 0, shrunk, 0, pos);
+            System.arraycopy(ids, pos + 1, shrunk, pos, ids.length - pos - 1);
+            recordIdsByAnimal.put(animalId, shrunk);
+        }
+
+        /**
+         * Создает сущности медицинских записей по идентификаторам. Вызывается под блокировкой чтения.
+         * Животные и типы создаются по одному разу на вызов и разделяются записями.
+         */
+        List<MedicalRecord> toRecords(int[] ids) {
+            IntObjectMap<AnimalType> typeCache = new IntObjectMap<>(types.size());
+            IntObjectMap<Animal> animalCache = new IntObjectMap<>(Math.min(ids.length, animals.size()));
+            List<MedicalRecord> result = new ArrayList<>(ids.length);
+            for (int id : ids) {
+                MedicalRecordRow row = records.get(id);
+                Animal animal = animalCache.get(row.animalId());
+                if (animal == null) {
+                    AnimalRow animalRow = animals.get(row.animalId());
+                    if (animalRow != null) {
+                        animal = toAnimal(animalRow, typeCache);
+                        animalCache.put(row.animalId(), animal);
+                    }
+                }
+                MedicalRecord record = new MedicalRecord(row.visitDate(), row.procedureType(), row.diagnosis(), animal);
+                record.setId(row.id());
+                result.add(record);
+            }
+            return result;
+        }
+
+        Animal toAnimal(AnimalRow row, IntObjectMap<AnimalType> typeCache) {
+            AnimalType type = null;
+            if (row.animalTypeId() != null) {
+                type = typeCache.get(row.animalTypeId());
+                if (type == null && types.get(row.animalTypeId()) != null) {
+                    type = copy(types.get(row.animalTypeId()));
+                    typeCache.put(row.animalTypeId(), type);
+                }
+            }
+            Animal animal = new Animal(row.name(), row.age(), row.breed(), row.gender(),
+                    row.weight(), row.color(), type);
+            animal.setId(row.id());
+            return animal;
+        }
+    }
+}
@@ -0,0 +1,29 @@
+package com.psu.vet_clinic.service;
+
+import com.psu.vet_clinic.entity.OutboxEvent;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * Получатель событий, который записывает их в журнал приложения.
+ * Используется для локальной разработки и тестирования; вывод можно направить в отдельный файл
+ * через настройку логгера {@code com.psu.vet_clinic.outbox}.
+ */
+@Component
+@ConditionalOnProperty(name = "vet-clinic.outbox.log-sink.enabled", havingValue = "true", matchIfMissing = true)
+public class LogOutboxEventSink implements OutboxEventSink {
+
+    private static final Logger log = LoggerFactory.getLogger("com.psu.vet_clinic.outbox");
+
+    @Override
+    public void publish(List<OutboxEvent> events) {
+        for (OutboxEvent event : events) {
+            log.info("{} {} #{}: {}", event.getAggregateType(), event.getEventType(),
+                    event.getAggregateId(), event.getPayload());
+        }
+    }
+}
@@ -1,33 +1,82 @@
 package com.psu.vet_clinic.service;
 
+import com.psu.vet_clinic.dto.IngestTicket;
+import com.psu.vet_clinic.dto.MedicalRecordRow;
 import com.psu.vet_clinic.entity.MedicalRecord;
 import com.psu.vet_clinic.exception.NotFoundException;
 import com.psu.vet_clinic.repository.MedicalRecordRepository;
+import com.psu.vet_clinic.util.ConstraintViolations;
+import com.psu.vet_clinic.util.Paging;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.util.Comparator;
 import java.util.List;
+import java.util.Map;
 
+import static com.psu.vet_clinic.util.Paging.containsIgnoreCase;
 import static com.psu.vet_clinic.util.TextNormalizer.capitalize;
 
 /**
  * Сервис для работы с медицинскими записями в ветеринарной клинике.
  * Обеспечивает бизнес-логику операций CRUD для сущности MedicalRecord.
+ *
+ * <p>Поиск записей выполняется в транзакциях только для чтения, поэтому большие списки загружаются
+ * без снимков состояния для dirty checking. Обновление проверяет, изменяет и перечитывает запись
+ * в одной транзакции. При включенной модели чтения {@link ClinicReadModel} поиск выполняется в памяти.</p>
  */
 @Service
 public class MedicalRecordService {
 
+    /**
+     * Поля, по которым можно сортировать страницу медицинских записей, с порядком сравнения для модели чтения
+     */
+    public static final Map<String, Comparator<MedicalRecord>> SORT_FIELDS = Map.of(
+            "id", Comparator.comparing(MedicalRecord::getId),
+            "visitDate", Comparator.comparing(MedicalRecord::getVisitDate,
+                    Comparator.nullsLast(Comparator.naturalOrder())),
+            "procedureType", Comparator.comparing(MedicalRecord::getProcedureType,
+                    Comparator.nullsLast(Comparator.naturalOrder())));
+
     /**
      * Репозиторий для работы с данными медицинских записей
      */
     private final MedicalRecordRepository repository;
 
     /**
-     * Конструктор с внедрением зависимости репозитория.
+     * Очередь отложенной записи медицинских записей
+     */
+    private final MedicalRecordWriteBehindQueue writeBehindQueue;
+
+    /**
+     * Сервис записи доменных событий
+     */
+    private final OutboxService outboxService;
+
+    /**
+     * Модель чтения данных клиники в памяти
+     */
+    private final ClinicReadModel readModel;
+
+    /**
+     * Конструктор с внедрением зависимостей.
      *
      * @param repository Репозиторий для работы с медицинскими записями
+     * @param writeBehindQueue Очередь отложенной записи медицинских записей
+     * @param outboxService Сервис записи доменных событий
+     * @param readModel Модель чтения данных клиники в памяти
      */
-    public MedicalRecordService(MedicalRecordRepository repository) {
+    public MedicalRecordService(MedicalRecordRepository repository,
+                                MedicalRecordWriteBehindQueue writeBehindQueue,
+                                OutboxService outboxService,
+                                ClinicReadModel readModel) {
         this.repository = repository;
+        this.writeBehindQueue = writeBehindQueue;
+        this.outboxService = outboxService;
+        this.readModel = readModel;
     }
 
     /**
@@ -35,10 +84,43 @@ public class MedicalRecordService {
      *
      * @return Список всех медицинских записей
      */
+    @Transactional(readOnly = true)
     public List<MedicalRecord> findAll() {
+        if (readModel.isActive()) {
+            return readModel.findAllRecords();
+        }
         return repository.findAll();
     }
 
+    /**
+     * Получает страницу медицинских записей с поиском по диагнозу и процедуре,
+     * при необходимости только для одного животного.
+     *
+     * @param animalId Идентификатор животного (null — записи всех животных)
+     * @param query Строка поиска (может быть пустой)
+     * @param pageable Номер, размер и сортировка страницы
+     * @return Страница медицинских записей с признаком наличия следующей страницы
+     * @throws IllegalArgumentException Если сортировка использует поле не из {@link #SORT_FIELDS}
+     */
+    @Transactional(readOnly = true)
+    public Slice<MedicalRecord> findPage(Integer animalId, String query, Pageable pageable) {
+        Comparator<MedicalRecord> order = Paging.comparator(pageable.getSort(), SORT_FIELDS);
+        if (readModel.isActive()) {
+            String q = Paging.normalizeQuery(query);
+            List<MedicalRecord> records = animalId != null
+                    ? readModel.findRecordsByAnimal(animalId) : readModel.findAllRecords();
+            return Paging.slice(records,
+                    r -> q == null || containsIgnoreCase(r.getDiagnosis(), q) || containsIgnoreCase(r.getProcedureType(), q),
+                    order, pageable);
+        }
+        String pattern = Paging.containsPattern(query);
+        if (animalId != null) {
+            return pattern == null ? repository.findPageByAnimal(animalId, pageable)
+                    : repository.findPageByAnimal(animalId, pattern, pageable);
+        }
+        return pattern == null ? repository.findPage(pageable) : repository.findPage(pattern, pageable);
+    }
+
     /**
      * Находит медицинскую запись по ее идентификатору.
      *
@@ -46,7 +128,15 @@ public class MedicalRecordService {
      * @return Найденная медицинская запись
      * @throws NotFoundException Если медицинская запись с указанным идентификатором не найдена
      */
+    @Transactional(readOnly = true)
     public MedicalRecord findById(Integer id) {
+        if (readModel.isActive()) {
+            MedicalRecord record = readModel.findRecord(id);
+            if (record == null) {
+                throw new NotFoundException("MedicalRecord not found: " + id);
+            }
+            return record;
+        }
         return repository.findById(id)
                 .orElseThrow(() ->
                         new NotFoundException("MedicalRecord not found: " + id));
@@ -58,12 +148,16 @@ public class MedicalRecordService {
      * @param animalId Идентификатор животного
      * @return Список медицинских записей, связанных с указанным животным
      */
+    @Transactional(readOnly = true)
     public List<MedicalRecord> findByAnimalId(Integer animalId) {
+        if (readModel.isActive()) {
+            return readModel.findRecordsByAnimal(animalId);
+        }
         return repository.findByAnimalId(animalId);
     }
 
     /**
-     * Сохраняет медицинскую запись в системе.
+     * Сохраняет медицинскую запись в системе и записывает событие CREATED в outbox в той же транзакции.
      * Перед сохранением выполняет валидацию и нормализацию данных:
      * - Проверяет, что дата визита указана и находится в допустимом диапазоне (2000-2100 годы)
      * - Проверяет, что диагноз и тип процедуры не пустые
@@ -72,8 +166,97 @@ public class MedicalRecordService {
      * @param record Объект медицинской записи для сохранения
      * @return Сохраненная медицинская запись
      * @throws IllegalArgumentException Если не пройдена валидация данных
+     * @throws NotFoundException Если животное, на которое ссылается запись, не существует в текущей клинике
      */
+    @Transactional
     public MedicalRecord save(MedicalRecord record) {
+        validateAndNormalize(record);
+
+        MedicalRecord saved;
+        try {
+            saved = repository.save(record);
+        } catch (DataIntegrityViolationException ex) {
+            if (ConstraintViolations.violates(ex, MedicalRecord.FOREIGN_KEY_ANIMAL, MedicalRecord.FOREIGN_KEY_CLINIC_ANIMAL)) {
+                throw new NotFoundException("Animal not found: " + record.getAnimal().getId());
+            }
+            throw ex;
+        }
+        outboxService.record("MedicalRecord", saved.getId(), "CREATED", MedicalRecordRow.of(saved));
+        readModel.putRecord(saved);
+        return saved;
+    }
+
+    /**
+     * Проверяет, включен ли режим отложенной записи медицинских записей.
+     *
+     * @return true, если новые записи принимаются через очередь
+     */
+    public boolean isWriteBehindEnabled() {
+        return writeBehindQueue.isEnabled();
+    }
+
+    /**
+     * Проверяет и нормализует медицинскую запись синхронно, после чего помещает ее
+     * в очередь отложенной записи. Запись сохраняется в базу данных фоновым потоком.
+     *
+     * @param record Объект медицинской записи для сохранения
+     * @param animalId Идентификатор животного
+     * @return Состояние принятой записи с идентификатором отслеживания
+     * @throws IllegalArgumentException Если не пройдена валидация данных
+     */
+    public IngestTicket enqueue(MedicalRecord record, Integer animalId) {
+        validateAndNormalize(record);
+        return writeBehindQueue.enqueue(record, animalId);
+    }
+
+    /**
+     * Возвращает состояние записи, принятой в очередь отложенной записи.
+     *
+     * @param trackingId Идентификатор отслеживания
+     * @return Состояние записи
+     * @throws NotFoundException Если идентификатор отслеживания неизвестен
+     */
+    public IngestTicket findIngestStatus(String trackingId) {
+        IngestTicket ticket = writeBehindQueue.status(trackingId);
+        if (ticket == null) {
+            throw new NotFoundException("Tracking id not found: " + trackingId);
+        }
+        return ticket;
+    }
+
+    /**
+     * Обновляет существующую медицинскую запись.
+     * Поля записи обновляются одним запросом UPDATE ... WHERE id = ?, связь с животным
+     * сохраняется прежней. Обновленная запись затем перечитывается для ответа;
+     * событие UPDATED записывается в outbox в той же транзакции.
+     *
+     * @param id Идентификатор медицинской записи для обновления
+     * @param record Новые данные медицинской записи (диагноз, процедура, дата визита)
+     * @return Обновленная медицинская запись
+     * @throws NotFoundException Если медицинская запись с указанным идентификатором не найдена
+     */
+    @Transactional
+    public MedicalRecord update(Integer id, MedicalRecord record) {
+        record.setId(id);
+        validateAndNormalize(record);
+
+        if (repository.updateFields(record) == 0) {
+            throw new NotFoundException("MedicalRecord not found: " + id);
+        }
+        MedicalRecord updated = repository.findById(id)
+                .orElseThrow(() -> new NotFoundException("MedicalRecord not found: " + id));
+        outboxService.record("MedicalRecord", id, "UPDATED", MedicalRecordRow.of(updated));
+        readModel.putRecord(updated);
+        return updated;
+    }
+
+    /**
+     * Проверяет и нормализует данные медицинской записи.
+     *
+     * @param record Объект медицинской записи
+     * @throws IllegalArgumentException Если не пройдена валидация данных
+     */
+    private void validateAndNormalize(MedicalRecord record) {
         if (record.getVisitDate() == null) {
             throw new IllegalArgumentException("Дата визита обязательна");
         }
@@ -93,33 +276,21 @@ public class MedicalRecordService {
 
         record.setDiagnosis(capitalize(record.getDiagnosis()));
         record.setProcedureType(capitalize(record.getProcedureType()));
-
-        return repository.save(record);
-    }
-
-    /**
-     * Обновляет существующую медицинскую запись.
-     *
-     * @param id Идентификатор медицинской записи для обновления
-     * @param record Новые данные медицинской записи (диагноз, процедура, дата визита)
-     * @return Обновленная медицинская запись
-     */
-
-    public MedicalRecord update(Integer id, MedicalRecord record) {
-        MedicalRecord existing = findById(id);
-
-        record.setId(id);
-        record.setAnimal(existing.getAnimal());
-
-        return save(record);
     }
 
     /**
      * Удаляет медицинскую запись из системы по идентификатору.
+     * Событие DELETED записывается в outbox в той же транзакции.
      *
      * @param id Идентификатор медицинской записи для удаления
+     * @throws NotFoundException Если медицинская запись с указанным идентификатором не найдена
      */
+    @Transactional
     public void delete(Integer id) {
-        repository.deleteById(id);
+        MedicalRecord record = repository.findById(id)
+                .orElseThrow(() -> new NotFoundException("MedicalRecord not found: " + id));
+        repository.delete(record);
+        outboxService.record("MedicalRecord", id, "DELETED", null);
+        readModel.removeRecord(id);
     }
 }
\ No newline at end of file
@@ -0,0 +1,589 @@
+package com.psu.vet_clinic.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.psu.vet_clinic.dto.IngestTicket;
+import com.psu.vet_clinic.dto.MedicalRecordRow;
+import com.psu.vet_clinic.entity.MedicalRecord;
+import com.psu.vet_clinic.exception.ServiceOverloadedException;
+import com.psu.vet_clinic.repository.AnimalRepository;
+import com.psu.vet_clinic.repository.MedicalRecordRepository;
+import com.psu.vet_clinic.tenant.TenantContext;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.aot.hint.annotation.RegisterReflectionForBinding;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Очередь отложенной записи (write-behind) для медицинских записей.
+ *
+ * <p>Проверенные записи помещаются в ограниченную очередь в памяти и одновременно дописываются
+ * в локальный журнал. Запись принимается (ответ 202) только после того, как журнал сброшен на диск
+ * ({@link FileChannel#force(boolean)}); одновременные запросы сбрасываются на диск одним вызовом.
+ * Если сброс не удался, запись все равно принимается, так как она уже стоит в очереди.
+ * Фоновый поток сохраняет записи в базу данных пакетами — по достижении размера
+ * пакета или по истечении интервала. После сохранения пакета в журнал дописывается отметка,
+ * а когда очередь пуста, журнал очищается. При запуске несохраненные записи из журнала
+ * возвращаются в очередь.</p>
+ *
+ * <p>Если база данных недоступна, поток записи повторяет попытки с растущей задержкой
+ * и не останавливается из-за ошибок сохранения или журнала.</p>
+ *
+ * <p>Режим включается свойством {@code vet-clinic.medical-records.write-behind.enabled}.</p>
+ */
+@Component
+@Lazy(false)
+@RegisterReflectionForBinding(MedicalRecordWriteBehindQueue.JournalEntry.class)
+public class MedicalRecordWriteBehindQueue {
+
+    private static final Logger log = LoggerFactory.getLogger(MedicalRecordWriteBehindQueue.class);
+
+    /**
+     * Максимальное количество хранимых состояний для отслеживания
+     */
+    private static final int MAX_TRACKED = 100_000;
+
+    /**
+     * Максимальная задержка между повторными попытками сохранения в миллисекундах
+     */
+    private static final long MAX_RETRY_DELAY_MS = 10_000;
+
+    /**
+     * Запись журнала: либо принятая медицинская запись, либо отметка о ее сохранении.
+     *
+     * @param trackingId Идентификатор для отслеживания
+     * @param visitDate Дата визита
+     * @param procedureType Тип процедуры
+     * @param diagnosis Диагноз
+     * @param animalId Идентификатор животного
+     * @param clinicId Идентификатор клиники, принявшей запись (null — клиника по умолчанию)
+     * @param flushed Признак отметки о сохранении
+     */
+    record JournalEntry(String trackingId, LocalDate visitDate, String procedureType,
+                        String diagnosis, Integer animalId, Integer clinicId, boolean flushed) {
+    }
+
+    private final MedicalRecordRepository repository;
+    private final AnimalRepository animalRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final ObjectMapper objectMapper;
+    private final OutboxService outboxService;
+    private final ClinicReadModel readModel;
+
+    private final boolean enabled;
+    private final int batchSize;
+    private final long flushIntervalMs;
+    private final Path journalPath;
+    private final BlockingQueue<JournalEntry> queue;
+
+    /**
+     * Состояния принятых записей по идентификатору отслеживания (самые старые вытесняются)
+     */
+    private final Map<String, IngestTicket> tickets = Collections.synchronizedMap(
+            new LinkedHashMap<String, IngestTicket>() {
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<String, IngestTicket> eldest) {
+                    return size() > MAX_TRACKED;
+                }
+            });
+
+    private final Object journalLock = new Object();
+    private FileChannel journal;
+
+    /**
+     * Количество байт, дописанных в журнал с момента запуска (не уменьшается при очистке журнала).
+     * Изменяется под блокировкой журнала.
+     */
+    private long appended;
+
+    /**
+     * Блокировка сброса журнала на диск; под ней же изменяется {@link #synced}
+     */
+    private final Object syncLock = new Object();
+
+    /**
+     * Значение {@link #appended}, до которого журнал уже сброшен на диск
+     */
+    private long synced;
+
+    private volatile boolean running;
+    private Thread writer;
+
+    /**
+     * Конструктор с внедрением зависимостей и настроек очереди.
+     *
+     * @param repository Репозиторий медицинских записей
+     * @param animalRepository Репозиторий животных
+     * @param transactionTemplate Шаблон транзакций для пакетного сохранения
+     * @param objectMapper ObjectMapper для записи журнала
+     * @param outboxService Сервис записи доменных событий
+     * @param readModel Модель чтения данных клиники в памяти
+     * @param enabled Включен ли режим отложенной записи
+     * @param capacity Максимальный размер очереди
+     * @param batchSize Максимальный размер пакета
+     * @param flushIntervalMs Максимальное время ожидания заполнения пакета в миллисекундах
+     * @param journalPath Путь к файлу журнала
+     */
+    public MedicalRecordWriteBehindQueue(
+            MedicalRecordRepository repository,
+            AnimalRepository animalRepository,
+            TransactionTemplate transactionTemplate,
+            ObjectMapper objectMapper,
+            OutboxService outboxService,
+            ClinicReadModel readModel,
+            @Value("${vet-clinic.medical-records.write-behind.enabled:false}") boolean enabled,
+            @Value("${vet-clinic.medical-records.write-behind.capacity:10000}") int capacity,
+            @Value("${vet-clinic.medical-records.write-behind.batch-size:200}") int batchSize,
+            @Value("${vet-clinic.medical-records.write-behind.flush-interval-ms:200}") long flushIntervalMs,
+            @Value("${vet-clinic.medical-records.write-behind.journal:data/medical-records.journal}") Path journalPath) {
+        this.repository = repository;
+        this.animalRepository = animalRepository;
+        this.transactionTemplate = transactionTemplate;
+        this.objectMapper = objectMapper;
+        this.outboxService = outboxService;
+        this.readModel = readModel;
+        this.enabled = enabled;
+        this.batchSize = batchSize;
+        this.flushIntervalMs = flushIntervalMs;
+        this.journalPath = journalPath;
+        this.queue = new ArrayBlockingQueue<>(capacity);
+    }
+
+    /**
+     * Проверяет, включен ли режим отложенной записи.
+     *
+     * @return true, если записи сохраняются через очередь
+     */
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Восстанавливает несохраненные записи из журнала и запускает фоновый поток записи.
+     *
+     * @throws IOException Если журнал не удалось прочитать или открыть
+     */
+    @PostConstruct
+    void start() throws IOException {
+        if (!enabled) {
+            return;
+        }
+
+        Path parent = journalPath.toAbsolutePath().getParent();
+        if (parent != null) {
+            Files.createDirectories(parent);
+        }
+
+        List<JournalEntry> pending = replay();
+        journal = FileChannel.open(journalPath, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.APPEND);
+        for (JournalEntry entry : pending) {
+            tickets.put(entry.trackingId(), new IngestTicket(entry.trackingId(), "PENDING", null));
+            if (!queue.offer(entry)) {
+                throw new IllegalStateException("Journal contains more records than the queue capacity");
+            }
+        }
+        if (!pending.isEmpty()) {
+            log.info("Replayed {} medical records from journal {}", pending.size(), journalPath);
+        }
+
+        running = true;
+        writer = new Thread(this::run, "medical-record-writer");
+        writer.setDaemon(true);
+        writer.start();
+    }
+
+    /**
+     * Останавливает фоновый поток, дожидаясь сохранения накопленных записей.
+     * Записи, которые не успели сохраниться, останутся в журнале до следующего запуска.
+     *
+     * @throws InterruptedException Если ожидание было прервано
+     * @throws IOException Если журнал не удалось закрыть
+     */
+    @PreDestroy
+    void stop() throws InterruptedException, IOException {
+        if (writer == null) {
+            return;
+        }
+        running = false;
+        writer.join(TimeUnit.SECONDS.toMillis(30));
+        synchronized (journalLock) {
+            journal.close();
+        }
+    }
+
+    /**
+     * Принимает проверенную медицинскую запись текущей клиники в очередь и журнал.
+     * Возвращает управление после сброса записи журнала на диск.
+     * Если сброс не удался, запись все равно считается принятой: она уже в очереди и будет сохранена,
+     * а ошибка привела бы к повтору запроса клиентом и дубликату записи.
+     *
+     * @param record Медицинская запись, прошедшая валидацию и нормализацию
+     * @param animalId Идентификатор животного
+     * @return Состояние принятой записи с идентификатором отслеживания
+     * @throws ServiceOverloadedException Если очередь переполнена
+     * @throws UncheckedIOException Если запись не удалось дописать в журнал (тогда она не принята)
+     */
+    public IngestTicket enqueue(MedicalRecord record, Integer animalId) {
+        JournalEntry entry = new JournalEntry(UUID.randomUUID().toString(), record.getVisitDate(),
+                record.getProcedureType(), record.getDiagnosis(), animalId,
+                TenantContext.currentClinicId(), false);
+
+        IngestTicket ticket = new IngestTicket(entry.trackingId(), "PENDING", null);
+        long position;
+        synchronized (journalLock) {
+            if (queue.remainingCapacity() == 0) {
+                throw new ServiceOverloadedException("Medical record queue is full");
+            }
+            append(entry);
+            // Состояние регистрируется до постановки в очередь, чтобы не перезаписать SAVED,
+            // если поток записи сохранит запись раньше, чем этот метод вернет управление
+            tickets.put(entry.trackingId(), ticket);
+            queue.add(entry);
+            position = appended;
+        }
+        try {
+            sync(position);
+        } catch (UncheckedIOException ex) {
+            log.warn("Journal fsync failed, medical record {} is accepted without durability guarantee",
+                    entry.trackingId(), ex);
+        }
+        return ticket;
+    }
+
+    /**
+     * Возвращает состояние записи по идентификатору отслеживания.
+     *
+     * @param trackingId Идентификатор отслеживания
+     * @return Состояние записи или null, если идентификатор неизвестен
+     */
+    public IngestTicket status(String trackingId) {
+        return tickets.get(trackingId);
+    }
+
+    /**
+     * Основной цикл фонового потока: собирает пакеты по размеру или времени и сохраняет их.
+     * Ошибки сохранения и журнала записываются в лог и не останавливают поток.
+     */
+    private void run() {
+        while (running || !queue.isEmpty()) {
+            try {
+                JournalEntry first = queue.poll(flushIntervalMs, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+
+                List<JournalEntry> batch = new ArrayList<>(batchSize);
+                batch.add(first);
+                long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(flushIntervalMs);
+                while (batch.size() < batchSize) {
+                    long remaining = deadline - System.nanoTime();
+                    JournalEntry next = remaining > 0 ? queue.poll(remaining, TimeUnit.NANOSECONDS) : queue.poll();
+                    if (next == null) {
+                        break;
+                    }
+                    batch.add(next);
+                }
+
+                Map<Integer, List<JournalEntry>> byClinic = new LinkedHashMap<>();
+                for (JournalEntry entry : batch) {
+                    byClinic.computeIfAbsent(entry.clinicId(), clinicId -> new ArrayList<>()).add(entry);
+                }
+                int finished = 0;
+                for (Map.Entry<Integer, List<JournalEntry>> group : byClinic.entrySet()) {
+                    List<JournalEntry> done = flush(group.getKey(), group.getValue());
+                    markFlushed(done);
+                    finished += done.size();
+                }
+                if (finished == batch.size()) {
+                    truncateIfDrained();
+                }
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (RuntimeException ex) {
+                log.error("Medical record writer failed, continuing", ex);
+                try {
+                    Thread.sleep(Math.max(flushIntervalMs, 1000));
+                } catch (InterruptedException interrupted) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+            }
+        }
+    }
+
+    /**
+     * Сохраняет пакет записей одной клиники в одной транзакции.
+     * Если пакет нарушает ограничения базы данных, записи сохраняются по одной, чтобы
+     * отделить ошибочные. При любых других ошибках (недоступность базы данных, ошибка
+     * открытия или фиксации транзакции) попытка повторяется с растущей задержкой.
+     *
+     * @param clinicId Идентификатор клиники или null для клиники по умолчанию
+     * @param batch Пакет записей
+     * @return Записи, обработка которых завершена (сохранены или отклонены); остальные
+     *         остаются в журнале, если очередь останавливается
+     * @throws InterruptedException Если ожидание перед повтором было прервано
+     */
+    private List<JournalEntry> flush(Integer clinicId, List<JournalEntry> batch) throws InterruptedException {
+        int tenant = clinicId != null ? clinicId : TenantContext.currentClinicId();
+        for (int attempt = 0; ; attempt++) {
+            try {
+                List<MedicalRecord> saved = TenantContext.callAs(tenant, () -> transactionTemplate.execute(status ->
+                        recordCreated(repository.saveAll(batch.stream().map(this::toRecord).toList()))));
+                for (int i = 0; i < batch.size(); i++) {
+                    complete(batch.get(i), "SAVED", saved.get(i).getId());
+                }
+                return batch;
+            } catch (DataIntegrityViolationException ex) {
+                return flushEach(tenant, batch);
+            } catch (RuntimeException ex) {
+                if (!awaitRetry(batch.size(), attempt, ex)) {
+                    return List.of();
+                }
+            }
+        }
+    }
+
+    /**
+     * Сохраняет записи пакета по одной; записи, нарушающие ограничения базы данных, отклоняются.
+     *
+     * @param tenant Идентификатор клиники
+     * @param batch Пакет записей
+     * @return Записи, обработка которых завершена
+     * @throws InterruptedException Если ожидание перед повтором было прервано
+     */
+    private List<JournalEntry> flushEach(int tenant, List<JournalEntry> batch) throws InterruptedException {
+        List<JournalEntry> done = new ArrayList<>(batch.size());
+        for (JournalEntry entry : batch) {
+            for (int attempt = 0; ; attempt++) {
+                try {
+                    MedicalRecord saved = TenantContext.callAs(tenant, () -> transactionTemplate.execute(status ->
+                            recordCreated(List.of(repository.save(toRecord(entry)))).get(0)));
+                    complete(entry, "SAVED", saved.getId());
+                    break;
+                } catch (DataIntegrityViolationException single) {
+                    log.warn("Medical record {} rejected: {}", entry.trackingId(), single.getMessage());
+                    complete(entry, "FAILED", null);
+                    break;
+                } catch (RuntimeException ex) {
+                    if (!awaitRetry(1, attempt, ex)) {
+                        return done;
+                    }
+                }
+            }
+            done.add(entry);
+        }
+        return done;
+    }
+
+    /**
+     * Ожидает перед повторной попыткой сохранения; задержка удваивается с каждой попыткой
+     * до {@link #MAX_RETRY_DELAY_MS}.
+     *
+     * @param count Количество записей, которые не удалось сохранить
+     * @param attempt Номер неудачной попытки, начиная с 0
+     * @param ex Ошибка сохранения
+     * @return false, если очередь останавливается и записи нужно оставить в журнале
+     * @throws InterruptedException Если ожидание было прервано
+     */
+    private boolean awaitRetry(int count, int attempt, RuntimeException ex) throws InterruptedException {
+        if (!running) {
+            log.warn("Leaving {} medical records in journal: {}", count, ex.toString());
+            return false;
+        }
+        long delay = Math.min(MAX_RETRY_DELAY_MS, Math.max(flushIntervalMs, 1000) << Math.min(attempt, 4));
+        if (attempt == 0) {
+            log.warn("Failed to flush {} medical records, retrying in {} ms", count, delay, ex);
+        } else {
+            log.warn("Failed to flush {} medical records (attempt {}), retrying in {} ms: {}",
+                    count, attempt + 1, delay, ex.toString());
+        }
+        Thread.sleep(delay);
+        return true;
+    }
+
+    /**
+     * Дописывает в журнал отметки о сохранении записей одной группы пакета.
+     *
+     * @param done Записи, обработка которых завершена
+     */
+    private void markFlushed(List<JournalEntry> done) {
+        if (done.isEmpty()) {
+            return;
+        }
+        long position;
+        synchronized (journalLock) {
+            for (JournalEntry entry : done) {
+                append(new JournalEntry(entry.trackingId(), null, null, null, null, null, true));
+            }
+            position = appended;
+        }
+        sync(position);
+    }
+
+    /**
+     * Очищает журнал, если в очереди нет принятых записей. Вызывается после того, как
+     * сохранены все группы пакета: пока сохраняется одна группа, записи других групп
+     * уже извлечены из очереди, и пустая очередь не означает, что журнал можно очистить.
+     * Если очистка не дойдет до диска, при запуске журнал будет прочитан по отметкам о сохранении.
+     */
+    private void truncateIfDrained() {
+        synchronized (journalLock) {
+            if (queue.isEmpty()) {
+                truncate();
+            }
+        }
+    }
+
+    /**
+     * Записывает события CREATED в outbox для сохраненных записей и передает записи в модель чтения.
+     * Вызывается в транзакции сохранения пакета.
+     *
+     * @param saved Сохраненные медицинские записи
+     * @return Те же записи
+     */
+    private List<MedicalRecord> recordCreated(List<MedicalRecord> saved) {
+        for (MedicalRecord record : saved) {
+            outboxService.record("MedicalRecord", record.getId(), "CREATED", MedicalRecordRow.of(record));
+            readModel.putRecord(record);
+        }
+        return saved;
+    }
+
+    /**
+     * Создает сущность медицинской записи из записи журнала.
+     * Животное устанавливается ссылкой, без загрузки из базы данных.
+     *
+     * @param entry Запись журнала
+     * @return Сущность медицинской записи
+     */
+    private MedicalRecord toRecord(JournalEntry entry) {
+        return new MedicalRecord(entry.visitDate(), entry.procedureType(), entry.diagnosis(),
+                animalRepository.getReferenceById(entry.animalId()));
+    }
+
+    private void complete(JournalEntry entry, String status, Integer recordId) {
+        tickets.put(entry.trackingId(), new IngestTicket(entry.trackingId(), status, recordId));
+    }
+
+    /**
+     * Читает журнал и возвращает записи, для которых нет отметки о сохранении.
+     *
+     * @return Несохраненные записи в порядке поступления
+     * @throws IOException Если журнал не удалось прочитать
+     */
+    private List<JournalEntry> replay() throws IOException {
+        if (!Files.exists(journalPath)) {
+            return List.of();
+        }
+
+        Map<String, JournalEntry> pending = new LinkedHashMap<>();
+        Set<String> flushed = new LinkedHashSet<>();
+        try (BufferedReader reader = Files.newBufferedReader(journalPath, StandardCharsets.UTF_8)) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                if (line.isBlank()) {
+                    continue;
+                }
+                JournalEntry entry;
+                try {
+                    entry = objectMapper.readValue(line, JournalEntry.class);
+                } catch (IOException ex) {
+                    // Последняя строка могла быть записана не полностью при аварийной остановке
+                    log.warn("Skipping corrupted journal line: {}", line);
+                    continue;
+                }
+                if (entry.flushed()) {
+                    flushed.add(entry.trackingId());
+                } else {
+                    pending.put(entry.trackingId(), entry);
+                }
+            }
+        }
+        pending.keySet().removeAll(flushed);
+        return new ArrayList<>(pending.values());
+    }
+
+    /**
+     * Дописывает запись в журнал без сброса на диск. Вызывается под блокировкой журнала.
+     *
+     * @param entry Запись журнала
+     */
+    private void append(JournalEntry entry) {
+        try {
+            ByteBuffer line = ByteBuffer.wrap((objectMapper.writeValueAsString(entry) + "\n")
+                    .getBytes(StandardCharsets.UTF_8));
+            appended += line.remaining();
+            while (line.hasRemaining()) {
+                journal.write(line);
+            }
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+    }
+
+    /**
+     * Сбрасывает журнал на диск, если он еще не сброшен до указанной позиции.
+     * Потоки, ожидающие сброса, обслуживаются одним вызовом {@link FileChannel#force(boolean)}:
+     * он сохраняет все, что было дописано к моменту вызова.
+     *
+     * @param position Значение {@link #appended} после записи, которая должна быть на диске
+     */
+    private void sync(long position) {
+        synchronized (syncLock) {
+            if (synced >= position) {
+                return;
+            }
+            long target;
+            synchronized (journalLock) {
+                target = appended;
+            }
+            try {
+                journal.force(false);
+            } catch (IOException ex) {
+                throw new UncheckedIOException(ex);
+            }
+            synced = target;
+        }
+    }
+
+    /**
+     * Очищает журнал. Вызывается под блокировкой журнала единственным потоком записи,
+     * когда сохранены все записи текущего пакета, а очередь пуста.
+     */
+    private void truncate() {
+        try {
+            journal.truncate(0);
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+    }
+}
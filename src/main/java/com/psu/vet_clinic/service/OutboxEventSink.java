@@ -0,0 +1,22 @@
+package com.psu.vet_clinic.service;
+
+import com.psu.vet_clinic.entity.OutboxEvent;
+
+import java.util.List;
+
+/**
+ * Получатель доменных событий из outbox.
+ * Реализации передают события во внешние системы (биллинг, напоминания и т.д.).
+ * Все зарегистрированные в контексте реализации получают каждый пакет событий.
+ */
+public interface OutboxEventSink {
+
+    /**
+     * Передает пакет событий получателю.
+     * Если метод выбрасывает исключение, пакет остается в outbox и будет отправлен повторно,
+     * поэтому получатели должны обрабатывать повторную доставку.
+     *
+     * @param events Пакет событий в порядке их создания
+     */
+    void publish(List<OutboxEvent> events);
+}
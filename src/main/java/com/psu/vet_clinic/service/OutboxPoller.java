@@ -0,0 +1,131 @@
+package com.psu.vet_clinic.service;
+
+import com.psu.vet_clinic.entity.OutboxEvent;
+import com.psu.vet_clinic.repository.OutboxEventRepository;
+import com.psu.vet_clinic.tenant.TenancyProperties;
+import com.psu.vet_clinic.tenant.TenantContext;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+
+/**
+ * Фоновый обработчик outbox.
+ * Периодически выбирает пакеты событий, передает их всем получателям и удаляет
+ * отправленные события в одной транзакции. Если получатель завершился с ошибкой,
+ * транзакция откатывается и пакет будет отправлен при следующем опросе.
+ * События хранятся в базе данных клиники, поэтому при разделении клиник по шардам
+ * опрашивается outbox каждой базы данных.
+ * Несколько экземпляров приложения разбирают outbox параллельно, но события одной сущности
+ * всегда обрабатываются по порядку (см. {@link OutboxEventRepository#lockNextBatch(int)}).
+ *
+ * <p>Метрики: {@code outbox.events.dispatched} — количество отправленных событий,
+ * {@code outbox.dispatch} — время обработки одного пакета.</p>
+ */
+@Component
+@Lazy(false)
+@ConditionalOnProperty(name = "vet-clinic.outbox.poller.enabled", havingValue = "true", matchIfMissing = true)
+public class OutboxPoller {
+
+    /**
+     * Репозиторий для работы с событиями outbox
+     */
+    private final OutboxEventRepository repository;
+
+    /**
+     * Получатели событий
+     */
+    private final List<OutboxEventSink> sinks;
+
+    /**
+     * Шаблон транзакций для обработки пакета
+     */
+    private final TransactionTemplate transactionTemplate;
+
+    /**
+     * Настройки размещения клиник по базам данных
+     */
+    private final TenancyProperties tenancy;
+
+    /**
+     * Максимальный размер пакета
+     */
+    private final int batchSize;
+
+    private final Counter dispatched;
+    private final Timer dispatchTimer;
+
+    /**
+     * Конструктор с внедрением зависимостей и настроек.
+     *
+     * @param repository Репозиторий для работы с событиями outbox
+     * @param sinks Получатели событий
+     * @param transactionTemplate Шаблон транзакций
+     * @param tenancy Настройки размещения клиник по базам данных
+     * @param meterRegistry Реестр метрик
+     * @param batchSize Максимальный размер пакета
+     */
+    public OutboxPoller(OutboxEventRepository repository,
+                        List<OutboxEventSink> sinks,
+                        TransactionTemplate transactionTemplate,
+                        TenancyProperties tenancy,
+                        MeterRegistry meterRegistry,
+                        @Value("${vet-clinic.outbox.batch-size:500}") int batchSize) {
+        this.repository = repository;
+        this.sinks = sinks;
+        this.transactionTemplate = transactionTemplate;
+        this.tenancy = tenancy;
+        this.batchSize = batchSize;
+        this.dispatched = Counter.builder("outbox.events.dispatched")
+                .description("Number of outbox events delivered to sinks")
+                .register(meterRegistry);
+        this.dispatchTimer = Timer.builder("outbox.dispatch")
+                .description("Time to dispatch one outbox batch")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Обрабатывает накопленные события каждой базы данных пакетами, пока outbox не опустеет
+     * или пока пакет не окажется неполным.
+     */
+    @Scheduled(fixedDelayString = "${vet-clinic.outbox.poll-interval-ms:1000}")
+    public void poll() {
+        for (int shardClinicId : tenancy.shardClinicIds()) {
+            TenantContext.callAs(shardClinicId, () -> {
+                int count;
+                do {
+                    count = dispatchTimer.record(this::dispatchBatch);
+                } while (count == batchSize);
+                return null;
+            });
+        }
+    }
+
+    /**
+     * Отправляет один пакет событий и удаляет его из outbox.
+     *
+     * @return Количество отправленных событий
+     */
+    private int dispatchBatch() {
+        Integer count = transactionTemplate.execute(status -> {
+            List<OutboxEvent> events = repository.lockNextBatch(batchSize);
+            if (events.isEmpty()) {
+                return 0;
+            }
+            for (OutboxEventSink sink : sinks) {
+                sink.publish(events);
+            }
+            repository.deleteAllInBatch(events);
+            return events.size();
+        });
+        dispatched.increment(count);
+        return count;
+    }
+}
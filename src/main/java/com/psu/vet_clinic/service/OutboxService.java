@@ -0,0 +1,59 @@
+package com.psu.vet_clinic.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.psu.vet_clinic.entity.OutboxEvent;
+import com.psu.vet_clinic.repository.OutboxEventRepository;
+import com.psu.vet_clinic.tenant.TenantContext;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Сервис записи доменных событий в таблицу outbox.
+ * Событие сохраняется в транзакции вызывающего сервиса, поэтому оно фиксируется
+ * тогда и только тогда, когда фиксируется само изменение сущности.
+ */
+@Service
+public class OutboxService {
+
+    /**
+     * Репозиторий для работы с событиями outbox
+     */
+    private final OutboxEventRepository repository;
+
+    /**
+     * ObjectMapper для сериализации данных сущности
+     */
+    private final ObjectMapper objectMapper;
+
+    /**
+     * Конструктор с внедрением зависимостей.
+     *
+     * @param repository Репозиторий для работы с событиями outbox
+     * @param objectMapper ObjectMapper для сериализации данных сущности
+     */
+    public OutboxService(OutboxEventRepository repository, ObjectMapper objectMapper) {
+        this.repository = repository;
+        this.objectMapper = objectMapper;
+    }
+
+    /**
+     * Записывает доменное событие в outbox.
+     * Должен вызываться внутри уже открытой транзакции. Событие помечается текущей клиникой.
+     *
+     * @param aggregateType Тип сущности (например, "Animal")
+     * @param aggregateId Идентификатор сущности
+     * @param eventType Тип события: CREATED, UPDATED или DELETED
+     * @param payload Данные сущности для сериализации в JSON (может быть null)
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void record(String aggregateType, Integer aggregateId, String eventType, Object payload) {
+        try {
+            String json = payload != null ? objectMapper.writeValueAsString(payload) : null;
+            repository.save(new OutboxEvent(TenantContext.currentClinicId(), aggregateType, aggregateId, eventType, json));
+        } catch (JsonProcessingException ex) {
+            throw new IllegalStateException("Cannot serialize outbox payload", ex);
+        }
+    }
+}
@@ -0,0 +1,382 @@
+package com.psu.vet_clinic.service;
+
+import com.psu.vet_clinic.entity.ReminderKind;
+import com.psu.vet_clinic.tenant.TenancyProperties;
+import com.psu.vet_clinic.tenant.TenantContext;
+import com.psu.vet_clinic.util.TextNormalizer;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Date;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.stream.Collectors;
+
+/**
+ * Ночная задача расчета напоминаний по медицинским записям.
+ *
+ * <p>Записи каждой базы данных обходятся порциями по ключу (clinic_id, animals_id, id) без OFFSET:
+ * каждая порция читается отдельным коротким запросом в транзакции только для чтения (с реплики,
+ * если она настроена), поэтому задача не удерживает блокировки и снимок данных всю ночь.
+ * Записи одного животного всегда обрабатываются вместе: если животное не поместилось в порцию,
+ * его записи переносятся в следующую.</p>
+ *
+ * <p>Пока читается следующая порция, предыдущая обрабатывается параллельно на отдельном пуле потоков:
+ * для каждого животного рассчитываются повторы ежегодных процедур и осмотры пожилых животных
+ * (по {@code AnimalType.averageLifespan}). Напоминания записываются пакетами JDBC с
+ * {@code ON CONFLICT DO UPDATE} по ключу (клиника, животное, вид, процедура): повторный запуск
+ * не создает дубликатов, а перенесенный срок обновляет существующее напоминание.
+ * Каждое записанное напоминание отмечается временем запуска; после обхода базы данных
+ * напоминания, не отмеченные этим запуском (процедура уже проведена), удаляются.
+ * В обработке находится не более одной порции, что ограничивает расход памяти.</p>
+ *
+ * <p>Метрики: {@code reminders.run} — время запуска, {@code reminders.records.scanned} и
+ * {@code reminders.created} — количество прочитанных записей и записанных (созданных или обновленных) напоминаний,
+ * {@code reminders.run.throughput} — записей в секунду за последний запуск.</p>
+ */
+@Component
+@Lazy(false)
+@ConditionalOnProperty(name = "vet-clinic.reminders.enabled", havingValue = "true", matchIfMissing = true)
+public class ReminderJob {
+
+    private static final Logger log = LoggerFactory.getLogger(ReminderJob.class);
+
+    private static final String SCAN_SQL = """
+            select r.id, r.clinic_id, r.animals_id, r.procedure_type, r.visit_date, a.age, t.average_lifespan
+            from medical_records r
+            join animals a on a.id = r.animals_id
+            join animal_types t on t.id = a.animal_types_id
+            where (r.clinic_id, r.animals_id, r.id) > (?, ?, ?)
+            order by r.clinic_id, r.animals_id, r.id
+            limit ?
+            """;
+
+    private static final String INSERT_SQL = """
+            insert into reminders (clinic_id, animals_id, kind, procedure_type, due_date, created_at, refreshed_at)
+            values (?, ?, ?, ?, ?, ?, ?)
+            on conflict on constraint uk_reminders_clinic_animal_kind_procedure do update
+            set due_date = excluded.due_date,
+                created_at = case when reminders.due_date = excluded.due_date
+                                  then reminders.created_at else excluded.created_at end,
+                refreshed_at = excluded.refreshed_at
+            """;
+
+    private static final String SWEEP_SQL = """
+            delete from reminders
+            where refreshed_at is null or refreshed_at < ?
+            """;
+
+    /**
+     * Строка обхода: медицинская запись с возрастом животного и продолжительностью жизни вида.
+     */
+    private record ScanRow(int id, int clinicId, int animalId, String procedureType,
+                           LocalDate visitDate, int age, Integer averageLifespan) {
+    }
+
+    /**
+     * Рассчитанное напоминание.
+     */
+    private record DueReminder(int clinicId, int animalId, ReminderKind kind,
+                               String procedureType, LocalDate dueDate) {
+    }
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate readTransaction;
+    private final TransactionTemplate writeTransaction;
+    private final TenancyProperties tenancy;
+
+    private final int chunkSize;
+    private final int batchSize;
+    private final Set<String> yearlyProcedures;
+    private final String seniorCareProcedure;
+    private final double seniorAgeRatio;
+    private final int seniorCareIntervalMonths;
+    private final int lookaheadDays;
+
+    /**
+     * Пул потоков для расчета и записи напоминаний
+     */
+    private final ForkJoinPool pool;
+
+    /**
+     * Признак выполняющегося запуска; повторный запуск пропускается
+     */
+    private final AtomicBoolean running = new AtomicBoolean();
+
+    private final Timer runTimer;
+    private final Counter scanned;
+    private final Counter created;
+    private final AtomicReference<Double> lastThroughput = new AtomicReference<>(0.0);
+
+    /**
+     * Конструктор с внедрением зависимостей и настроек задачи.
+     *
+     * @param jdbcTemplate JdbcTemplate для чтения записей и пакетной записи напоминаний
+     * @param transactionManager Менеджер транзакций
+     * @param tenancy Настройки размещения клиник по базам данных
+     * @param meterRegistry Реестр метрик
+     * @param chunkSize Количество записей в одной порции чтения
+     * @param batchSize Количество напоминаний в одном пакете записи
+     * @param parallelism Количество потоков расчета (0 — по числу ядер)
+     * @param yearlyProcedures Процедуры, повторяемые ежегодно (через запятую)
+     * @param seniorCareProcedure Процедура осмотра пожилого животного
+     * @param seniorAgeRatio Доля средней продолжительности жизни, начиная с которой животное считается пожилым
+     * @param seniorCareIntervalMonths Интервал осмотров пожилого животного в месяцах
+     * @param lookaheadDays За сколько дней до срока создается напоминание
+     */
+    public ReminderJob(JdbcTemplate jdbcTemplate,
+                       PlatformTransactionManager transactionManager,
+                       TenancyProperties tenancy,
+                       MeterRegistry meterRegistry,
+                       @Value("${vet-clinic.reminders.chunk-size:5000}") int chunkSize,
+                       @Value("${vet-clinic.reminders.batch-size:500}") int batchSize,
+                       @Value("${vet-clinic.reminders.parallelism:0}") int parallelism,
+                       @Value("${vet-clinic.reminders.yearly-procedures:Вакцинация,Дегельминтизация}") Set<String> yearlyProcedures,
+                       @Value("${vet-clinic.reminders.senior-care-procedure:Гериатрический осмотр}") String seniorCareProcedure,
+                       @Value("${vet-clinic.reminders.senior-age-ratio:0.75}") double seniorAgeRatio,
+                       @Value("${vet-clinic.reminders.senior-care-interval-months:6}") int seniorCareIntervalMonths,
+                       @Value("${vet-clinic.reminders.lookahead-days:30}") int lookaheadDays) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.readTransaction = new TransactionTemplate(transactionManager);
+        this.readTransaction.setReadOnly(true);
+        this.writeTransaction = new TransactionTemplate(transactionManager);
+        this.tenancy = tenancy;
+        this.chunkSize = chunkSize;
+        this.batchSize = batchSize;
+        // Типы процедур хранятся нормализованными, поэтому настройки приводятся к тому же виду
+        this.yearlyProcedures = yearlyProcedures.stream()
+                .map(TextNormalizer::capitalize)
+                .collect(Collectors.toUnmodifiableSet());
+        this.seniorCareProcedure = TextNormalizer.capitalize(seniorCareProcedure);
+        this.seniorAgeRatio = seniorAgeRatio;
+        this.seniorCareIntervalMonths = seniorCareIntervalMonths;
+        this.lookaheadDays = lookaheadDays;
+        this.pool = new ForkJoinPool(parallelism > 0 ? parallelism : Runtime.getRuntime().availableProcessors());
+
+        this.runTimer = Timer.builder("reminders.run")
+                .description("Duration of one reminder job run")
+                .register(meterRegistry);
+        this.scanned = Counter.builder("reminders.records.scanned")
+                .description("Medical records scanned by the reminder job")
+                .register(meterRegistry);
+        this.created = Counter.builder("reminders.created")
+                .description("Reminders created or updated by the reminder job")
+                .register(meterRegistry);
+        Gauge.builder("reminders.run.throughput", lastThroughput, AtomicReference::get)
+                .description("Medical records per second in the last reminder job run")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Останавливает пул потоков расчета.
+     */
+    @PreDestroy
+    void stop() {
+        pool.shutdownNow();
+    }
+
+    /**
+     * Рассчитывает напоминания по всем базам данных. Если предыдущий запуск еще выполняется,
+     * новый запуск пропускается.
+     */
+    @Scheduled(cron = "${vet-clinic.reminders.cron:0 30 2 * * *}")
+    public void run() {
+        if (!running.compareAndSet(false, true)) {
+            log.warn("Reminder job is already running, skipping");
+            return;
+        }
+        try {
+            long start = System.nanoTime();
+            long[] totals = new long[3];
+            runTimer.record(() -> {
+                LocalDate today = LocalDate.now();
+                Timestamp startedAt = Timestamp.from(Instant.now());
+                for (int shardClinicId : tenancy.shardClinicIds()) {
+                    long[] shardTotals = TenantContext.callAsRoot(shardClinicId,
+                            () -> runShard(shardClinicId, today, startedAt));
+                    for (int i = 0; i < totals.length; i++) {
+                        totals[i] += shardTotals[i];
+                    }
+                }
+            });
+            double seconds = Math.max((System.nanoTime() - start) / 1e9, 1e-3);
+            lastThroughput.set(totals[0] / seconds);
+            log.info("Reminder job: {} records scanned, {} reminders written, {} stale reminders removed in {} s ({} records/s)",
+                    totals[0], totals[1], totals[2], String.format("%.1f", seconds), Math.round(totals[0] / seconds));
+        } finally {
+            running.set(false);
+        }
+    }
+
+    /**
+     * Обходит медицинские записи одной базы данных порциями, затем удаляет напоминания,
+     * которые не были записаны этим запуском.
+     *
+     * @param shardClinicId Клиника, определяющая базу данных
+     * @param today Дата запуска
+     * @param startedAt Момент начала запуска, которым отмечаются записанные напоминания
+     * @return Количество прочитанных записей, записанных и удаленных напоминаний
+     */
+    private long[] runShard(int shardClinicId, LocalDate today, Timestamp startedAt) {
+        long recordCount = 0;
+        long reminderCount = 0;
+        ScanRow last = new ScanRow(0, Integer.MIN_VALUE, 0, null, null, 0, null);
+        List<ScanRow> carried = List.of();
+        CompletableFuture<Integer> inFlight = CompletableFuture.completedFuture(0);
+
+        while (true) {
+            ScanRow after = last;
+            List<ScanRow> rows = readTransaction.execute(status -> jdbcTemplate.query(SCAN_SQL,
+                    (rs, i) -> new ScanRow(rs.getInt(1), rs.getInt(2), rs.getInt(3), rs.getString(4),
+                            rs.getObject(5, LocalDate.class), rs.getInt(6), rs.getObject(7, Integer.class)),
+                    after.clinicId(), after.animalId(), after.id(), chunkSize));
+            recordCount += rows.size();
+            scanned.increment(rows.size());
+            boolean lastChunk = rows.size() < chunkSize;
+
+            List<ScanRow> chunk = new ArrayList<>(carried.size() + rows.size());
+            chunk.addAll(carried);
+            chunk.addAll(rows);
+            List<List<ScanRow>> animals = groupByAnimal(chunk);
+
+            // Записи последнего животного могут продолжиться в следующей порции
+            carried = !lastChunk && !animals.isEmpty() ? animals.remove(animals.size() - 1) : List.of();
+            if (!rows.isEmpty()) {
+                last = rows.get(rows.size() - 1);
+            }
+
+            reminderCount += inFlight.join();
+            inFlight = CompletableFuture.supplyAsync(() -> TenantContext.callAs(shardClinicId,
+                    () -> write(animals.parallelStream()
+                            .flatMap(records -> compute(records, today).stream())
+                            .toList(), startedAt)), pool);
+
+            if (lastChunk) {
+                break;
+            }
+        }
+        reminderCount += inFlight.join();
+
+        // Весь обход завершен, поэтому напоминание без отметки этого запуска больше не рассчитывается
+        Integer removed = writeTransaction.execute(status -> jdbcTemplate.update(SWEEP_SQL, startedAt));
+        return new long[]{recordCount, reminderCount, removed};
+    }
+
+    /**
+     * Разбивает упорядоченные записи на группы по животному.
+     */
+    private static List<List<ScanRow>> groupByAnimal(List<ScanRow> rows) {
+        List<List<ScanRow>> groups = new ArrayList<>();
+        List<ScanRow> current = null;
+        for (ScanRow row : rows) {
+            if (current == null || current.get(0).animalId() != row.animalId()
+                    || current.get(0).clinicId() != row.clinicId()) {
+                current = new ArrayList<>();
+                groups.add(current);
+            }
+            current.add(row);
+        }
+        return groups;
+    }
+
+    /**
+     * Рассчитывает напоминания для одного животного по всем его медицинским записям.
+     * Сроки вычисляются от дат визитов, поэтому повторный расчет дает те же напоминания.
+     *
+     * @param records Медицинские записи животного
+     * @param today Дата запуска
+     * @return Напоминания со сроком не позже горизонта
+     */
+    private List<DueReminder> compute(List<ScanRow> records, LocalDate today) {
+        ScanRow first = records.get(0);
+        LocalDate horizon = today.plusDays(lookaheadDays);
+
+        Map<String, LocalDate> lastVisit = new HashMap<>();
+        LocalDate latestVisit = null;
+        for (ScanRow row : records) {
+            lastVisit.merge(row.procedureType(), row.visitDate(), (a, b) -> a.isAfter(b) ? a : b);
+            if (latestVisit == null || row.visitDate().isAfter(latestVisit)) {
+                latestVisit = row.visitDate();
+            }
+        }
+
+        List<DueReminder> result = new ArrayList<>();
+        for (Map.Entry<String, LocalDate> visit : lastVisit.entrySet()) {
+            if (yearlyProcedures.contains(visit.getKey())) {
+                LocalDate due = visit.getValue().plusYears(1);
+                if (!due.isAfter(horizon)) {
+                    result.add(new DueReminder(first.clinicId(), first.animalId(), ReminderKind.FOLLOW_UP,
+                            visit.getKey(), due));
+                }
+            }
+        }
+
+        Integer lifespan = first.averageLifespan();
+        if (lifespan != null && lifespan > 0 && first.age() >= seniorAgeRatio * lifespan) {
+            LocalDate lastCheck = lastVisit.get(seniorCareProcedure);
+            // Без предыдущего осмотра срок считается от последнего визита, чтобы он не сдвигался между запусками
+            LocalDate due = lastCheck != null ? lastCheck.plusMonths(seniorCareIntervalMonths) : latestVisit;
+            if (!due.isAfter(horizon)) {
+                result.add(new DueReminder(first.clinicId(), first.animalId(), ReminderKind.SENIOR_CARE,
+                        seniorCareProcedure, due));
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Записывает напоминания пакетами; у существующих напоминаний обновляются срок и отметка запуска.
+     *
+     * @param reminders Рассчитанные напоминания
+     * @param startedAt Момент начала запуска
+     * @return Количество созданных или обновленных напоминаний
+     */
+    private int write(List<DueReminder> reminders, Timestamp startedAt) {
+        if (reminders.isEmpty()) {
+            return 0;
+        }
+        Integer written = writeTransaction.execute(status -> {
+            int[][] counts = jdbcTemplate.batchUpdate(INSERT_SQL, reminders, batchSize, (ps, reminder) -> {
+                ps.setInt(1, reminder.clinicId());
+                ps.setInt(2, reminder.animalId());
+                ps.setString(3, reminder.kind().name());
+                ps.setString(4, reminder.procedureType());
+                ps.setDate(5, Date.valueOf(reminder.dueDate()));
+                ps.setTimestamp(6, startedAt);
+                ps.setTimestamp(7, startedAt);
+            });
+            int total = 0;
+            for (int[] batch : counts) {
+                for (int count : batch) {
+                    total += Math.max(count, 0);
+                }
+            }
+            return total;
+        });
+        created.increment(written);
+        return written;
+    }
+}
@@ -0,0 +1,52 @@
+package com.psu.vet_clinic.service;
+
+import com.psu.vet_clinic.entity.Reminder;
+import com.psu.vet_clinic.repository.ReminderRepository;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * Сервис для чтения напоминаний, рассчитанных задачей {@link ReminderJob}.
+ */
+@Service
+public class ReminderService {
+
+    /**
+     * Репозиторий для работы с напоминаниями
+     */
+    private final ReminderRepository repository;
+
+    /**
+     * Конструктор с внедрением зависимостей.
+     *
+     * @param repository Репозиторий для работы с напоминаниями
+     */
+    public ReminderService(ReminderRepository repository) {
+        this.repository = repository;
+    }
+
+    /**
+     * Получает напоминания со сроком не позже указанной даты.
+     *
+     * @param until Последняя дата срока (включительно)
+     * @return Список напоминаний в порядке срока
+     */
+    @Transactional(readOnly = true)
+    public List<Reminder> findDue(LocalDate until) {
+        return repository.findByDueDateLessThanEqualOrderByDueDate(until);
+    }
+
+    /**
+     * Получает все напоминания животного.
+     *
+     * @param animalId Идентификатор животного
+     * @return Список напоминаний в порядке срока
+     */
+    @Transactional(readOnly = true)
+    public List<Reminder> findByAnimalId(Integer animalId) {
+        return repository.findByAnimalIdOrderByDueDate(animalId);
+    }
+}
@@ -0,0 +1,265 @@
+package com.psu.vet_clinic.service;
+
+import com.psu.vet_clinic.dto.MedicalRecordRow;
+import com.psu.vet_clinic.entity.Animal;
+import com.psu.vet_clinic.repository.AnimalRepository;
+import com.psu.vet_clinic.repository.MedicalRecordRepository;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+/**
+ * Сервис формирования архива медицинских историй для набора животных.
+ *
+ * <p>Животные обрабатываются окнами фиксированного размера: для каждого окна животные
+ * и их медицинские записи загружаются двумя запросами (без запроса на каждое животное).
+ * История каждого животного формируется в CSV на ограниченном пуле потоков, а готовые
+ * документы записываются в ZIP-архив в порядке готовности, сразу в выходной поток.</p>
+ *
+ * <p>В памяти одновременно находятся только данные текущего окна и не более заданного числа
+ * готовых, но еще не записанных документов, поэтому расход памяти не зависит от количества
+ * животных в запросе. Формат PDF не поддерживается: в проекте нет библиотеки для его построения.</p>
+ */
+@Service
+public class ReportService {
+
+    /**
+     * Метка порядка байтов UTF-8, чтобы табличные редакторы открывали кириллицу без настройки кодировки
+     */
+    private static final byte[] UTF8_BOM = {(byte) 0xEF, (byte) 0xBB, (byte) 0xBF};
+
+    private static final String CSV_HEADER = "animal_id;animal_name;animal_type;visit_date;procedure_type;diagnosis\r\n";
+
+    /**
+     * Сформированный документ архива.
+     *
+     * @param name Имя файла в архиве
+     * @param content Содержимое файла
+     */
+    private record Document(String name, byte[] content) {
+    }
+
+    private final AnimalRepository animalRepository;
+    private final MedicalRecordRepository medicalRecordRepository;
+    private final TransactionTemplate readTransaction;
+
+    private final int maxAnimals;
+    private final int windowSize;
+    private final int maxPendingDocuments;
+
+    /**
+     * Ограниченный пул потоков формирования документов; при переполнении очереди
+     * документ формируется в вызывающем потоке, что замедляет чтение следующих окон
+     */
+    private final ThreadPoolExecutor executor;
+
+    /**
+     * Конструктор с внедрением зависимостей и настроек формирования отчетов.
+     *
+     * @param animalRepository Репозиторий животных
+     * @param medicalRecordRepository Репозиторий медицинских записей
+     * @param transactionManager Менеджер транзакций
+     * @param maxAnimals Максимальное количество животных в одном запросе
+     * @param windowSize Количество животных, загружаемых одним запросом
+     * @param parallelism Количество потоков формирования документов
+     * @param maxPendingDocuments Максимальное количество готовых документов, ожидающих записи в архив
+     */
+    public ReportService(AnimalRepository animalRepository,
+                         MedicalRecordRepository medicalRecordRepository,
+                         PlatformTransactionManager transactionManager,
+                         @Value("${vet-clinic.reports.max-animals:10000}") int maxAnimals,
+                         @Value("${vet-clinic.reports.window-size:200}") int windowSize,
+                         @Value("${vet-clinic.reports.parallelism:4}") int parallelism,
+                         @Value("${vet-clinic.reports.max-pending-documents:32}") int maxPendingDocuments) {
+        this.animalRepository = animalRepository;
+        this.medicalRecordRepository = medicalRecordRepository;
+        this.readTransaction = new TransactionTemplate(transactionManager);
+        this.readTransaction.setReadOnly(true);
+        this.maxAnimals = maxAnimals;
+        this.windowSize = windowSize;
+        this.maxPendingDocuments = maxPendingDocuments;
+
+        AtomicInteger threads = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(parallelism, parallelism, 0, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(maxPendingDocuments),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "report-renderer-" + threads.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                new ThreadPoolExecutor.CallerRunsPolicy());
+    }
+
+    /**
+     * Останавливает пул потоков формирования документов.
+     */
+    @PreDestroy
+    void stop() {
+        executor.shutdownNow();
+    }
+
+    /**
+     * Проверяет и нормализует список животных для отчета: удаляет повторы, сохраняя порядок.
+     *
+     * @param animalIds Идентификаторы животных
+     * @return Идентификаторы без повторов
+     * @throws IllegalArgumentException Если список пуст или превышает допустимый размер
+     */
+    public List<Integer> validate(Collection<Integer> animalIds) {
+        if (animalIds == null || animalIds.isEmpty()) {
+            throw new IllegalArgumentException("Список животных не может быть пустым");
+        }
+        LinkedHashSet<Integer> unique = new LinkedHashSet<>(animalIds);
+        unique.remove(null);
+        if (unique.size() > maxAnimals) {
+            throw new IllegalArgumentException("Отчет может включать не более " + maxAnimals + " животных");
+        }
+        return new ArrayList<>(unique);
+    }
+
+    /**
+     * Записывает в поток ZIP-архив с CSV-историей каждого найденного животного текущей клиники.
+     * Идентификаторы, для которых животное не найдено, перечисляются в файле not-found.txt.
+     *
+     * @param animalIds Проверенные идентификаторы животных
+     * @param out Выходной поток
+     * @throws IOException Если запись в поток не удалась
+     */
+    public void writeHistories(List<Integer> animalIds, OutputStream out) throws IOException {
+        ZipOutputStream zip = new ZipOutputStream(out, StandardCharsets.UTF_8);
+        CompletionService<Document> completion = new ExecutorCompletionService<>(executor);
+        List<Integer> missing = new ArrayList<>();
+        int pending = 0;
+
+        for (int from = 0; from < animalIds.size(); from += windowSize) {
+            List<Integer> window = animalIds.subList(from, Math.min(from + windowSize, animalIds.size()));
+            Map<Integer, Animal> animals = new HashMap<>();
+            Map<Integer, List<MedicalRecordRow>> records = new HashMap<>();
+            readTransaction.executeWithoutResult(status -> {
+                animalRepository.findAllById(window).forEach(animal -> animals.put(animal.getId(), animal));
+                for (MedicalRecordRow row : medicalRecordRepository.findRowsByAnimalIds(window)) {
+                    records.computeIfAbsent(row.animalId(), id -> new ArrayList<>()).add(row);
+                }
+            });
+
+            for (Integer id : window) {
+                Animal animal = animals.get(id);
+                if (animal == null) {
+                    missing.add(id);
+                    continue;
+                }
+                while (pending >= maxPendingDocuments) {
+                    write(zip, await(take(completion)));
+                    pending--;
+                }
+                List<MedicalRecordRow> history = records.getOrDefault(id, List.of());
+                completion.submit(() -> render(animal, history));
+                pending++;
+            }
+
+            // Документы, готовые к этому моменту, записываются, не дожидаясь остальных
+            Future<Document> done;
+            while ((done = completion.poll()) != null) {
+                write(zip, await(done));
+                pending--;
+            }
+        }
+
+        while (pending > 0) {
+            write(zip, await(take(completion)));
+            pending--;
+        }
+        if (!missing.isEmpty()) {
+            StringBuilder text = new StringBuilder("Животные не найдены:\r\n");
+            missing.forEach(id -> text.append(id).append("\r\n"));
+            write(zip, new Document("not-found.txt", text.toString().getBytes(StandardCharsets.UTF_8)));
+        }
+        zip.finish();
+        zip.flush();
+    }
+
+    /**
+     * Формирует CSV-историю одного животного.
+     *
+     * @param animal Животное
+     * @param history Медицинские записи животного в порядке даты визита
+     * @return Документ архива
+     */
+    private Document render(Animal animal, List<MedicalRecordRow> history) {
+        String type = animal.getAnimalType() != null ? animal.getAnimalType().getName() : "";
+        StringBuilder csv = new StringBuilder(CSV_HEADER.length() + history.size() * 96);
+        csv.append(CSV_HEADER);
+        for (MedicalRecordRow row : history) {
+            csv.append(animal.getId()).append(';')
+                    .append(escape(animal.getName())).append(';')
+                    .append(escape(type)).append(';')
+                    .append(row.visitDate()).append(';')
+                    .append(escape(row.procedureType())).append(';')
+                    .append(escape(row.diagnosis())).append("\r\n");
+        }
+        byte[] body = csv.toString().getBytes(StandardCharsets.UTF_8);
+        byte[] content = new byte[UTF8_BOM.length + body.length];
+        System.arraycopy(UTF8_BOM, 0, content, 0, UTF8_BOM.length);
+        System.arraycopy(body, 0, content, UTF8_BOM.length, body.length);
+        return new Document("animal-" + animal.getId() + ".csv", content);
+    }
+
+    private static String escape(String value) {
+        if (value == null) {
+            return "";
+        }
+        if (value.indexOf(';') < 0 && value.indexOf('"') < 0 && value.indexOf('\n') < 0 && value.indexOf('\r') < 0) {
+            return value;
+        }
+        return '"' + value.replace("\"", "\"\"") + '"';
+    }
+
+    private static void write(ZipOutputStream zip, Document document) throws IOException {
+        zip.putNextEntry(new ZipEntry(document.name()));
+        zip.write(document.content());
+        zip.closeEntry();
+        zip.flush();
+    }
+
+    private static Future<Document> take(CompletionService<Document> completion) throws IOException {
+        try {
+            return completion.take();
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Report generation interrupted", ex);
+        }
+    }
+
+    private static Document await(Future<Document> future) throws IOException {
+        try {
+            return future.get();
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Report generation interrupted", ex);
+        } catch (ExecutionException ex) {
+            throw new IllegalStateException("Failed to render report", ex.getCause());
+        }
+    }
+}
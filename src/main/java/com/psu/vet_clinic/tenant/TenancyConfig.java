@@ -0,0 +1,53 @@
+package com.psu.vet_clinic.tenant;
+
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+
+import javax.sql.DataSource;
+
+/**
+ * Конфигурация разделения данных по клиникам.
+ *
+ * <p>Каждая сущность клиники хранит {@code clinic_id}; Hibernate ограничивает им все запросы
+ * (см. {@link TenantIdentifierResolver}). Если заданы шарды, основной источник данных
+ * оборачивается в {@link TenantRoutingDataSource}, и данные клиник из
+ * {@code vet-clinic.tenancy.placement} хранятся в отдельных базах данных.</p>
+ *
+ * <p>Схема создается Hibernate только в основной базе данных; базы шардов
+ * необходимо подготовить заранее с той же схемой.</p>
+ */
+@Configuration
+@EnableConfigurationProperties(TenancyProperties.class)
+public class TenancyConfig {
+
+    /**
+     * Оборачивает основной источник данных в маршрутизатор по шардам, если шарды настроены.
+     * Настройки читаются напрямую из окружения, так как постпроцессор создается раньше
+     * остальных бинов.
+     *
+     * @param environment Окружение приложения
+     * @return Постпроцессор источника данных
+     */
+    @Bean
+    public static BeanPostProcessor tenantRoutingPostProcessor(Environment environment) {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (!"dataSource".equals(beanName) || !(bean instanceof DataSource dataSource)) {
+                    return bean;
+                }
+                TenancyProperties properties = Binder.get(environment)
+                        .bind("vet-clinic.tenancy", TenancyProperties.class)
+                        .orElseGet(TenancyProperties::new);
+                if (properties.getShards().isEmpty()) {
+                    return bean;
+                }
+                return new TenantRoutingDataSource(dataSource, properties);
+            }
+        };
+    }
+}
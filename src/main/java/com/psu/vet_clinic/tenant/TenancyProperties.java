@@ -0,0 +1,87 @@
+package com.psu.vet_clinic.tenant;
+
+import com.zaxxer.hikari.HikariConfig;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Настройки размещения клиник по шардам ({@code vet-clinic.tenancy.*}).
+ *
+ * <p>Пример: клиники 7 и 8 хранятся в отдельной базе данных {@code east}:</p>
+ * <pre>
+ * vet-clinic.tenancy.shards.east.jdbc-url=jdbc:postgresql://east:5432/vet_clinic
+ * vet-clinic.tenancy.shards.east.username=postgres
+ * vet-clinic.tenancy.placement.7=east
+ * vet-clinic.tenancy.placement.8=east
+ * </pre>
+ * <p>Клиники без явного размещения хранятся в основной базе данных.</p>
+ */
+@ConfigurationProperties("vet-clinic.tenancy")
+public class TenancyProperties {
+
+    /**
+     * Клиника для запросов без заголовка и фоновых задач
+     */
+    private int defaultClinicId = 1;
+
+    /**
+     * Пулы соединений шардов по имени шарда (свойства Hikari)
+     */
+    private Map<String, HikariConfig> shards = new LinkedHashMap<>();
+
+    /**
+     * Имя шарда по идентификатору клиники
+     */
+    private Map<Integer, String> placement = new TreeMap<>();
+
+    /**
+     * Возвращает по одной клинике на каждую базу данных: клинику по умолчанию
+     * для основной базы и первую размещенную клинику для каждого шарда.
+     * Используется фоновыми задачами, которые обходят все базы данных.
+     *
+     * @return Идентификаторы клиник, представляющих базы данных
+     */
+    public List<Integer> shardClinicIds() {
+        List<Integer> result = new ArrayList<>();
+        result.add(defaultClinicId);
+        Map<String, Integer> firstByShard = new LinkedHashMap<>();
+        placement.forEach((clinicId, shard) -> firstByShard.putIfAbsent(shard, clinicId));
+        firstByShard.forEach((shard, clinicId) -> {
+            if (shards.containsKey(shard)) {
+                result.add(clinicId);
+            }
+        });
+        return result;
+    }
+
+    /** Стандартные геттеры и сеттеры для всех полей */
+
+    public int getDefaultClinicId() {
+        return defaultClinicId;
+    }
+
+    public void setDefaultClinicId(int defaultClinicId) {
+        this.defaultClinicId = defaultClinicId;
+    }
+
+    public Map<String, HikariConfig> getShards() {
+        return shards;
+    }
+
+    public void setShards(Map<String, HikariConfig> shards) {
+        this.shards = shards;
+    }
+
+    public Map<Integer, String> getPlacement() {
+        return placement;
+    }
+
+    public void setPlacement(Map<Integer, String> placement) {
+        this.placement = placement;
+    }
+}
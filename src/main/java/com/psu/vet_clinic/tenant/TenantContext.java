@@ -0,0 +1,105 @@
+package com.psu.vet_clinic.tenant;
+
+import java.util.function.Supplier;
+
+/**
+ * Текущая клиника (арендатор) потока выполнения.
+ *
+ * <p>Для HTTP-запросов клиника устанавливается фильтром {@link TenantFilter} по заголовку запроса,
+ * для фоновых задач — явно через {@link #callAs(int, Supplier)}. Если клиника не установлена,
+ * используется клиника по умолчанию.</p>
+ *
+ * <p>Режим root отключает фильтрацию по клинике в Hibernate и используется только
+ * для служебной загрузки данных всех клиник одного шарда.</p>
+ */
+public final class TenantContext {
+
+    private static final ThreadLocal<Integer> CLINIC = new ThreadLocal<>();
+    private static final ThreadLocal<Boolean> ROOT = new ThreadLocal<>();
+    private static volatile int defaultClinicId = 1;
+
+    private TenantContext() {}
+
+    /**
+     * Возвращает идентификатор текущей клиники.
+     *
+     * @return Идентификатор клиники потока или клиники по умолчанию
+     */
+    public static int currentClinicId() {
+        Integer clinicId = CLINIC.get();
+        return clinicId != null ? clinicId : defaultClinicId;
+    }
+
+    /**
+     * Проверяет, включен ли режим root для текущего потока.
+     *
+     * @return true, если фильтрация по клинике отключена
+     */
+    public static boolean isRoot() {
+        return Boolean.TRUE.equals(ROOT.get());
+    }
+
+    /**
+     * Выполняет действие от имени указанной клиники и восстанавливает прежнее состояние потока.
+     *
+     * @param clinicId Идентификатор клиники
+     * @param action Действие
+     * @param <T> Тип результата
+     * @return Результат действия
+     */
+    public static <T> T callAs(int clinicId, Supplier<T> action) {
+        return call(clinicId, false, action);
+    }
+
+    /**
+     * Выполняет действие в режиме root на шарде указанной клиники:
+     * запросы возвращают данные всех клиник этого шарда.
+     *
+     * @param clinicId Идентификатор клиники, определяющий шард
+     * @param action Действие
+     * @param <T> Тип результата
+     * @return Результат действия
+     */
+    public static <T> T callAsRoot(int clinicId, Supplier<T> action) {
+        return call(clinicId, true, action);
+    }
+
+    /**
+     * Устанавливает клинику по умолчанию. Вызывается один раз при запуске.
+     *
+     * @param clinicId Идентификатор клиники по умолчанию
+     */
+    static void setDefaultClinicId(int clinicId) {
+        defaultClinicId = clinicId;
+    }
+
+    /**
+     * Устанавливает клинику текущего потока. Используется фильтром запросов.
+     *
+     * @param clinicId Идентификатор клиники или null для клиники по умолчанию
+     */
+    static void set(Integer clinicId) {
+        if (clinicId == null) {
+            CLINIC.remove();
+        } else {
+            CLINIC.set(clinicId);
+        }
+    }
+
+    private static <T> T call(int clinicId, boolean root, Supplier<T> action) {
+        Integer previousClinic = CLINIC.get();
+        Boolean previousRoot = ROOT.get();
+        CLINIC.set(clinicId);
+        ROOT.set(root);
+        try {
+            return action.get();
+        } finally {
+            set(previousClinic);
+            if (previousRoot == null) {
+                ROOT.remove();
+            } else {
+                ROOT.set(previousRoot);
+            }
+        }
+    }
+}
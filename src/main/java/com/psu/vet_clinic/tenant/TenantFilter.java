@@ -0,0 +1,138 @@
+package com.psu.vet_clinic.tenant;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.util.Base64;
+
+/**
+ * Фильтр, определяющий клинику для HTTP-запроса по заголовку (по умолчанию {@code X-Clinic-Id}).
+ * Выполняется до открытия сессии Hibernate, поэтому все запросы к базе данных
+ * в рамках HTTP-запроса ограничены данными этой клиники.
+ *
+ * <p>Заголовок учитывается, только если включен параметр {@code vet-clinic.tenancy.header-enabled};
+ * иначе все запросы относятся к клинике по умолчанию. Если задан ключ
+ * {@code vet-clinic.tenancy.signing-key}, заголовок должен содержать подписанный идентификатор
+ * {@code <clinicId>.<подпись>}, где подпись — HMAC-SHA256 идентификатора в Base64 URL без дополнения;
+ * запросы с неверной подписью отклоняются с кодом 403. Без ключа заголовок никак не проверяется
+ * и разделение данных по клиникам не является границей безопасности: любой клиент может
+ * указать чужую клинику.</p>
+ */
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE + 10)
+public class TenantFilter extends OncePerRequestFilter {
+
+    private static final Logger log = LoggerFactory.getLogger(TenantFilter.class);
+
+    /**
+     * Алгоритм подписи идентификатора клиники
+     */
+    private static final String SIGNATURE_ALGORITHM = "HmacSHA256";
+
+    /**
+     * Заголовок с идентификатором клиники
+     */
+    private final String header;
+
+    /**
+     * Признак того, что клиника запроса берется из заголовка
+     */
+    private final boolean headerEnabled;
+
+    /**
+     * Ключ подписи идентификатора клиники или null, если подпись не проверяется
+     */
+    private final SecretKeySpec signingKey;
+
+    /**
+     * Конструктор с настройками фильтра.
+     *
+     * @param header Заголовок с идентификатором клиники
+     * @param headerEnabled Признак того, что клиника запроса берется из заголовка
+     * @param signingKey Ключ подписи идентификатора клиники (пустой — подпись не проверяется)
+     */
+    public TenantFilter(@Value("${vet-clinic.tenancy.header:X-Clinic-Id}") String header,
+                        @Value("${vet-clinic.tenancy.header-enabled:false}") boolean headerEnabled,
+                        @Value("${vet-clinic.tenancy.signing-key:}") String signingKey) {
+        this.header = header;
+        this.headerEnabled = headerEnabled;
+        this.signingKey = signingKey.isBlank() ? null
+                : new SecretKeySpec(signingKey.getBytes(StandardCharsets.UTF_8), SIGNATURE_ALGORITHM);
+        if (headerEnabled && this.signingKey == null) {
+            log.warn("Clinic is taken from the unsigned {} header: any client can access any clinic. "
+                    + "Set vet-clinic.tenancy.signing-key to require signed clinic ids", header);
+        }
+    }
+
+    /**
+     * Подписывает идентификатор клиники для заголовка клиники.
+     *
+     * @param clinicId Идентификатор клиники
+     * @param signingKey Ключ подписи
+     * @return Значение заголовка в виде {@code <clinicId>.<подпись>}
+     */
+    public static String sign(int clinicId, String signingKey) {
+        return clinicId + "." + signature(Integer.toString(clinicId),
+                new SecretKeySpec(signingKey.getBytes(StandardCharsets.UTF_8), SIGNATURE_ALGORITHM));
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response,
+                                    FilterChain chain) throws ServletException, IOException {
+        String value = headerEnabled ? request.getHeader(header) : null;
+        Integer clinicId = null;
+        if (value != null && !value.isBlank()) {
+            String id = value.trim();
+            if (signingKey != null) {
+                int dot = id.indexOf('.');
+                if (dot < 0 || !MessageDigest.isEqual(
+                        signature(id.substring(0, dot), signingKey).getBytes(StandardCharsets.US_ASCII),
+                        id.substring(dot + 1).getBytes(StandardCharsets.US_ASCII))) {
+                    response.sendError(HttpStatus.FORBIDDEN.value(), "Invalid " + header + " signature");
+                    return;
+                }
+                id = id.substring(0, dot);
+            }
+            try {
+                clinicId = Integer.valueOf(id);
+            } catch (NumberFormatException ex) {
+                response.sendError(HttpStatus.BAD_REQUEST.value(), "Invalid " + header + ": " + value);
+                return;
+            }
+        }
+
+        TenantContext.set(clinicId);
+        try {
+            chain.doFilter(request, response);
+        } finally {
+            TenantContext.set(null);
+        }
+    }
+
+    private static String signature(String clinicId, SecretKeySpec key) {
+        try {
+            Mac mac = Mac.getInstance(SIGNATURE_ALGORITHM);
+            mac.init(key);
+            return Base64.getUrlEncoder().withoutPadding()
+                    .encodeToString(mac.doFinal(clinicId.getBytes(StandardCharsets.UTF_8)));
+        } catch (GeneralSecurityException ex) {
+            throw new IllegalStateException(ex);
+        }
+    }
+}
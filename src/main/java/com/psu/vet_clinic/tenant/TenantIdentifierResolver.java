@@ -0,0 +1,48 @@
+package com.psu.vet_clinic.tenant;
+
+import org.hibernate.cfg.AvailableSettings;
+import org.hibernate.context.spi.CurrentTenantIdentifierResolver;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+
+/**
+ * Передает Hibernate идентификатор текущей клиники.
+ * Hibernate подставляет его в поля {@code @TenantId} при сохранении и добавляет условие
+ * {@code clinic_id = ?} ко всем запросам к сущностям клиники.
+ */
+@Component
+public class TenantIdentifierResolver implements CurrentTenantIdentifierResolver<Integer>,
+        HibernatePropertiesCustomizer {
+
+    /**
+     * Конструктор с настройкой клиники по умолчанию.
+     *
+     * @param defaultClinicId Идентификатор клиники для запросов без заголовка и фоновых задач
+     */
+    public TenantIdentifierResolver(@Value("${vet-clinic.tenancy.default-clinic-id:1}") int defaultClinicId) {
+        TenantContext.setDefaultClinicId(defaultClinicId);
+    }
+
+    @Override
+    public Integer resolveCurrentTenantIdentifier() {
+        return TenantContext.currentClinicId();
+    }
+
+    @Override
+    public boolean validateExistingCurrentSessions() {
+        return false;
+    }
+
+    @Override
+    public boolean isRoot(Integer tenantId) {
+        return TenantContext.isRoot();
+    }
+
+    @Override
+    public void customize(Map<String, Object> hibernateProperties) {
+        hibernateProperties.put(AvailableSettings.MULTI_TENANT_IDENTIFIER_RESOLVER, this);
+    }
+}
@@ -0,0 +1,70 @@
+package com.psu.vet_clinic.tenant;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+
+import javax.sql.DataSource;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Источник данных, направляющий соединения в базу данных шарда текущей клиники.
+ * Клиники без размещения получают соединения основного источника данных
+ * (в том числе с разделением чтения и записи, если оно настроено).
+ */
+public class TenantRoutingDataSource extends AbstractRoutingDataSource implements AutoCloseable {
+
+    /**
+     * Имя шарда по идентификатору клиники
+     */
+    private final Map<Integer, String> placement;
+
+    /**
+     * Основной источник данных
+     */
+    private final DataSource defaultDataSource;
+
+    /**
+     * Пулы соединений шардов по имени шарда
+     */
+    private final Map<String, HikariDataSource> shards = new HashMap<>();
+
+    /**
+     * Создает маршрутизирующий источник данных и пулы соединений шардов.
+     *
+     * @param defaultDataSource Основной источник данных
+     * @param properties Настройки размещения клиник
+     */
+    public TenantRoutingDataSource(DataSource defaultDataSource, TenancyProperties properties) {
+        this.defaultDataSource = defaultDataSource;
+        this.placement = Map.copyOf(properties.getPlacement());
+        properties.getShards().forEach((name, config) -> {
+            if (config.getPoolName() == null) {
+                config.setPoolName(name);
+            }
+            shards.put(name, new HikariDataSource(config));
+        });
+        setDefaultTargetDataSource(defaultDataSource);
+        setTargetDataSources(new HashMap<>(shards));
+        setLenientFallback(false);
+        afterPropertiesSet();
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        return placement.get(TenantContext.currentClinicId());
+    }
+
+    /**
+     * Закрывает пулы соединений шардов и основной источник данных.
+     *
+     * @throws Exception Ошибка закрытия основного источника данных
+     */
+    @Override
+    public void close() throws Exception {
+        shards.values().forEach(HikariDataSource::close);
+        if (defaultDataSource instanceof AutoCloseable closeable) {
+            closeable.close();
+        }
+    }
+}
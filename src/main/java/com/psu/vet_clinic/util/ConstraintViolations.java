@@ -0,0 +1,37 @@
+package com.psu.vet_clinic.util;
+
+import org.hibernate.exception.ConstraintViolationException;
+import org.springframework.dao.DataIntegrityViolationException;
+
+/**
+ * Утилитный класс для разбора нарушений ограничений базы данных.
+ * Позволяет отличить нарушение конкретного ограничения (например, уникального индекса)
+ * от прочих ошибок целостности.
+ */
+public class ConstraintViolations {
+    private ConstraintViolations() {}
+
+    /**
+     * Проверяет, вызвано ли исключение нарушением одного из ограничений с указанными именами.
+     *
+     * @param ex Исключение нарушения целостности данных
+     * @param constraintNames Имена ограничений в базе данных
+     * @return true, если нарушено одно из указанных ограничений
+     */
+    public static boolean violates(DataIntegrityViolationException ex, String... constraintNames) {
+        for (Throwable cause = ex; cause != null; cause = cause.getCause()) {
+            if (cause instanceof ConstraintViolationException cve) {
+                if (cve.getConstraintName() == null) {
+                    return false;
+                }
+                for (String constraintName : constraintNames) {
+                    if (cve.getConstraintName().equalsIgnoreCase(constraintName)) {
+                        return true;
+                    }
+                }
+                return false;
+            }
+        }
+        return false;
+    }
+}
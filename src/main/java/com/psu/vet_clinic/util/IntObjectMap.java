@@ -0,0 +1,160 @@
+package com.psu.vet_clinic.util;
+
+import java.util.Arrays;
+
+/**
+ * Хеш-таблица с ключами типа int и открытой адресацией.
+ * В отличие от HashMap&lt;Integer, V&gt; не создает объектов для ключей и записей,
+ * поэтому занимает значительно меньше памяти на больших объемах данных.
+ *
+ * <p>Класс не потокобезопасен: синхронизация — ответственность вызывающего кода.</p>
+ *
+ * @param <V> Тип значений
+ */
+public class IntObjectMap<V> {
+
+    private static final int FREE = Integer.MIN_VALUE;
+
+    private int[] keys;
+    private Object[] values;
+    private int size;
+    private int mask;
+
+    /**
+     * Создает таблицу с начальной вместимостью не меньше указанной.
+     *
+     * @param expectedSize Ожидаемое количество элементов
+     */
+    public IntObjectMap(int expectedSize) {
+        int capacity = Integer.highestOneBit(Math.max(4, expectedSize * 2 - 1)) << 1;
+        allocate(capacity);
+    }
+
+    /**
+     * Возвращает количество элементов.
+     *
+     * @return Количество элементов
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Возвращает значение по ключу.
+     *
+     * @param key Ключ (не может быть равен Integer.MIN_VALUE)
+     * @return Значение или null, если ключ отсутствует
+     */
+    @SuppressWarnings("unchecked")
+    public V get(int key) {
+        int i = slot(key);
+        return keys[i] == key ? (V) values[i] : null;
+    }
+
+    /**
+     * Добавляет или заменяет значение по ключу.
+     *
+     * @param key Ключ (не может быть равен Integer.MIN_VALUE)
+     * @param value Значение (не null)
+     */
+    public void put(int key, V value) {
+        if (key == FREE) {
+            throw new IllegalArgumentException("Unsupported key: " + key);
+        }
+        int i = slot(key);
+        if (keys[i] != key) {
+            if ((size + 1) * 2 > keys.length) {
+                rehash(keys.length << 1);
+                i = slot(key);
+            }
+            keys[i] = key;
+            size++;
+        }
+        values[i] = value;
+    }
+
+    /**
+     * Удаляет значение по ключу.
+     *
+     * @param key Ключ
+     * @return Удаленное значение или null, если ключ отсутствовал
+     */
+    @SuppressWarnings("unchecked")
+    public V remove(int key) {
+        int i = slot(key);
+        if (keys[i] != key) {
+            return null;
+        }
+        V removed = (V) values[i];
+        size--;
+
+        // Сдвиг последующих элементов цепочки, чтобы не оставлять «дыр» при линейном пробировании
+        int gap = i;
+        int j = i;
+        while (true) {
+            j = (j + 1) & mask;
+            if (keys[j] == FREE) {
+                break;
+            }
+            int home = hash(keys[j]);
+            if (((j - home) & mask) >= ((j - gap) & mask)) {
+                keys[gap] = keys[j];
+                values[gap] = values[j];
+                gap = j;
+            }
+        }
+        keys[gap] = FREE;
+        values[gap] = null;
+        return removed;
+    }
+
+    /**
+     * Возвращает все ключи в порядке возрастания.
+     *
+     * @return Отсортированный массив ключей
+     */
+    public int[] sortedKeys() {
+        int[] result = new int[size];
+        int n = 0;
+        for (int key : keys) {
+            if (key != FREE) {
+                result[n++] = key;
+            }
+        }
+        Arrays.sort(result);
+        return result;
+    }
+
+    private int slot(int key) {
+        int i = hash(key);
+        while (keys[i] != FREE && keys[i] != key) {
+            i = (i + 1) & mask;
+        }
+        return i;
+    }
+
+    private int hash(int key) {
+        int h = key * 0x9E3779B9;
+        return (h ^ (h >>> 16)) & mask;
+    }
+
+    private void allocate(int capacity) {
+        keys = new int[capacity];
+        Arrays.fill(keys, FREE);
+        values = new Object[capacity];
+        mask = capacity - 1;
+    }
+
+    private void rehash(int capacity) {
+        int[] oldKeys = keys;
+        Object[] oldValues = values;
+        allocate(capacity);
+        for (int i = 0; i < oldKeys.length; i++) {
+            if (oldKeys[i] != FREE) {
+                int slot = slot(oldKeys[i]);
+                keys[slot] = oldKeys[i];
+                values[slot] = oldValues[i];
+            }
+        }
+    }
+}
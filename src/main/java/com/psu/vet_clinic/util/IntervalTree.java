@@ -0,0 +1,257 @@
+package com.psu.vet_clinic.util;
+
+/**
+ * Дерево полуоткрытых интервалов [start, end) с целочисленными границами.
+ * Сбалансированное AVL-дерево, упорядоченное по началу интервала; каждый узел хранит
+ * максимальный конец интервалов своего поддерева, что позволяет проверять пересечения
+ * и перечислять пересекающиеся интервалы за O(log n + k) без просмотра всех элементов.
+ *
+ * <p>Каждый интервал помечен идентификатором; пара (начало, идентификатор) уникальна.</p>
+ *
+ * <p>Класс не потокобезопасен: синхронизация — ответственность вызывающего кода.</p>
+ */
+public class IntervalTree {
+
+    /**
+     * Получатель интервалов при обходе дерева.
+     */
+    @FunctionalInterface
+    public interface IntervalConsumer {
+
+        /**
+         * Принимает интервал.
+         *
+         * @param start Начало интервала (включительно)
+         * @param end Конец интервала (не включительно)
+         * @param id Идентификатор интервала
+         */
+        void accept(int start, int end, int id);
+    }
+
+    private static final class Node {
+        final int start;
+        final int end;
+        final int id;
+        int maxEnd;
+        int height = 1;
+        Node left;
+        Node right;
+
+        Node(int start, int end, int id) {
+            this.start = start;
+            this.end = end;
+            this.id = id;
+            this.maxEnd = end;
+        }
+    }
+
+    private Node root;
+    private int size;
+
+    /**
+     * Возвращает количество интервалов.
+     *
+     * @return Количество интервалов
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Возвращает высоту дерева; используется тестами для проверки балансировки.
+     *
+     * @return Высота дерева (0 для пустого дерева)
+     */
+    int height() {
+        return height(root);
+    }
+
+    /**
+     * Добавляет интервал.
+     *
+     * @param start Начало интервала (включительно)
+     * @param end Конец интервала (не включительно), больше начала
+     * @param id Идентификатор интервала
+     */
+    public void insert(int start, int end, int id) {
+        if (end <= start) {
+            throw new IllegalArgumentException("Empty interval: [" + start + ", " + end + ")");
+        }
+        root = insert(root, new Node(start, end, id));
+        size++;
+    }
+
+    /**
+     * Удаляет интервал по началу и идентификатору.
+     *
+     * @param start Начало интервала
+     * @param id Идентификатор интервала
+     * @return true, если интервал был найден и удален
+     */
+    public boolean remove(int start, int id) {
+        int before = size;
+        root = remove(root, start, id);
+        return size < before;
+    }
+
+    /**
+     * Проверяет, пересекается ли хотя бы один интервал дерева с [start, end).
+     *
+     * @param start Начало проверяемого интервала (включительно)
+     * @param end Конец проверяемого интервала (не включительно)
+     * @return true, если есть пересечение
+     */
+    public boolean overlaps(int start, int end) {
+        Node node = root;
+        while (node != null) {
+            if (node.start < end && start < node.end) {
+                return true;
+            }
+            // Если в левом поддереве есть интервал, заканчивающийся после start, то пересечение
+            // возможно только там: правые интервалы начинаются не раньше левых
+            if (node.left != null && node.left.maxEnd > start) {
+                node = node.left;
+            } else if (node.start < end) {
+                node = node.right;
+            } else {
+                return false;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Передает получателю все интервалы, пересекающиеся с [start, end), в порядке их начала.
+     *
+     * @param start Начало проверяемого интервала (включительно)
+     * @param end Конец проверяемого интервала (не включительно)
+     * @param action Получатель интервалов
+     */
+    public void forEachOverlapping(int start, int end, IntervalConsumer action) {
+        forEachOverlapping(root, start, end, action);
+    }
+
+    private static void forEachOverlapping(Node node, int start, int end, IntervalConsumer action) {
+        if (node == null || node.maxEnd <= start) {
+            return;
+        }
+        forEachOverlapping(node.left, start, end, action);
+        if (node.start >= end) {
+            return;
+        }
+        if (start < node.end) {
+            action.accept(node.start, node.end, node.id);
+        }
+        forEachOverlapping(node.right, start, end, action);
+    }
+
+    private static int compare(int start, int id, Node node) {
+        int cmp = Integer.compare(start, node.start);
+        return cmp != 0 ? cmp : Integer.compare(id, node.id);
+    }
+
+    private static Node insert(Node node, Node added) {
+        if (node == null) {
+            return added;
+        }
+        int cmp = compare(added.start, added.id, node);
+        if (cmp == 0) {
+            throw new IllegalArgumentException("Duplicate interval id " + added.id + " at " + added.start);
+        }
+        if (cmp < 0) {
+            node.left = insert(node.left, added);
+        } else {
+            node.right = insert(node.right, added);
+        }
+        return balance(node);
+    }
+
+    private Node remove(Node node, int start, int id) {
+        if (node == null) {
+            return null;
+        }
+        int cmp = compare(start, id, node);
+        if (cmp < 0) {
+            node.left = remove(node.left, start, id);
+        } else if (cmp > 0) {
+            node.right = remove(node.right, start, id);
+        } else {
+            size--;
+            if (node.left == null) {
+                return node.right;
+            }
+            if (node.right == null) {
+                return node.left;
+            }
+            Node successor = node.right;
+            while (successor.left != null) {
+                successor = successor.left;
+            }
+            Node replacement = new Node(successor.start, successor.end, successor.id);
+            replacement.right = removeMin(node.right);
+            replacement.left = node.left;
+            return balance(replacement);
+        }
+        return balance(node);
+    }
+
+    private static Node removeMin(Node node) {
+        if (node.left == null) {
+            return node.right;
+        }
+        node.left = removeMin(node.left);
+        return balance(node);
+    }
+
+    private static int height(Node node) {
+        return node != null ? node.height : 0;
+    }
+
+    private static void update(Node node) {
+        node.height = 1 + Math.max(height(node.left), height(node.right));
+        int maxEnd = node.end;
+        if (node.left != null) {
+            maxEnd = Math.max(maxEnd, node.left.maxEnd);
+        }
+        if (node.right != null) {
+            maxEnd = Math.max(maxEnd, node.right.maxEnd);
+        }
+        node.maxEnd = maxEnd;
+    }
+
+    private static Node balance(Node node) {
+        update(node);
+        int factor = height(node.left) - height(node.right);
+        if (factor > 1) {
+            if (height(node.left.left) < height(node.left.right)) {
+                node.left = rotateLeft(node.left);
+            }
+            return rotateRight(node);
+        }
+        if (factor < -1) {
+            if (height(node.right.right) < height(node.right.left)) {
+                node.right = rotateRight(node.right);
+            }
+            return rotateLeft(node);
+        }
+        return node;
+    }
+
+    private static Node rotateRight(Node node) {
+        Node pivot = node.left;
+        node.left = pivot.right;
+        pivot.right = node;
+        update(node);
+        update(pivot);
+        return pivot;
+    }
+
+    private static Node rotateLeft(Node node) {
+        Node pivot = node.right;
+        node.right = pivot.left;
+        pivot.left = node;
+        update(node);
+        update(pivot);
+        return pivot;
+    }
+}
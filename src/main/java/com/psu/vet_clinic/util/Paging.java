@@ -0,0 +1,127 @@
+package com.psu.vet_clinic.util;
+
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.data.domain.Sort;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.function.Predicate;
+
+/**
+ * Утилитный класс для постраничной выборки с поиском и сортировкой.
+ * Используется сервисами как для запросов к базе данных, так и для выборки из модели чтения в памяти,
+ * чтобы обе выборки принимали одинаковые параметры и возвращали одинаковые страницы.
+ */
+public class Paging {
+    private Paging() {}
+
+    /**
+     * Символ экранирования в шаблонах LIKE, возвращаемых {@link #containsPattern(String)}
+     */
+    public static final char LIKE_ESCAPE = '!';
+
+    /**
+     * Приводит строку поиска к виду для сравнения без учета регистра.
+     *
+     * @param query Строка поиска
+     * @return Строка поиска без пробелов по краям в нижнем регистре или null, если она пустая
+     */
+    public static String normalizeQuery(String query) {
+        return query == null || query.isBlank() ? null : query.trim().toLowerCase();
+    }
+
+    /**
+     * Строит шаблон LIKE для поиска подстроки без учета регистра.
+     * Символы %, _ и символ экранирования в запросе экранируются.
+     *
+     * @param query Строка поиска
+     * @return Шаблон в нижнем регистре или null, если строка поиска пустая
+     */
+    public static String containsPattern(String query) {
+        String normalized = normalizeQuery(query);
+        if (normalized == null) {
+            return null;
+        }
+        StringBuilder pattern = new StringBuilder(normalized.length() + 2).append('%');
+        for (char c : normalized.toCharArray()) {
+            if (c == '%' || c == '_' || c == LIKE_ESCAPE) {
+                pattern.append(LIKE_ESCAPE);
+            }
+            pattern.append(c);
+        }
+        return pattern.append('%').toString();
+    }
+
+    /**
+     * Проверяет, содержит ли значение строку поиска без учета регистра.
+     *
+     * @param value Значение поля (может быть null)
+     * @param query Строка поиска, приведенная {@link #normalizeQuery(String)}
+     * @return true, если значение содержит строку поиска
+     */
+    public static boolean containsIgnoreCase(String value, String query) {
+        return value != null && value.toLowerCase().contains(query);
+    }
+
+    /**
+     * Проверяет, что сортировка использует только разрешенные поля, и строит соответствующий компаратор.
+     *
+     * @param sort Сортировка страницы
+     * @param fields Разрешенные поля и их компараторы по возрастанию
+     * @param <T> Тип элементов
+     * @return Компаратор, соответствующий сортировке
+     * @throws IllegalArgumentException Если сортировка использует неразрешенное поле
+     */
+    public static <T> Comparator<T> comparator(Sort sort, Map<String, Comparator<T>> fields) {
+        Comparator<T> result = (a, b) -> 0;
+        for (Sort.Order order : sort) {
+            Comparator<T> field = fields.get(order.getProperty());
+            if (field == null) {
+                throw new IllegalArgumentException("Сортировка по полю недоступна: " + order.getProperty());
+            }
+            result = result.thenComparing(order.isDescending() ? field.reversed() : field);
+        }
+        return result;
+    }
+
+    /**
+     * Выбирает страницу из списка в памяти.
+     * Список не сортируется целиком: при одном проходе по элементам хранятся только первые
+     * {@code offset + size + 1} из них, поэтому время выборки растет линейно с числом элементов
+     * и логарифмически с номером страницы.
+     *
+     * @param items Все элементы
+     * @param filter Условие поиска
+     * @param order Порядок элементов
+     * @param pageable Номер и размер страницы
+     * @param <T> Тип элементов
+     * @return Страница элементов с признаком наличия следующей страницы
+     */
+    public static <T> Slice<T> slice(List<T> items, Predicate<T> filter, Comparator<T> order, Pageable pageable) {
+        long limit = pageable.getOffset() + pageable.getPageSize() + 1L;
+        // Куча с наибольшим из отобранных элементов в вершине
+        PriorityQueue<T> top = new PriorityQueue<>(order.reversed());
+        for (T item : items) {
+            if (!filter.test(item)) {
+                continue;
+            }
+            if (top.size() < limit) {
+                top.add(item);
+            } else if (order.compare(item, top.peek()) < 0) {
+                top.poll();
+                top.add(item);
+            }
+        }
+        List<T> selected = new ArrayList<>(top);
+        selected.sort(order);
+        List<T> page = pageable.getOffset() < selected.size()
+                ? selected.subList((int) pageable.getOffset(), selected.size()) : List.of();
+        boolean hasNext = page.size() > pageable.getPageSize();
+        return new SliceImpl<>(hasNext ? page.subList(0, pageable.getPageSize()) : page, pageable, hasNext);
+    }
+}
@@ -0,0 +1,168 @@
+package com.psu.vet_clinic.web;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.psu.vet_clinic.exception.IdempotencyKeyReusedException;
+import com.psu.vet_clinic.tenant.TenantContext;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Component;
+
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.function.Supplier;
+
+/**
+ * Хранилище ответов для запросов с заголовком {@code Idempotency-Key}.
+ *
+ * <p>Первый запрос с данным ключом выполняется, и его ответ сохраняется; повторы с тем же ключом
+ * получают сохраненный ответ без повторной записи в базу данных. Одновременные повторы ожидают
+ * завершения первого запроса. Если запрос завершился ошибкой, ключ освобождается и повтор
+ * выполняется заново.</p>
+ *
+ * <p>Вместе с ответом сохраняется хеш SHA-256 тела запроса: повтор ключа с другим телом
+ * отклоняется с 422 (Unprocessable Entity), а не получает ответ на чужой запрос.</p>
+ *
+ * <p>Ключи разных клиник не пересекаются.</p>
+ *
+ * <p>Хранилище ограничено по размеру и времени жизни ключей: самые старые ключи вытесняются.</p>
+ */
+@Component
+public class IdempotencyStore {
+
+    /**
+     * Сохраненный (или выполняемый) ответ, хеш тела запроса и момент создания.
+     *
+     * @param response Ответ на первый запрос
+     * @param requestHash Хеш SHA-256 тела первого запроса
+     * @param createdAt Момент создания в наносекундах
+     */
+    private record Entry(CompletableFuture<ResponseEntity<?>> response, byte[] requestHash, long createdAt) {
+    }
+
+    private final ObjectMapper objectMapper;
+
+    private final int maxEntries;
+    private final long ttlNanos;
+
+    /**
+     * Ответы по ключу «клиника область ключ» в порядке создания
+     */
+    private final LinkedHashMap<String, Entry> entries = new LinkedHashMap<>();
+
+    /**
+     * Конструктор с настройками хранилища.
+     *
+     * @param objectMapper ObjectMapper для вычисления хеша тела запроса
+     * @param maxEntries Максимальное количество хранимых ключей
+     * @param ttlSeconds Время жизни ключа в секундах
+     */
+    public IdempotencyStore(ObjectMapper objectMapper,
+                            @Value("${vet-clinic.idempotency.max-entries:10000}") int maxEntries,
+                            @Value("${vet-clinic.idempotency.ttl-seconds:86400}") long ttlSeconds) {
+        this.objectMapper = objectMapper;
+        this.maxEntries = maxEntries;
+        this.ttlNanos = ttlSeconds * 1_000_000_000L;
+    }
+
+    /**
+     * Проверяет, указан ли ключ идемпотентности, то есть будет ли ответ сохранен.
+     * Ответ, который будет сохранен, может быть отправлен повторно после закрытия сессии Hibernate,
+     * поэтому ленивые ссылки в нем нужно инициализировать заранее.
+     *
+     * @param key Значение заголовка Idempotency-Key (может быть null)
+     * @return true, если ключ указан
+     */
+    public static boolean isPresent(String key) {
+        return key != null && !key.isBlank();
+    }
+
+    /**
+     * Выполняет действие не более одного раза для данного ключа.
+     * Если ключ не указан, действие выполняется без сохранения ответа.
+     *
+     * @param scope Область действия ключа (например, "POST /animals")
+     * @param key Значение заголовка Idempotency-Key (может быть null)
+     * @param request Тело запроса (до выполнения действия, которое может его изменить)
+     * @param action Действие, формирующее ответ
+     * @param <T> Тип тела ответа
+     * @return Ответ на первый запрос с данным ключом
+     * @throws IdempotencyKeyReusedException Если ключ уже использован с другим телом запроса
+     */
+    @SuppressWarnings("unchecked")
+    public <T> ResponseEntity<T> execute(String scope, String key, Object request,
+                                     Supplier<ResponseEntity<T>> action) {
+        if (!isPresent(key)) {
+            return action.get();
+        }
+
+        String id = TenantContext.currentClinicId() + " " + scope + " " + key;
+        byte[] requestHash = hash(request);
+        CompletableFuture<ResponseEntity<?>> mine = new CompletableFuture<>();
+        Entry existing;
+        synchronized (entries) {
+            evict(System.nanoTime());
+            existing = entries.get(id);
+            if (existing == null) {
+                entries.put(id, new Entry(mine, requestHash, System.nanoTime()));
+            }
+        }
+
+        if (existing != null) {
+            if (!MessageDigest.isEqual(existing.requestHash(), requestHash)) {
+                throw new IdempotencyKeyReusedException(
+                        "Idempotency-Key " + key + " was already used with a different request body");
+            }
+            try {
+                return (ResponseEntity<T>) existing.response().join();
+            } catch (CompletionException ex) {
+                // Первый запрос завершился ошибкой — ключ уже освобожден, выполняем заново
+                return execute(scope, key, request, action);
+            }
+        }
+
+        try {
+            ResponseEntity<T> response = action.get();
+            mine.complete(response);
+            return response;
+        } catch (RuntimeException ex) {
+            synchronized (entries) {
+                entries.remove(id);
+            }
+            mine.completeExceptionally(ex);
+            throw ex;
+        }
+    }
+
+    /**
+     * Вычисляет хеш SHA-256 JSON-представления тела запроса.
+     */
+    private byte[] hash(Object request) {
+        try {
+            return MessageDigest.getInstance("SHA-256").digest(objectMapper.writeValueAsBytes(request));
+        } catch (JsonProcessingException | NoSuchAlgorithmException ex) {
+            throw new IllegalStateException("Cannot hash request body", ex);
+        }
+    }
+
+    /**
+     * Удаляет просроченные и лишние ключи. Вызывается под блокировкой.
+     *
+     * @param now Текущий момент в наносекундах
+     */
+    private void evict(long now) {
+        Iterator<Map.Entry<String, Entry>> it = entries.entrySet().iterator();
+        while (it.hasNext()) {
+            Entry entry = it.next().getValue();
+            if (entries.size() < maxEntries && now - entry.createdAt() < ttlNanos) {
+                break;
+            }
+            it.remove();
+        }
+    }
+}
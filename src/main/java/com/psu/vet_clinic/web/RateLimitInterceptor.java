@@ -0,0 +1,210 @@
+package com.psu.vet_clinic.web;
+
+import com.psu.vet_clinic.config.ReplicaAwareDataSource;
+import com.psu.vet_clinic.exception.ServiceOverloadedException;
+import com.psu.vet_clinic.exception.TooManyRequestsException;
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.HikariPoolMXBean;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.jdbc.DataSourceUnwrapper;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.HandlerInterceptor;
+import org.springframework.web.servlet.HandlerMapping;
+
+import javax.sql.DataSource;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Ограничитель нагрузки на REST API.
+ *
+ * <p>Для каждой пары «клиент + эндпоинт» действует корзина токенов; при ее исчерпании
+ * возвращается 429 (Too Many Requests). Клиент определяется по IP-адресу; по ключу API из заголовка —
+ * только если ключ входит в список известных ключей, иначе сменой заголовка можно было бы получать
+ * новую корзину на каждый запрос.</p>
+ *
+ * <p>Число корзин ограничено: пока периодическая очистка не освободит место, новые клиенты
+ * делят общую корзину эндпоинта.</p>
+ *
+ * <p>Тяжелые эндпоинты со списками дополнительно ограничены по числу одновременных запросов
+ * и отклоняются с 503 (Service Unavailable), если насыщен пул соединений, из которого
+ * обслуживаются чтения (пул реплики, пока она используется для чтения, иначе пул основной базы данных),
+ * чтобы интерактивные запросы не ждали за выгрузками.</p>
+ *
+ * <p>Метрика {@code http.server.requests.throttled} учитывает отклоненные запросы
+ * с тегами {@code reason} и {@code endpoint}.</p>
+ */
+@Component
+public class RateLimitInterceptor implements HandlerInterceptor {
+
+    private static final String PERMIT_ATTRIBUTE = RateLimitInterceptor.class.getName() + ".permit";
+
+    private final MeterRegistry meterRegistry;
+    private final HikariDataSource hikari;
+    private final ReplicaAwareDataSource readDataSource;
+    private final HikariDataSource replicaHikari;
+
+    private final boolean enabled;
+    private final double requestsPerSecond;
+    private final double burst;
+    private final String clientHeader;
+    private final Set<String> apiKeys;
+    private final int maxBuckets;
+    private final Set<String> expensiveEndpoints;
+    private final int maxPendingConnections;
+
+    /**
+     * Корзины токенов по ключу «клиент эндпоинт»
+     */
+    private final Map<String, TokenBucket> buckets = new ConcurrentHashMap<>();
+
+    /**
+     * Общие корзины эндпоинтов для клиентов, которым не хватило места в {@link #buckets}
+     */
+    private final Map<String, TokenBucket> overflowBuckets = new ConcurrentHashMap<>();
+
+    /**
+     * Ограничитель одновременных запросов к тяжелым эндпоинтам
+     */
+    private final Semaphore expensivePermits;
+
+    /**
+     * Конструктор с внедрением зависимостей и настроек.
+     *
+     * @param meterRegistry Реестр метрик
+     * @param dataSource Источник данных (используется для проверки насыщения пула Hikari основной базы данных)
+     * @param readDataSource Источник соединений для читающих транзакций, если настроена реплика
+     * @param enabled Включено ли ограничение нагрузки
+     * @param requestsPerSecond Допустимая частота запросов клиента к одному эндпоинту
+     * @param burst Допустимый всплеск запросов
+     * @param clientHeader Заголовок с ключом API клиента
+     * @param apiKeys Известные ключи API, по которым клиент определяется вместо IP-адреса
+     * @param maxBuckets Максимальное число корзин клиентов
+     * @param expensiveEndpoints Тяжелые эндпоинты в формате "МЕТОД /шаблон"
+     * @param maxConcurrentExpensive Максимальное число одновременных запросов к тяжелым эндпоинтам
+     * @param maxPendingConnections Число потоков, ожидающих соединения, начиная с которого пул считается насыщенным
+     */
+    public RateLimitInterceptor(
+            MeterRegistry meterRegistry,
+            DataSource dataSource,
+            @Qualifier("readDataSource") ObjectProvider<ReplicaAwareDataSource> readDataSource,
+            @Value("${vet-clinic.rate-limit.enabled:true}") boolean enabled,
+            @Value("${vet-clinic.rate-limit.requests-per-second:20}") double requestsPerSecond,
+            @Value("${vet-clinic.rate-limit.burst:40}") double burst,
+            @Value("${vet-clinic.rate-limit.client-header:X-API-Key}") String clientHeader,
+            @Value("${vet-clinic.rate-limit.api-keys:}") Set<String> apiKeys,
+            @Value("${vet-clinic.rate-limit.max-buckets:10000}") int maxBuckets,
+            @Value("${vet-clinic.load-shedding.expensive-endpoints:GET /animals,GET /medical-records,GET /animals.html,GET /medical-records.html}") Set<String> expensiveEndpoints,
+            @Value("${vet-clinic.load-shedding.max-concurrent:4}") int maxConcurrentExpensive,
+            @Value("${vet-clinic.load-shedding.max-pending-connections:1}") int maxPendingConnections) {
+        this.meterRegistry = meterRegistry;
+        this.hikari = DataSourceUnwrapper.unwrap(dataSource, HikariDataSource.class);
+        this.readDataSource = readDataSource.getIfAvailable();
+        this.replicaHikari = this.readDataSource == null ? null
+                : DataSourceUnwrapper.unwrap(this.readDataSource.getTargetDataSource(), HikariDataSource.class);
+        this.enabled = enabled;
+        this.requestsPerSecond = requestsPerSecond;
+        this.burst = burst;
+        this.clientHeader = clientHeader;
+        this.apiKeys = apiKeys;
+        this.maxBuckets = maxBuckets;
+        this.expensiveEndpoints = expensiveEndpoints;
+        this.maxPendingConnections = maxPendingConnections;
+        this.expensivePermits = new Semaphore(maxConcurrentExpensive);
+    }
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        if (!enabled || !(handler instanceof HandlerMethod)) {
+            return true;
+        }
+
+        String endpoint = request.getMethod() + " "
+                + request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+
+        long waitNanos = bucket(client(request) + " " + endpoint, endpoint).tryAcquire();
+        if (waitNanos > 0) {
+            throttled("rate_limit", endpoint);
+            throw new TooManyRequestsException("Rate limit exceeded",
+                    Math.max(1, TimeUnit.NANOSECONDS.toSeconds(waitNanos + 999_999_999)));
+        }
+
+        if (expensiveEndpoints.contains(endpoint)) {
+            if (isPoolSaturated()) {
+                throttled("pool_saturated", endpoint);
+                throw new ServiceOverloadedException("Database is busy, try again later");
+            }
+            if (!expensivePermits.tryAcquire()) {
+                throttled("concurrency", endpoint);
+                throw new ServiceOverloadedException("Too many concurrent list requests, try again later");
+            }
+            request.setAttribute(PERMIT_ATTRIBUTE, Boolean.TRUE);
+        }
+        return true;
+    }
+
+    @Override
+    public void afterCompletion(HttpServletRequest request, HttpServletResponse response,
+                                Object handler, Exception ex) {
+        if (request.getAttribute(PERMIT_ATTRIBUTE) != null) {
+            request.removeAttribute(PERMIT_ATTRIBUTE);
+            expensivePermits.release();
+        }
+    }
+
+    /**
+     * Удаляет заполненные корзины неактивных клиентов, чтобы число корзин не росло неограниченно.
+     */
+    @Scheduled(fixedDelayString = "${vet-clinic.rate-limit.evict-interval-ms:60000}")
+    public void evictIdleBuckets() {
+        buckets.values().removeIf(TokenBucket::isFull);
+        overflowBuckets.values().removeIf(TokenBucket::isFull);
+    }
+
+    /**
+     * Возвращает корзину клиента, а если лимит корзин исчерпан — общую корзину эндпоинта.
+     */
+    private TokenBucket bucket(String key, String endpoint) {
+        TokenBucket bucket = buckets.get(key);
+        if (bucket != null) {
+            return bucket;
+        }
+        if (buckets.size() >= maxBuckets) {
+            return overflowBuckets.computeIfAbsent(endpoint, k -> new TokenBucket(burst, requestsPerSecond));
+        }
+        return buckets.computeIfAbsent(key, k -> new TokenBucket(burst, requestsPerSecond));
+    }
+
+    private String client(HttpServletRequest request) {
+        String apiKey = request.getHeader(clientHeader);
+        return apiKey != null && apiKeys.contains(apiKey) ? "key:" + apiKey : request.getRemoteAddr();
+    }
+
+    /**
+     * Проверяет пул, из которого будут выданы соединения для чтения: тяжелые эндпоинты — списки,
+     * которые читаются в транзакциях только для чтения.
+     */
+    private boolean isPoolSaturated() {
+        HikariDataSource readPool = readDataSource != null && readDataSource.isReplicaUsable() ? replicaHikari : hikari;
+        if (readPool == null) {
+            return false;
+        }
+        HikariPoolMXBean pool = readPool.getHikariPoolMXBean();
+        return pool != null && pool.getThreadsAwaitingConnection() >= maxPendingConnections;
+    }
+
+    private void throttled(String reason, String endpoint) {
+        meterRegistry.counter("http.server.requests.throttled", "reason", reason, "endpoint", endpoint)
+                .increment();
+    }
+}
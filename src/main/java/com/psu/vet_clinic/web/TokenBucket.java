@@ -0,0 +1,56 @@
+package com.psu.vet_clinic.web;
+
+/**
+ * Корзина токенов для ограничения частоты запросов.
+ * Токены пополняются непрерывно с заданной скоростью до максимального объема;
+ * каждый запрос расходует один токен.
+ */
+class TokenBucket {
+
+    private final double capacity;
+    private final double tokensPerNano;
+    private double tokens;
+    private long lastRefill;
+
+    /**
+     * Создает заполненную корзину.
+     *
+     * @param capacity Максимальное количество токенов (допустимый всплеск)
+     * @param tokensPerSecond Скорость пополнения в токенах в секунду
+     */
+    TokenBucket(double capacity, double tokensPerSecond) {
+        this.capacity = capacity;
+        this.tokensPerNano = tokensPerSecond / 1_000_000_000d;
+        this.tokens = capacity;
+        this.lastRefill = System.nanoTime();
+    }
+
+    /**
+     * Пытается взять один токен.
+     *
+     * @return 0, если токен получен, иначе время в наносекундах до появления следующего токена
+     */
+    synchronized long tryAcquire() {
+        refill(System.nanoTime());
+        if (tokens >= 1) {
+            tokens -= 1;
+            return 0;
+        }
+        return (long) Math.ceil((1 - tokens) / tokensPerNano);
+    }
+
+    /**
+     * Проверяет, что корзина снова заполнена, то есть удаление не изменит поведения ограничителя.
+     *
+     * @return true, если корзина заполнена
+     */
+    synchronized boolean isFull() {
+        refill(System.nanoTime());
+        return tokens >= capacity;
+    }
+
+    private void refill(long now) {
+        tokens = Math.min(capacity, tokens + (now - lastRefill) * tokensPerNano);
+        lastRefill = now;
+    }
+}
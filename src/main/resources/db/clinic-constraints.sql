@@ -0,0 +1,51 @@
+-- Ограничения схемы, которые не задаются аннотациями JPA или остались от схемы до разделения данных по клиникам.
+-- Выполняется при каждом запуске после обновления схемы Hibernate (ddl-auto=update) и не изменяет
+-- уже приведенную схему. Выражения разделяются строкой @@ (см. spring.sql.init.separator).
+
+-- Уникальные ключи без clinic_id запрещали одинаковые названия и клички в разных клиниках;
+-- ddl-auto=update создает новые ключи uk_*_clinic_*, но не удаляет прежние
+alter table if exists animal_types drop constraint if exists uk_animal_types_name
+@@
+alter table if exists animals drop constraint if exists uk_animals_name_breed_type
+@@
+
+-- Медицинская запись и запись на прием могут ссылаться только на животное своей клиники.
+-- clinic_id заполняется Hibernate из текущей клиники, поэтому составной внешний ключ
+-- не входит в отображение связей и создается здесь
+create unique index if not exists uk_animals_id_clinic on animals (id, clinic_id)
+@@
+do $$
+begin
+    if not exists (select 1 from pg_constraint where conname = 'fk_medical_records_clinic_animal') then
+        alter table medical_records add constraint fk_medical_records_clinic_animal
+            foreign key (animals_id, clinic_id) references animals (id, clinic_id);
+    end if;
+    if not exists (select 1 from pg_constraint where conname = 'fk_appointments_clinic_animal') then
+        alter table appointments add constraint fk_appointments_clinic_animal
+            foreign key (animals_id, clinic_id) references animals (id, clinic_id);
+    end if;
+end
+$$
+@@
+
+-- Напоминание хранится одно на клинику, животное, вид и процедуру; прежний ключ включал срок,
+-- и при переносе срока оставалась устаревшая строка. Из устаревших строк остается последняя по сроку
+delete from reminders r
+using reminders newer
+where newer.clinic_id = r.clinic_id
+  and newer.animals_id = r.animals_id
+  and newer.kind = r.kind
+  and newer.procedure_type = r.procedure_type
+  and (newer.due_date, newer.id) > (r.due_date, r.id)
+@@
+alter table if exists reminders drop constraint if exists uk_reminders_clinic_animal_kind_procedure_due
+@@
+do $$
+begin
+    if not exists (select 1 from pg_constraint where conname = 'uk_reminders_clinic_animal_kind_procedure') then
+        alter table reminders add constraint uk_reminders_clinic_animal_kind_procedure
+            unique (clinic_id, animals_id, kind, procedure_type);
+    end if;
+end
+$$
+@@
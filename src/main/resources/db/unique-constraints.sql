@@ -0,0 +1,39 @@
+-- Уникальные ключи типов животных и животных (AnimalType.UNIQUE_NAME, Animal.UNIQUE_NAME_BREED_TYPE).
+-- ddl-auto=update не создает ключ, если в таблице уже есть дубликаты: Hibernate только пишет ошибку
+-- в журнал, и проверка дубликатов перестает работать. Поэтому, пока ключа нет, дубликаты объединяются
+-- в строку с наименьшим id (ссылки на остальные строки переводятся на нее), после чего ключ создается.
+-- Если ключ создать не удалось, скрипт завершается ошибкой и приложение не запускается.
+-- Выражения разделяются строкой @@ (см. spring.sql.init.separator).
+
+do $$
+begin
+    if not exists (select 1 from pg_constraint where conname = 'uk_animal_types_clinic_name') then
+        update animals a set animal_types_id = d.keep_id
+        from (select id, min(id) over (partition by clinic_id, name) as keep_id from animal_types) d
+        where a.animal_types_id = d.id and d.id <> d.keep_id;
+        delete from animal_types t using animal_types keep
+        where keep.clinic_id = t.clinic_id and keep.name = t.name and keep.id < t.id;
+        alter table animal_types add constraint uk_animal_types_clinic_name unique (clinic_id, name);
+    end if;
+end
+$$
+@@
+do $$
+begin
+    if not exists (select 1 from pg_constraint where conname = 'uk_animals_clinic_name_breed_type') then
+        create temporary table animal_duplicates on commit drop as
+        select id, keep_id
+        from (select id, min(id) over (partition by clinic_id, name, breed, animal_types_id) as keep_id
+              from animals) d
+        where id <> keep_id;
+        update medical_records r set animals_id = d.keep_id from animal_duplicates d where r.animals_id = d.id;
+        update appointments p set animals_id = d.keep_id from animal_duplicates d where p.animals_id = d.id;
+        -- Напоминания пересчитываются задачей напоминаний, поэтому напоминания дубликатов удаляются
+        delete from reminders r using animal_duplicates d where r.animals_id = d.id;
+        delete from animals a using animal_duplicates d where a.id = d.id;
+        alter table animals add constraint uk_animals_clinic_name_breed_type
+            unique (clinic_id, name, breed, animal_types_id);
+    end if;
+end
+$$
+@@
@@ -0,0 +1,52 @@
+// Общие функции страниц: отправка изменений в REST API и вывод ошибок сервера.
+// Таблицы формируются на сервере, поэтому после успешного изменения страница перезагружается.
+
+function handleResponse(response) {
+    if (response.ok) {
+        return response.json().catch(() => null);
+    }
+
+    return response.text().then(text => {
+        throw new Error(text);
+    });
+}
+
+function showBackendError(errorText) {
+    if (!errorText) {
+        alert('Ошибка запроса');
+        return;
+    }
+
+    const messages = errorText
+        .split(';')
+        .map(e => e.trim())
+        .map(e => {
+            const idx = e.indexOf(':');
+            return idx !== -1 ? e.slice(idx + 1).trim() : e;
+        })
+        .filter(e => e.length > 0);
+
+    alert(messages.join('\n'));
+}
+
+function sendAndReload(method, url, data) {
+    const options = {method: method};
+    if (data !== undefined) {
+        options.headers = {'Content-Type': 'application/json'};
+        options.body = JSON.stringify(data);
+    }
+
+    fetch(url, options)
+        .then(handleResponse)
+        .then(() => location.reload())
+        .catch(err => showBackendError(err.message));
+}
+
+function showForm(id) {
+    document.getElementById(id).style.display = 'block';
+    window.scrollTo(0, document.body.scrollHeight);
+}
+
+function hideForm(id) {
+    document.getElementById(id).style.display = 'none';
+}
@@ -0,0 +1,123 @@
+package com.psu.vet_clinic.config;
+
+import com.zaxxer.hikari.HikariConfigMXBean;
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.HikariPoolMXBean;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Проверяет рекомендации по размеру пула соединений на смоделированной нагрузке:
+ * рост при долгом ожидании соединений, уменьшение при простое и границы min/max.
+ */
+class ConnectionPoolAdvisorTests {
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    private final HikariDataSource hikari = mock(HikariDataSource.class);
+    private final HikariPoolMXBean pool = mock(HikariPoolMXBean.class);
+    private final HikariConfigMXBean config = mock(HikariConfigMXBean.class);
+    private Timer acquire;
+
+    @BeforeEach
+    void setUp() {
+        when(hikari.getPoolName()).thenReturn("primary");
+        when(hikari.getMaximumPoolSize()).thenReturn(10);
+        when(hikari.getHikariPoolMXBean()).thenReturn(pool);
+        when(hikari.getHikariConfigMXBean()).thenReturn(config);
+        when(config.getMaximumPoolSize()).thenReturn(10);
+        when(config.getMinimumIdle()).thenReturn(10);
+        acquire = registry.timer("hikaricp.connections.acquire", "pool", "primary");
+    }
+
+    @Test
+    void slowAcquisitionWithWaitingThreadsGrowsPool() {
+        ConnectionPoolAdvisor advisor = advisor("adjust");
+        load(100, Duration.ofMillis(20), 6, 0);
+
+        advisor.evaluate();
+
+        assertThat(recommendedSize()).isEqualTo(12);
+        verify(config).setMaximumPoolSize(12);
+    }
+
+    @Test
+    void recommendModeDoesNotChangePool() {
+        ConnectionPoolAdvisor advisor = advisor("recommend");
+        load(100, Duration.ofMillis(20), 6, 0);
+
+        advisor.evaluate();
+
+        assertThat(recommendedSize()).isEqualTo(12);
+        verify(config, never()).setMaximumPoolSize(anyInt());
+    }
+
+    @Test
+    void idlePoolShrinksDownToMinimum() {
+        ConnectionPoolAdvisor advisor = advisor("adjust");
+        load(100, Duration.ofMillis(1), 0, 8);
+
+        advisor.evaluate();
+        assertThat(recommendedSize()).isEqualTo(8);
+        verify(config).setMaximumPoolSize(8);
+        verify(config).setMinimumIdle(8);
+
+        when(config.getMaximumPoolSize()).thenReturn(9);
+        advisor.evaluate();
+        // Шаг 2 от 9 дал бы 7, но минимальный размер — 8
+        assertThat(recommendedSize()).isEqualTo(8);
+    }
+
+    @Test
+    void onlyAcquisitionsOfLastIntervalAreConsidered() {
+        ConnectionPoolAdvisor advisor = advisor("recommend");
+        load(100, Duration.ofMillis(20), 6, 0);
+        advisor.evaluate();
+
+        // Новых медленных получений нет: ожидающие потоки без задержки не увеличивают пул
+        load(100, Duration.ofMillis(1), 6, 0);
+        advisor.evaluate();
+
+        assertThat(recommendedSize()).isEqualTo(10);
+    }
+
+    @Test
+    void offModeKeepsCurrentSize() {
+        ConnectionPoolAdvisor advisor = advisor("off");
+        load(100, Duration.ofMillis(20), 6, 0);
+
+        advisor.evaluate();
+
+        assertThat(recommendedSize()).isEqualTo(10);
+        verify(config, never()).setMaximumPoolSize(anyInt());
+    }
+
+    private ConnectionPoolAdvisor advisor(String mode) {
+        return new ConnectionPoolAdvisor(hikari, registry, mode, 5, 8, 12, 2);
+    }
+
+    /**
+     * Моделирует интервал нагрузки: получения соединений с заданной задержкой и состояние пула.
+     */
+    private void load(int acquisitions, Duration acquireTime, int waiting, int idle) {
+        for (int i = 0; i < acquisitions; i++) {
+            acquire.record(acquireTime);
+        }
+        when(pool.getThreadsAwaitingConnection()).thenReturn(waiting);
+        when(pool.getIdleConnections()).thenReturn(idle);
+    }
+
+    private double recommendedSize() {
+        return registry.get("hikaricp.pool.recommended.size").gauge().value();
+    }
+}
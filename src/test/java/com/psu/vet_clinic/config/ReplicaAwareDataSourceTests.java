@@ -0,0 +1,52 @@
+package com.psu.vet_clinic.config;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Проверяет выбор источника соединений для чтения по результату проверки отставания реплики.
+ */
+@SpringBootTest(properties = {
+        "vet-clinic.outbox.poller.enabled=false",
+        "vet-clinic.reminders.enabled=false"
+})
+class ReplicaAwareDataSourceTests {
+
+    @Autowired
+    private DataSource dataSource;
+
+    @Test
+    void serverThatIsNotInRecoveryHasNoLag() throws SQLException {
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        // Отставание 0 допускается даже при нулевом пороге
+        ReplicaAwareDataSource routing = new ReplicaAwareDataSource(dataSource, mock(DataSource.class), 0, registry);
+
+        routing.checkReplica();
+        try (Connection ignored = routing.getConnection()) {
+            assertThat(registry.counter("datasource.routing.reads", "target", "replica").count()).isOne();
+        }
+    }
+
+    @Test
+    void unavailableReplicaRoutesReadsToPrimary() throws SQLException {
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        DataSource replica = mock(DataSource.class);
+        when(replica.getConnection()).thenThrow(new SQLException("connection refused"));
+        ReplicaAwareDataSource routing = new ReplicaAwareDataSource(replica, dataSource, 5, registry);
+
+        routing.checkReplica();
+        try (Connection ignored = routing.getConnection()) {
+            assertThat(registry.counter("datasource.routing.reads", "target", "primary").count()).isOne();
+        }
+    }
+}
@@ -0,0 +1,49 @@
+package com.psu.vet_clinic.config;
+
+import com.psu.vet_clinic.entity.AnimalType;
+import com.psu.vet_clinic.service.AnimalTypeService;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Проверяет маршрутизацию запросов сервисов при настроенной реплике: чтения в транзакциях только для чтения
+ * получают соединения с реплики, записи — с основной базы данных.
+ * В роли реплики выступает та же база данных.
+ */
+@SpringBootTest(properties = {
+        "vet-clinic.outbox.poller.enabled=false",
+        "vet-clinic.reminders.enabled=false",
+        "vet-clinic.datasource.replica.jdbc-url=${spring.datasource.url}",
+        "vet-clinic.datasource.replica.username=${spring.datasource.username}",
+        "vet-clinic.datasource.replica.password=${spring.datasource.password}"
+})
+class ReplicaRoutingTests {
+
+    @Autowired
+    private AnimalTypeService animalTypeService;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Test
+    void readOnlyServiceCallsUseReplicaAndWritesUsePrimary() {
+        double before = replicaReads();
+        animalTypeService.findAll();
+        assertThat(replicaReads()).isEqualTo(before + 1);
+
+        AnimalType type = animalTypeService.save(new AnimalType("тип " + UUID.randomUUID().toString().substring(0, 8), 10));
+        animalTypeService.delete(type.getId());
+        assertThat(replicaReads()).isEqualTo(before + 1);
+        assertThat(meterRegistry.counter("datasource.routing.reads", "target", "primary").count()).isZero();
+    }
+
+    private double replicaReads() {
+        return meterRegistry.counter("datasource.routing.reads", "target", "replica").count();
+    }
+}
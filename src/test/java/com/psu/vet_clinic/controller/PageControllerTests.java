@@ -0,0 +1,61 @@
+package com.psu.vet_clinic.controller;
+
+import com.psu.vet_clinic.web.RateLimitInterceptor;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.model;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Проверяет, что неизвестное поле сортировки на страницах веб-интерфейса заменяется полем по умолчанию,
+ * и что страницы обслуживаются с ограничением нагрузки.
+ */
+@SpringBootTest(properties = {
+        "vet-clinic.outbox.poller.enabled=false",
+        "vet-clinic.reminders.enabled=false",
+        "vet-clinic.read-model.enabled=false",
+        "vet-clinic.medical-records.write-behind.enabled=false"
+})
+@AutoConfigureMockMvc
+class PageControllerTests {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Test
+    void unknownSortFieldFallsBackToDefault() throws Exception {
+        mockMvc.perform(get("/animals.html").param("sort", "color"))
+                .andExpect(status().isOk())
+                .andExpect(model().attribute("sort", "name"));
+        mockMvc.perform(get("/animal-types.html").param("sort", "name; drop table animals"))
+                .andExpect(status().isOk())
+                .andExpect(model().attribute("sort", "name"));
+        mockMvc.perform(get("/medical-records.html").param("sort", "animal.name").param("dir", "asc"))
+                .andExpect(status().isOk())
+                .andExpect(model().attribute("sort", "visitDate"));
+    }
+
+    @Test
+    void allowedSortFieldIsKept() throws Exception {
+        mockMvc.perform(get("/animals.html").param("sort", "age").param("dir", "desc"))
+                .andExpect(status().isOk())
+                .andExpect(model().attribute("sort", "age"))
+                .andExpect(model().attribute("dir", "desc"));
+    }
+
+    @Test
+    void pagesAreRateLimited() throws Exception {
+        for (String page : new String[]{"/animals.html", "/animal-types.html", "/medical-records.html"}) {
+            MvcResult result = mockMvc.perform(get(page)).andExpect(status().isOk()).andReturn();
+            assertThat(result.getInterceptors()).hasAtLeastOneElementOfType(RateLimitInterceptor.class);
+        }
+    }
+}
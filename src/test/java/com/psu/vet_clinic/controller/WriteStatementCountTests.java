@@ -0,0 +1,145 @@
+package com.psu.vet_clinic.controller;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.RequestBuilder;
+
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Проверяет количество SQL-выражений, выполняемых каждым изменяющим эндпоинтом.
+ * Запись выполняется одним выражением (INSERT или UPDATE ... WHERE id = ?) без предварительной
+ * проверки существования; второе выражение — вставка события outbox в той же транзакции.
+ * Фоновые задачи, обращающиеся к базе данных, отключены, чтобы статистика Hibernate
+ * учитывала только выражения проверяемого запроса.
+ */
+@SpringBootTest(properties = {
+        "vet-clinic.outbox.poller.enabled=false",
+        "vet-clinic.reminders.enabled=false",
+        "vet-clinic.read-model.enabled=false",
+        "vet-clinic.medical-records.write-behind.enabled=false"
+})
+@AutoConfigureMockMvc
+class WriteStatementCountTests {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private Statistics statistics;
+
+    @BeforeEach
+    void setUp() {
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.setStatisticsEnabled(true);
+    }
+
+    @Test
+    void writeEndpointsUseOneStatementPlusOutboxInsert() throws Exception {
+        String suffix = UUID.randomUUID().toString().substring(0, 8);
+
+        // INSERT типа + INSERT outbox
+        JsonNode type = perform(post("/animal-types").contentType(MediaType.APPLICATION_JSON)
+                .content("{\"name\": \"тип " + suffix + "\", \"averageLifespan\": 12}"), 2);
+        int typeId = type.get("id").asInt();
+
+        // UPDATE ... WHERE id = ? + INSERT outbox
+        perform(put("/animal-types/" + typeId).contentType(MediaType.APPLICATION_JSON)
+                .content("{\"name\": \"тип " + suffix + "\", \"averageLifespan\": 14}"), 2);
+
+        // SELECT типа + INSERT животного + INSERT outbox
+        JsonNode animal = perform(post("/animals").contentType(MediaType.APPLICATION_JSON)
+                .content(animalJson(suffix, 3, typeId)), 3);
+        int animalId = animal.get("id").asInt();
+
+        // SELECT типа + UPDATE ... WHERE id = ? + INSERT outbox
+        perform(put("/animals/" + animalId).contentType(MediaType.APPLICATION_JSON)
+                .content(animalJson(suffix, 4, typeId)), 3);
+
+        // INSERT записи со ссылкой на животное + INSERT outbox + SELECT животного для ответа
+        JsonNode record = perform(post("/medical-records").contentType(MediaType.APPLICATION_JSON)
+                .content(recordJson("осмотр", animalId)), 3);
+        int recordId = record.get("id").asInt();
+
+        // UPDATE ... WHERE id = ? + SELECT обновленной записи для ответа + INSERT outbox
+        perform(put("/medical-records/" + recordId).contentType(MediaType.APPLICATION_JSON)
+                .content(recordJson("вакцинация", animalId)), 3);
+
+        // SELECT + DELETE + INSERT outbox
+        perform(delete("/medical-records/" + recordId), 3);
+        perform(delete("/animals/" + animalId), 3);
+        perform(delete("/animal-types/" + typeId), 3);
+    }
+
+    @Test
+    void medicalRecordForMissingAnimalIsRejectedByForeignKey() throws Exception {
+        statistics.clear();
+        mockMvc.perform(post("/medical-records").contentType(MediaType.APPLICATION_JSON)
+                        .content(recordJson("осмотр", Integer.MAX_VALUE)))
+                .andExpect(status().isNotFound());
+        // Существование животного не проверяется отдельным запросом: ошибку возвращает внешний ключ при вставке
+        assertThat(statistics.getPrepareStatementCount()).isLessThanOrEqualTo(1);
+    }
+
+    @Test
+    void deletingMissingRowReturns404WithoutOutboxEvent() throws Exception {
+        for (String path : new String[]{"/animals/", "/animal-types/", "/medical-records/"}) {
+            statistics.clear();
+            mockMvc.perform(delete(path + Integer.MAX_VALUE))
+                    .andExpect(status().isNotFound());
+            // Только поиск удаляемой строки: событие DELETED не записывается
+            assertThat(statistics.getPrepareStatementCount()).as(path).isEqualTo(1);
+            assertThat(statistics.getEntityInsertCount()).as(path).isZero();
+        }
+    }
+
+    /**
+     * Выполняет запрос и проверяет, что он завершился успешно и выполнил не больше указанного числа выражений.
+     *
+     * @return Тело ответа или null, если оно пустое
+     */
+    private JsonNode perform(RequestBuilder request, long maxStatements) throws Exception {
+        statistics.clear();
+        MvcResult result = mockMvc.perform(request)
+                .andExpect(status().isOk())
+                .andReturn();
+        assertThat(statistics.getPrepareStatementCount())
+                .as("SQL statements for %s %s", result.getRequest().getMethod(), result.getRequest().getRequestURI())
+                .isLessThanOrEqualTo(maxStatements);
+        String body = result.getResponse().getContentAsString();
+        return body.isEmpty() ? null : objectMapper.readTree(body);
+    }
+
+    private static String animalJson(String suffix, int age, int typeId) {
+        return "{\"name\": \"кличка " + suffix + "\", \"age\": " + age + ", \"breed\": \"порода\", "
+                + "\"gender\": \"женский\", \"weight\": 4.5, \"color\": \"серый\", "
+                + "\"animalType\": {\"id\": " + typeId + "}}";
+    }
+
+    private static String recordJson(String procedure, int animalId) {
+        return "{\"visitDate\": \"2026-01-15\", \"procedureType\": \"" + procedure + "\", "
+                + "\"diagnosis\": \"здоров\", \"animal\": {\"id\": " + animalId + "}}";
+    }
+}
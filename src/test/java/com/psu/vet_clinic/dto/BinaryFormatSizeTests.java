@@ -0,0 +1,106 @@
+package com.psu.vet_clinic.dto;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.psu.vet_clinic.config.BinaryFormatConfig;
+import com.psu.vet_clinic.entity.Animal;
+import com.psu.vet_clinic.entity.MedicalRecord;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.io.IOException;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Сравнивает размер ответов в форматах JSON, CBOR и Smile, время их кодирования и декодирования
+ * и проверяет, что бинарные форматы передают те же данные. Проверяются все списки, которые отдают
+ * эндпоинты: полные списки животных и медицинских записей и их сжатое представление.
+ * ObjectMapper бинарных форматов создаются так же, как в {@link BinaryFormatConfig}.
+ * Размеры и время пишутся в журнал теста.
+ */
+class BinaryFormatSizeTests {
+
+    private static final Logger log = LoggerFactory.getLogger(BinaryFormatSizeTests.class);
+
+    private final BinaryFormatConfig config = new BinaryFormatConfig();
+
+    private final ObjectMapper json = Jackson2ObjectMapperBuilder.json().build();
+    private final ObjectMapper cbor = config.cborHttpMessageConverter(Jackson2ObjectMapperBuilder.json()).getObjectMapper();
+    private final ObjectMapper smile = config.smileHttpMessageConverter(Jackson2ObjectMapperBuilder.json()).getObjectMapper();
+
+    private final List<MedicalRecord> records = ClinicFixtures.records(200, 5);
+    private final List<Animal> animals = ClinicFixtures.animals(records);
+    private final CompactMedicalRecords compactRecords = CompactMedicalRecords.of(records);
+
+    @Test
+    void binaryFormatsAreSmallerThanJson() throws IOException {
+        assertSmallerThanJson("medical records", records);
+        assertSmallerThanJson("animals", animals);
+        assertSmallerThanJson("compact medical records", compactRecords);
+    }
+
+    @Test
+    void binaryFormatsAreNotSlowerThanJson() throws IOException {
+        assertNotSlowerThanJson("medical records", records, new TypeReference<List<MedicalRecord>>() {});
+        assertNotSlowerThanJson("animals", animals, new TypeReference<List<Animal>>() {});
+        assertNotSlowerThanJson("compact medical records", compactRecords, new TypeReference<CompactMedicalRecords>() {});
+    }
+
+    @Test
+    void binaryFormatsRoundTripToTheSameData() throws IOException {
+        assertRoundTrip(records, new TypeReference<List<MedicalRecord>>() {});
+        assertRoundTrip(animals, new TypeReference<List<Animal>>() {});
+        assertRoundTrip(compactRecords, new TypeReference<CompactMedicalRecords>() {});
+    }
+
+    private void assertSmallerThanJson(String name, Object value) throws IOException {
+        byte[] jsonBytes = json.writeValueAsBytes(value);
+        byte[] cborBytes = cbor.writeValueAsBytes(value);
+        byte[] smileBytes = smile.writeValueAsBytes(value);
+
+        log.info("{}: json {} B, cbor {} B, smile {} B", name, jsonBytes.length, cborBytes.length, smileBytes.length);
+        assertThat(cborBytes.length).as(name).isLessThan(jsonBytes.length);
+        // Smile передает повторяющиеся имена полей ссылками на ранее переданные
+        assertThat(smileBytes.length).as(name).isLessThan(cborBytes.length);
+    }
+
+    private <T> void assertNotSlowerThanJson(String name, T value, TypeReference<T> type) throws IOException {
+        byte[] jsonBytes = json.writeValueAsBytes(value);
+        byte[] cborBytes = cbor.writeValueAsBytes(value);
+        byte[] smileBytes = smile.writeValueAsBytes(value);
+
+        // Порядок элементов: json, cbor, smile
+        long[] encode = Timing.medianNanos(
+                () -> json.writeValueAsBytes(value),
+                () -> cbor.writeValueAsBytes(value),
+                () -> smile.writeValueAsBytes(value));
+        long[] decode = Timing.medianNanos(
+                () -> json.readValue(jsonBytes, type),
+                () -> cbor.readValue(cborBytes, type),
+                () -> smile.readValue(smileBytes, type));
+
+        log.info("{}: encode json {} us, cbor {} us, smile {} us; decode json {} us, cbor {} us, smile {} us",
+                name, encode[0] / 1000, encode[1] / 1000, encode[2] / 1000,
+                decode[0] / 1000, decode[1] / 1000, decode[2] / 1000);
+        // Бинарные форматы не экранируют строки и не разбирают числа из текста;
+        // запас в полтора раза покрывает шум замера
+        for (int binary = 1; binary <= 2; binary++) {
+            assertThat(encode[binary]).as(name + " encode").isLessThan(encode[0] * 3 / 2);
+            assertThat(decode[binary]).as(name + " decode").isLessThan(decode[0] * 3 / 2);
+        }
+    }
+
+    private <T> void assertRoundTrip(T value, TypeReference<T> type) throws IOException {
+        var expected = json.readTree(json.writeValueAsBytes(value));
+
+        T fromCbor = cbor.readValue(cbor.writeValueAsBytes(value), type);
+        T fromSmile = smile.readValue(smile.writeValueAsBytes(value), type);
+
+        assertThat(json.readTree(json.writeValueAsBytes(fromCbor))).isEqualTo(expected);
+        assertThat(json.readTree(json.writeValueAsBytes(fromSmile))).isEqualTo(expected);
+    }
+}
@@ -0,0 +1,63 @@
+package com.psu.vet_clinic.dto;
+
+import com.psu.vet_clinic.entity.Animal;
+import com.psu.vet_clinic.entity.AnimalType;
+import com.psu.vet_clinic.entity.MedicalRecord;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Тестовые данные клиники без базы данных: типы животных, животные и их медицинские записи.
+ */
+final class ClinicFixtures {
+
+    private static final String[] TYPES = {"Кошка", "Собака", "Попугай", "Кролик", "Хомяк"};
+    private static final String[] PROCEDURES = {"Осмотр", "Вакцинация", "Стерилизация", "Анализ крови"};
+    private static final String[] DIAGNOSES = {"Здоров", "Отит", "Дерматит", "Гастрит", "Ожирение", "Конъюнктивит"};
+
+    private ClinicFixtures() {}
+
+    /**
+     * Создает медицинские записи для указанного количества животных.
+     *
+     * @param animals Количество животных
+     * @param recordsPerAnimal Количество записей каждого животного
+     * @return Записи с заполненными животными и типами животных
+     */
+    static List<MedicalRecord> records(int animals, int recordsPerAnimal) {
+        List<AnimalType> types = new ArrayList<>();
+        for (int i = 0; i < TYPES.length; i++) {
+            AnimalType type = new AnimalType(TYPES[i], 10 + i);
+            type.setId(i + 1);
+            types.add(type);
+        }
+
+        List<MedicalRecord> records = new ArrayList<>(animals * recordsPerAnimal);
+        int recordId = 1;
+        for (int a = 1; a <= animals; a++) {
+            Animal animal = new Animal("Питомец " + a, a % 15, "Порода " + (a % 7), a % 2 == 0 ? "женский" : "мужской",
+                    BigDecimal.valueOf(350 + a % 500, 2), "Рыжий", types.get(a % types.size()));
+            animal.setId(a);
+            for (int r = 0; r < recordsPerAnimal; r++) {
+                MedicalRecord record = new MedicalRecord(LocalDate.of(2025, 1, 1).plusDays(r * 30L),
+                        PROCEDURES[r % PROCEDURES.length], DIAGNOSES[(a + r) % DIAGNOSES.length], animal);
+                record.setId(recordId++);
+                records.add(record);
+            }
+        }
+        return records;
+    }
+
+    /**
+     * Возвращает животных из медицинских записей без повторов.
+     *
+     * @param records Медицинские записи
+     * @return Животные в порядке первого появления
+     */
+    static List<Animal> animals(List<MedicalRecord> records) {
+        return records.stream().map(MedicalRecord::getAnimal).distinct().toList();
+    }
+}
@@ -0,0 +1,98 @@
+package com.psu.vet_clinic.dto;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.psu.vet_clinic.entity.MedicalRecord;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.List;
+import java.util.zip.GZIPOutputStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Сравнивает размер полного и сжатого ({@code view=compact}) представления списков
+ * без сжатия и со сжатием gzip, которое включено для ответов JSON (встроенный Tomcat не поддерживает Brotli),
+ * а также время сериализации: сборка и сериализация сжатого представления не должны быть
+ * заметно дольше сериализации полного списка.
+ * Размеры и время пишутся в журнал теста.
+ */
+class PayloadSizeTests {
+
+    private static final Logger log = LoggerFactory.getLogger(PayloadSizeTests.class);
+
+    private final ObjectMapper objectMapper = Jackson2ObjectMapperBuilder.json().build();
+
+    private final List<MedicalRecord> records = ClinicFixtures.records(200, 5);
+
+    @Test
+    void compactMedicalRecordsAreSmallerThanFullList() throws IOException {
+        byte[] full = objectMapper.writeValueAsBytes(records);
+        byte[] compact = objectMapper.writeValueAsBytes(CompactMedicalRecords.of(records));
+
+        long[] nanos = Timing.medianNanos(
+                () -> objectMapper.writeValueAsBytes(records),
+                () -> objectMapper.writeValueAsBytes(CompactMedicalRecords.of(records)));
+        long fullNanos = nanos[0];
+        long compactNanos = nanos[1];
+
+        report("medical records", full, compact, fullNanos, compactNanos);
+        // Сборка сжатого вида окупается тем, что сериализуется вдвое меньше данных;
+        // запас в полтора раза покрывает шум замера
+        assertThat(compactNanos).isLessThan(fullNanos * 3 / 2);
+        // Животное и тип повторяются в каждой записи полного списка и передаются один раз в сжатом виде
+        assertThat(compact.length).isLessThan(full.length * 6 / 10);
+        // gzip сам устраняет большую часть повторов, поэтому после сжатия представления почти равны
+        assertThat(gzip(full).length).isLessThan(full.length / 4);
+        assertThat(gzip(compact).length).isLessThan(compact.length / 4);
+    }
+
+    @Test
+    void compactAnimalsAreSmallerThanFullList() throws IOException {
+        var animals = ClinicFixtures.animals(records);
+        byte[] full = objectMapper.writeValueAsBytes(animals);
+        byte[] compact = objectMapper.writeValueAsBytes(CompactAnimals.of(animals));
+
+        long[] nanos = Timing.medianNanos(
+                () -> objectMapper.writeValueAsBytes(animals),
+                () -> objectMapper.writeValueAsBytes(CompactAnimals.of(animals)));
+        long fullNanos = nanos[0];
+        long compactNanos = nanos[1];
+
+        report("animals", full, compact, fullNanos, compactNanos);
+        assertThat(compactNanos).isLessThan(fullNanos * 3 / 2);
+        assertThat(compact.length).isLessThan(full.length);
+        assertThat(gzip(compact).length).isLessThan(compact.length / 4);
+    }
+
+    @Test
+    void compactViewKeepsEveryRecordAndReferencedAnimal() {
+        CompactMedicalRecords compact = CompactMedicalRecords.of(records);
+
+        assertThat(compact.records()).hasSize(records.size());
+        assertThat(compact.animals()).hasSize(200);
+        assertThat(compact.animalTypes()).hasSize(5);
+        assertThat(compact.records()).allSatisfy(row -> assertThat(compact.animals()).containsKey(row.animalId()));
+        assertThat(compact.animals().values())
+                .allSatisfy(animal -> assertThat(compact.animalTypes()).containsKey(animal.animalTypeId()));
+    }
+
+    private static void report(String name, byte[] full, byte[] compact, long fullNanos, long compactNanos)
+            throws IOException {
+        log.info("{}: full {} B (gzip {} B) in {} us, compact {} B (gzip {} B) in {} us",
+                name, full.length, gzip(full).length, fullNanos / 1000,
+                compact.length, gzip(compact).length, compactNanos / 1000);
+    }
+
+    private static byte[] gzip(byte[] data) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (GZIPOutputStream gzip = new GZIPOutputStream(out)) {
+            gzip.write(data);
+        }
+        return out.toByteArray();
+    }
+}
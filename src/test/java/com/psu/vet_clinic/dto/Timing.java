@@ -0,0 +1,55 @@
+package com.psu.vet_clinic.dto;
+
+import java.io.IOException;
+import java.util.Arrays;
+
+/**
+ * Замер времени сериализации в тестах: медиана нескольких запусков после прогрева JIT.
+ * Сравниваемые действия выполняются поочередно, чтобы фоновая нагрузка и паузы сборщика мусора
+ * одинаково сказывались на каждом из них, поэтому сравнивать можно только соотношения времен,
+ * а не абсолютные значения.
+ */
+final class Timing {
+
+    private static final int WARMUP_RUNS = 200;
+    private static final int MEASURED_RUNS = 101;
+
+    private Timing() {}
+
+    /**
+     * Действие, время выполнения которого замеряется.
+     */
+    @FunctionalInterface
+    interface Action {
+        void run() throws IOException;
+    }
+
+    /**
+     * Возвращает медианное время выполнения каждого из действий, выполняя их поочередно.
+     *
+     * @param actions Сравниваемые действия
+     * @return Медианное время каждого действия в наносекундах, в порядке аргументов
+     * @throws IOException Если действие завершилось ошибкой
+     */
+    static long[] medianNanos(Action... actions) throws IOException {
+        for (int i = 0; i < WARMUP_RUNS; i++) {
+            for (Action action : actions) {
+                action.run();
+            }
+        }
+        long[][] times = new long[actions.length][MEASURED_RUNS];
+        for (int i = 0; i < MEASURED_RUNS; i++) {
+            for (int a = 0; a < actions.length; a++) {
+                long start = System.nanoTime();
+                actions[a].run();
+                times[a][i] = System.nanoTime() - start;
+            }
+        }
+        long[] medians = new long[actions.length];
+        for (int a = 0; a < actions.length; a++) {
+            Arrays.sort(times[a]);
+            medians[a] = times[a][MEASURED_RUNS / 2];
+        }
+        return medians;
+    }
+}
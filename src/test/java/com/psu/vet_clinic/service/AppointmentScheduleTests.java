@@ -0,0 +1,133 @@
+package com.psu.vet_clinic.service;
+
+import com.psu.vet_clinic.entity.Animal;
+import com.psu.vet_clinic.entity.Appointment;
+import com.psu.vet_clinic.entity.AppointmentStatus;
+import com.psu.vet_clinic.exception.ConflictException;
+import com.psu.vet_clinic.exception.ServiceOverloadedException;
+import com.psu.vet_clinic.repository.AppointmentRepository;
+import com.psu.vet_clinic.tenant.TenancyProperties;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Проверяет индекс расписания приемов без базы данных: конфликты на границах приемов,
+ * поиск свободного времени, освобождение брони и удаление прошедших дней.
+ */
+class AppointmentScheduleTests {
+
+    private static final LocalDate DAY = LocalDate.now().plusDays(1);
+
+    private final AppointmentRepository repository = mock(AppointmentRepository.class);
+    private AppointmentSchedule schedule;
+
+    @BeforeEach
+    void setUp() {
+        schedule = new AppointmentSchedule(repository, new TenancyProperties());
+    }
+
+    @Test
+    void reservationsAreRejectedUntilScheduleIsLoaded() {
+        assertThatThrownBy(() -> schedule.reserve(appointment(1, "Иванов", DAY, "10:00", "10:30")))
+                .isInstanceOf(ServiceOverloadedException.class);
+    }
+
+    @Test
+    void loadedAppointmentsBlockOverlappingReservations() {
+        Appointment existing = appointment(1, "Иванов", DAY, "10:00", "10:30");
+        existing.setId(100);
+        // clinic_id заполняет Hibernate при чтении из базы данных
+        ReflectionTestUtils.setField(existing, "clinicId", 1);
+        when(repository.findByStatusAndStartsAtGreaterThanEqual(eq(AppointmentStatus.SCHEDULED), any()))
+                .thenReturn(List.of(existing));
+        schedule.load();
+
+        assertThatThrownBy(() -> schedule.reserve(appointment(1, "Петров", DAY, "10:15", "10:45")))
+                .isInstanceOf(ConflictException.class).hasMessageContaining("Animal");
+        assertThatThrownBy(() -> schedule.reserve(appointment(2, "Иванов", DAY, "09:45", "10:01")))
+                .isInstanceOf(ConflictException.class).hasMessageContaining("Иванов");
+    }
+
+    @Test
+    void appointmentsMayTouchAtBoundaries() {
+        schedule.load();
+        schedule.reserve(appointment(1, "Иванов", DAY, "10:00", "10:30"));
+
+        schedule.reserve(appointment(1, "Иванов", DAY, "10:30", "11:00"));
+        schedule.reserve(appointment(1, "Иванов", DAY, "09:30", "10:00"));
+
+        assertThat(schedule.findFreeStarts(1, "Иванов", DAY, 540, 690, 30, 15))
+                .containsExactly(540, 660);
+    }
+
+    @Test
+    void freeStartsCombineAnimalAndVet() {
+        schedule.load();
+        schedule.reserve(appointment(1, "Иванов", DAY, "09:00", "09:30"));
+        schedule.reserve(appointment(2, "Петров", DAY, "09:45", "10:15"));
+        schedule.reserve(appointment(3, "Иванов", DAY, "10:30", "11:00"));
+
+        // Животное 2 у ветеринара Иванова: заняты 09:00-09:30 (ветеринар), 09:45-10:15 (животное), 10:30-11:00 (ветеринар)
+        assertThat(schedule.findFreeStarts(2, "Иванов", DAY, 540, 720, 15, 15))
+                .containsExactly(570, 615, 660, 675, 690, 705);
+    }
+
+    @Test
+    void cancelledReservationFreesInterval() {
+        schedule.load();
+        Appointment appointment = appointment(1, "Иванов", DAY, "10:00", "10:30");
+        int reservation = schedule.reserve(appointment);
+
+        schedule.cancelReservation(appointment, reservation);
+
+        schedule.reserve(appointment(1, "Иванов", DAY, "10:00", "10:30"));
+    }
+
+    @Test
+    void confirmedAppointmentIsReleased() {
+        schedule.load();
+        Appointment appointment = appointment(1, "Иванов", DAY, "10:00", "10:30");
+        int reservation = schedule.reserve(appointment);
+        appointment.setId(200);
+        schedule.confirm(appointment, reservation);
+
+        assertThatThrownBy(() -> schedule.reserve(appointment(1, "Иванов", DAY, "10:00", "10:30")))
+                .isInstanceOf(ConflictException.class);
+        schedule.release(appointment);
+
+        schedule.reserve(appointment(1, "Иванов", DAY, "10:00", "10:30"));
+    }
+
+    @Test
+    void pastDaysAreEvicted() {
+        schedule.load();
+        LocalDate yesterday = LocalDate.now().minusDays(1);
+        schedule.reserve(appointment(1, "Иванов", yesterday, "10:00", "10:30"));
+        schedule.reserve(appointment(1, "Иванов", DAY, "10:00", "10:30"));
+
+        schedule.evictPastDays();
+
+        assertThat(schedule.findFreeStarts(1, "Иванов", yesterday, 600, 630, 30, 15)).containsExactly(600);
+        assertThat(schedule.findFreeStarts(1, "Иванов", DAY, 600, 630, 30, 15)).isEmpty();
+    }
+
+    private static Appointment appointment(int animalId, String vet, LocalDate day, String from, String to) {
+        Animal animal = new Animal();
+        animal.setId(animalId);
+        return new Appointment(animal, vet, LocalDateTime.of(day, LocalTime.parse(from)),
+                LocalDateTime.of(day, LocalTime.parse(to)), "Осмотр");
+    }
+}
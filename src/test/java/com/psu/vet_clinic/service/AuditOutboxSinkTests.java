@@ -0,0 +1,97 @@
+package com.psu.vet_clinic.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Проверяет вычисление версий истории изменений без базы данных: разницу состояний,
+ * выбор версий с полным состоянием и восстановление состояния по версиям.
+ */
+class AuditOutboxSinkTests {
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    /**
+     * Версия истории, как она сохраняется в audit_entries.
+     */
+    private record Version(int version, String operation, boolean fullState, ObjectNode changes) {
+    }
+
+    @Test
+    void diffContainsChangedAndRemovedFieldsOnly() throws Exception {
+        ObjectNode previous = json("{\"name\": \"Барсик\", \"age\": 3, \"color\": \"серый\"}");
+        ObjectNode current = json("{\"name\": \"Барсик\", \"age\": 4, \"breed\": \"сиамская\"}");
+
+        ObjectNode changes = AuditOutboxSink.diff(previous, current);
+
+        assertThat(changes).isEqualTo(json("{\"age\": 4, \"breed\": \"сиамская\", \"color\": null}"));
+        assertThat(AuditOutboxSink.diff(current, current.deepCopy())).isEmpty();
+    }
+
+    @Test
+    void fullStateIsStoredOnCreationWithoutHistoryAndEverySnapshotInterval() {
+        assertThat(AuditOutboxSink.isFullState(AuditService.CREATED, true, 7, 5)).isTrue();
+        assertThat(AuditOutboxSink.isFullState(AuditService.UPDATED, false, 7, 5)).isTrue();
+        assertThat(AuditOutboxSink.isFullState(AuditService.UPDATED, true, 10, 5)).isTrue();
+        assertThat(AuditOutboxSink.isFullState(AuditService.UPDATED, true, 11, 5)).isFalse();
+    }
+
+    @Test
+    void replayFromLastSnapshotRestoresEveryState() throws Exception {
+        int snapshotInterval = 3;
+        List<ObjectNode> states = new ArrayList<>();
+        List<Version> history = new ArrayList<>();
+        ObjectNode head = objectMapper.createObjectNode();
+        for (int i = 1; i <= 8; i++) {
+            ObjectNode state = json("{\"id\": 1, \"age\": " + i + ", \"weight\": " + (i % 2) + "}");
+            String operation = i == 1 ? AuditService.CREATED : AuditService.UPDATED;
+            boolean fullState = AuditOutboxSink.isFullState(operation, i > 1, i, snapshotInterval);
+            ObjectNode changes = fullState ? state : AuditOutboxSink.diff(head, state);
+            AuditService.apply(head, operation, fullState, changes);
+            states.add(state);
+            history.add(new Version(i, operation, fullState, changes));
+        }
+
+        assertThat(history).filteredOn(Version::fullState).extracting(Version::version).containsExactly(1, 3, 6);
+        assertThat(history.get(4).changes()).isEqualTo(json("{\"age\": 5, \"weight\": 1}"));
+        for (int version = 1; version <= history.size(); version++) {
+            assertThat(replay(history, version)).as("state at version %d", version).isEqualTo(states.get(version - 1));
+        }
+    }
+
+    @Test
+    void deletionClearsStateAndRecreationStartsFromFullState() throws Exception {
+        ObjectNode state = json("{\"id\": 1, \"age\": 2}");
+        AuditService.apply(state, AuditService.DELETED, false, objectMapper.createObjectNode());
+        assertThat(state).isEmpty();
+
+        assertThat(AuditOutboxSink.isFullState(AuditService.UPDATED, false, 3, 50)).isTrue();
+    }
+
+    /**
+     * Восстанавливает состояние на указанную версию так же, как AuditService: от ближайшего полного состояния.
+     */
+    private ObjectNode replay(List<Version> history, int version) {
+        int start = 0;
+        for (int i = 0; i < version; i++) {
+            if (history.get(i).fullState()) {
+                start = i;
+            }
+        }
+        ObjectNode state = objectMapper.createObjectNode();
+        for (Version entry : history.subList(start, version)) {
+            AuditService.apply(state, entry.operation(), entry.fullState(), entry.changes());
+        }
+        return state;
+    }
+
+    private ObjectNode json(String json) throws Exception {
+        return (ObjectNode) objectMapper.readTree(json);
+    }
+}
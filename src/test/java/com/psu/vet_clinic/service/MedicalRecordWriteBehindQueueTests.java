@@ -0,0 +1,168 @@
+package com.psu.vet_clinic.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.psu.vet_clinic.dto.IngestTicket;
+import com.psu.vet_clinic.entity.MedicalRecord;
+import com.psu.vet_clinic.repository.AnimalRepository;
+import com.psu.vet_clinic.repository.MedicalRecordRepository;
+import com.psu.vet_clinic.tenant.TenantContext;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.transaction.CannotCreateTransactionException;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionStatus;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.awaitility.Awaitility.await;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Проверяет очередь отложенной записи медицинских записей без базы данных:
+ * восстановление из журнала, очистку журнала после пакета с записями нескольких клиник
+ * и повтор после ошибок открытия транзакции.
+ */
+class MedicalRecordWriteBehindQueueTests {
+
+    @TempDir
+    Path dir;
+
+    private final ObjectMapper objectMapper = Jackson2ObjectMapperBuilder.json().build();
+    private final MedicalRecordRepository repository = mock(MedicalRecordRepository.class);
+    private final PlatformTransactionManager transactionManager = mock(PlatformTransactionManager.class);
+    private final AtomicInteger nextId = new AtomicInteger(1);
+    private final List<MedicalRecord> saved = new ArrayList<>();
+
+    private Path journal;
+    private MedicalRecordWriteBehindQueue queue;
+
+    @BeforeEach
+    void setUp() {
+        journal = dir.resolve("medical-records.journal");
+        when(transactionManager.getTransaction(any())).thenReturn(mock(TransactionStatus.class));
+        when(repository.saveAll(anyList())).thenAnswer(invocation -> {
+            List<MedicalRecord> records = invocation.getArgument(0);
+            records.forEach(this::assignId);
+            return records;
+        });
+    }
+
+    @AfterEach
+    void tearDown() throws Exception {
+        if (queue != null) {
+            queue.stop();
+        }
+    }
+
+    @Test
+    void replaysPendingEntriesAndSkipsFlushedAndCorruptedLines() throws Exception {
+        Files.writeString(journal, String.join("\n",
+                entry("a", 1, false),
+                entry("b", 1, false),
+                "{\"trackingId\": \"c\", \"visitDa",
+                entry("a", null, true),
+                ""), StandardCharsets.UTF_8);
+
+        queue = start();
+
+        await().atMost(Duration.ofSeconds(5)).until(() -> "SAVED".equals(status("b")));
+        assertThat(queue.status("a")).isNull();
+        assertThat(saved).extracting(MedicalRecord::getDiagnosis).containsExactly("Диагноз b");
+        await().atMost(Duration.ofSeconds(5)).until(() -> Files.size(journal) == 0);
+    }
+
+    @Test
+    void mixedClinicBatchKeepsPendingGroupsInJournal() throws Exception {
+        Files.writeString(journal, entry("first", 1, false) + "\n" + entry("second", 2, false) + "\n",
+                StandardCharsets.UTF_8);
+        List<String> journalDuringSecondClinic = new ArrayList<>();
+        when(repository.saveAll(anyList())).thenAnswer(invocation -> {
+            if (TenantContext.currentClinicId() == 2) {
+                journalDuringSecondClinic.add(Files.readString(journal, StandardCharsets.UTF_8));
+            }
+            List<MedicalRecord> records = invocation.getArgument(0);
+            records.forEach(this::assignId);
+            return records;
+        });
+
+        queue = start();
+
+        await().atMost(Duration.ofSeconds(5)).until(() -> "SAVED".equals(status("second")));
+        assertThat(status("first")).isEqualTo("SAVED");
+        assertThat(journalDuringSecondClinic).singleElement().asString().contains("\"second\"");
+        await().atMost(Duration.ofSeconds(5)).until(() -> Files.size(journal) == 0);
+    }
+
+    @Test
+    void enqueuedRecordIsInJournalBeforeTicketIsReturned() throws Exception {
+        queue = start();
+        when(repository.saveAll(anyList())).thenAnswer(invocation -> {
+            throw new CannotCreateTransactionException("database is down");
+        });
+
+        IngestTicket ticket = queue.enqueue(record("осмотр"), 7);
+
+        assertThat(ticket.status()).isEqualTo("PENDING");
+        assertThat(Files.readString(journal, StandardCharsets.UTF_8)).contains(ticket.trackingId());
+    }
+
+    @Test
+    void writerSurvivesTransactionStartFailures() throws Exception {
+        when(transactionManager.getTransaction(any()))
+                .thenThrow(new CannotCreateTransactionException("Could not open JPA EntityManager"))
+                .thenReturn(mock(TransactionStatus.class));
+        queue = start();
+
+        IngestTicket ticket = queue.enqueue(record("осмотр"), 7);
+
+        await().atMost(Duration.ofSeconds(10)).until(() -> "SAVED".equals(status(ticket.trackingId())));
+        IngestTicket next = queue.enqueue(record("вакцинация"), 7);
+        await().atMost(Duration.ofSeconds(10)).until(() -> "SAVED".equals(status(next.trackingId())));
+        assertThat(saved).extracting(MedicalRecord::getProcedureType).containsExactly("осмотр", "вакцинация");
+    }
+
+    private MedicalRecordWriteBehindQueue start() throws Exception {
+        MedicalRecordWriteBehindQueue started = new MedicalRecordWriteBehindQueue(repository,
+                mock(AnimalRepository.class), new TransactionTemplate(transactionManager), objectMapper,
+                mock(OutboxService.class), mock(ClinicReadModel.class), true, 100, 10, 50, journal);
+        started.start();
+        return started;
+    }
+
+    private String status(String trackingId) {
+        IngestTicket ticket = queue.status(trackingId);
+        return ticket != null ? ticket.status() : null;
+    }
+
+    private void assignId(MedicalRecord record) {
+        record.setId(nextId.getAndIncrement());
+        saved.add(record);
+    }
+
+    private String entry(String trackingId, Integer clinicId, boolean flushed) throws Exception {
+        MedicalRecordWriteBehindQueue.JournalEntry entry = flushed
+                ? new MedicalRecordWriteBehindQueue.JournalEntry(trackingId, null, null, null, null, null, true)
+                : new MedicalRecordWriteBehindQueue.JournalEntry(trackingId, LocalDate.of(2026, 1, 15),
+                        "Осмотр", "Диагноз " + trackingId, 7, clinicId, false);
+        return objectMapper.writeValueAsString(entry);
+    }
+
+    private static MedicalRecord record(String procedure) {
+        return new MedicalRecord(LocalDate.of(2026, 1, 15), procedure, "Здоров", null);
+    }
+}
@@ -0,0 +1,107 @@
+package com.psu.vet_clinic.service;
+
+import com.psu.vet_clinic.entity.OutboxEvent;
+import com.psu.vet_clinic.repository.OutboxEventRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Проверяет, что обработчик outbox не берет события сущности, пока ее предыдущее событие
+ * обрабатывается другим обработчиком, и не блокирует сущности событий за пределами пакета.
+ */
+@SpringBootTest(properties = {
+        "vet-clinic.outbox.poller.enabled=false",
+        "vet-clinic.reminders.enabled=false"
+})
+class OutboxOrderingTests {
+
+    @Autowired
+    private OutboxService outboxService;
+
+    @Autowired
+    private OutboxEventRepository repository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void eventsOfAggregateAreSkippedWhileAnotherTransactionProcessesIt() throws Exception {
+        int locked = ThreadLocalRandom.current().nextInt(1_000_000, Integer.MAX_VALUE);
+        TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+
+        // Другой обработчик уже взял событие сущности: блокировка удерживается до конца его транзакции
+        CountDownLatch aggregateLocked = new CountDownLatch(1);
+        CountDownLatch checked = new CountDownLatch(1);
+        CompletableFuture<Void> processing = CompletableFuture.runAsync(() -> transaction.executeWithoutResult(status -> {
+            jdbcTemplate.queryForList("select pg_advisory_xact_lock(hashtext('Animal'), ?)", locked);
+            aggregateLocked.countDown();
+            await(checked);
+        }));
+        assertThat(aggregateLocked.await(10, TimeUnit.SECONDS)).isTrue();
+
+        transaction.executeWithoutResult(status -> {
+            outboxService.record("Animal", locked, "UPDATED", Map.of("age", 1));
+            outboxService.record("Animal", locked, "UPDATED", Map.of("age", 2));
+        });
+        List<Long> ids = jdbcTemplate.queryForList(
+                "select id from outbox_events where aggregate_type = 'Animal' and aggregate_id = ?", Long.class, locked);
+        List<Long> batch = transaction.execute(status ->
+                repository.lockNextBatch(Integer.MAX_VALUE).stream().map(OutboxEvent::getId).toList());
+        checked.countDown();
+        processing.get(10, TimeUnit.SECONDS);
+
+        assertThat(ids).hasSize(2);
+        assertThat(batch).doesNotContainAnyElementsOf(ids);
+
+        transaction.executeWithoutResult(status -> repository.deleteAllByIdInBatch(ids));
+    }
+
+    @Test
+    void advisoryLocksAreTakenOnlyForSelectedEvents() {
+        int first = ThreadLocalRandom.current().nextInt(1_000_000, Integer.MAX_VALUE - 1);
+        TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+        transaction.executeWithoutResult(status -> {
+            outboxService.record("Animal", first, "UPDATED", Map.of("age", 1));
+            outboxService.record("Animal", first + 1, "UPDATED", Map.of("age", 1));
+        });
+        List<Long> ids = jdbcTemplate.queryForList(
+                "select id from outbox_events where aggregate_type = 'Animal' and aggregate_id in (?, ?)",
+                Long.class, first, first + 1);
+
+        Long locks = transaction.execute(status -> {
+            // План с полным просмотром таблицы: условие WHERE проверяется для всех строк до сортировки и limit
+            jdbcTemplate.execute("set local enable_indexscan = off");
+            jdbcTemplate.execute("set local enable_bitmapscan = off");
+            assertThat(repository.lockNextBatch(1)).hasSizeLessThanOrEqualTo(1);
+            return jdbcTemplate.queryForObject(
+                    "select count(*) from pg_locks where locktype = 'advisory' and pid = pg_backend_pid()", Long.class);
+        });
+
+        assertThat(locks).isLessThanOrEqualTo(1);
+        transaction.executeWithoutResult(status -> repository.deleteAllByIdInBatch(ids));
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(10, TimeUnit.SECONDS);
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
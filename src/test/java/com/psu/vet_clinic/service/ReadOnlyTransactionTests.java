@@ -0,0 +1,144 @@
+package com.psu.vet_clinic.service;
+
+import com.psu.vet_clinic.entity.Animal;
+import com.psu.vet_clinic.entity.AnimalType;
+import com.psu.vet_clinic.entity.MedicalRecord;
+import com.psu.vet_clinic.repository.MedicalRecordRepository;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.bean.override.mockito.MockitoSpyBean;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.sql.Connection;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.reset;
+
+/**
+ * Проверяет, что методы чтения сервисов выполняются в транзакциях только для чтения:
+ * соединение помечено только для чтения, при фиксации Hibernate не выполняет flush
+ * и не записывает изменения загруженных сущностей.
+ * Для сравнения тот же запрос выполняется в обычной транзакции.
+ */
+@SpringBootTest(properties = {
+        "vet-clinic.outbox.poller.enabled=false",
+        "vet-clinic.reminders.enabled=false",
+        "vet-clinic.read-model.enabled=false",
+        "vet-clinic.medical-records.write-behind.enabled=false"
+})
+class ReadOnlyTransactionTests {
+
+    private static final int RECORDS = 50;
+
+    @Autowired
+    private AnimalTypeService animalTypeService;
+
+    @Autowired
+    private AnimalService animalService;
+
+    @Autowired
+    private MedicalRecordService medicalRecordService;
+
+    @MockitoSpyBean
+    private MedicalRecordRepository medicalRecordRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private Statistics statistics;
+    private AnimalType type;
+    private Animal animal;
+
+    @BeforeEach
+    void setUp() {
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.setStatisticsEnabled(true);
+
+        String suffix = UUID.randomUUID().toString().substring(0, 8);
+        type = animalTypeService.save(new AnimalType("тип " + suffix, 12));
+        animal = animalService.save(new Animal("кличка " + suffix, 3, "порода", "женский",
+                new BigDecimal("4.5"), "серый", type));
+        for (int i = 0; i < RECORDS; i++) {
+            medicalRecordService.save(new MedicalRecord(LocalDate.of(2026, 1, 1).plusDays(i), "осмотр", "здоров", animal));
+        }
+    }
+
+    @AfterEach
+    void tearDown() {
+        medicalRecordService.findByAnimalId(animal.getId()).forEach(r -> medicalRecordService.delete(r.getId()));
+        animalService.delete(animal.getId());
+        animalTypeService.delete(type.getId());
+    }
+
+    @Test
+    void serviceReadRunsOnReadOnlyConnection() {
+        AtomicReference<String> transactionReadOnly = new AtomicReference<>();
+        AtomicReference<Boolean> connectionReadOnly = new AtomicReference<>();
+        doAnswer(invocation -> {
+            // Запросы внутри метода сервиса выполняются на соединении его транзакции
+            transactionReadOnly.set(jdbcTemplate.queryForObject("show transaction_read_only", String.class));
+            connectionReadOnly.set(jdbcTemplate.execute((ConnectionCallback<Boolean>) Connection::isReadOnly));
+            return List.of();
+        }).when(medicalRecordRepository).findByAnimalId(animal.getId());
+
+        medicalRecordService.findByAnimalId(animal.getId());
+        reset(medicalRecordRepository);
+        assertThat(transactionReadOnly.get()).isEqualTo("on");
+        assertThat(connectionReadOnly.get()).isTrue();
+
+        // Соединение возвращается в пул без признака только для чтения
+        assertThat(jdbcTemplate.execute((ConnectionCallback<Boolean>) Connection::isReadOnly)).isFalse();
+    }
+
+    @Test
+    void listReadDoesNotFlush() {
+        statistics.clear();
+        List<MedicalRecord> records = medicalRecordService.findByAnimalId(animal.getId());
+
+        assertThat(records).hasSize(RECORDS);
+        assertThat(statistics.getFlushCount()).isZero();
+        assertThat(statistics.getEntityUpdateCount()).isZero();
+
+        // В обычной транзакции тот же запрос завершается flush с проверкой всех загруженных записей
+        statistics.clear();
+        new TransactionTemplate(transactionManager).executeWithoutResult(status ->
+                medicalRecordRepository.findByAnimalId(animal.getId()));
+        assertThat(statistics.getFlushCount()).isPositive();
+    }
+
+    @Test
+    void changesToEntitiesLoadedInReadOnlyTransactionAreNotWritten() {
+        MedicalRecord stored = medicalRecordService.findByAnimalId(animal.getId()).get(0);
+        Integer id = stored.getId();
+        TransactionTemplate readOnly = new TransactionTemplate(transactionManager);
+        readOnly.setReadOnly(true);
+
+        statistics.clear();
+        readOnly.executeWithoutResult(status -> medicalRecordService.findById(id).setDiagnosis("изменено"));
+
+        assertThat(statistics.getFlushCount()).isZero();
+        assertThat(statistics.getEntityUpdateCount()).isZero();
+        assertThat(medicalRecordService.findById(id).getDiagnosis()).isEqualTo(stored.getDiagnosis());
+    }
+}
@@ -0,0 +1,78 @@
+package com.psu.vet_clinic.service;
+
+import com.psu.vet_clinic.entity.Animal;
+import com.psu.vet_clinic.entity.AnimalType;
+import com.psu.vet_clinic.entity.MedicalRecord;
+import com.psu.vet_clinic.tenant.TenantContext;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Проверяет, что повторные запуски задачи напоминаний обновляют срок существующего напоминания
+ * и удаляют напоминания, которые больше не рассчитываются.
+ */
+@SpringBootTest(properties = {
+        "vet-clinic.outbox.poller.enabled=false",
+        "vet-clinic.reminders.enabled=true",
+        "vet-clinic.reminders.cron=-",
+        "vet-clinic.reminders.lookahead-days=30"
+})
+class ReminderJobTests {
+
+    @Autowired
+    private ReminderJob reminderJob;
+
+    @Autowired
+    private AnimalTypeService animalTypeService;
+
+    @Autowired
+    private AnimalService animalService;
+
+    @Autowired
+    private MedicalRecordService medicalRecordService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void rerunMovesDueDateInPlaceAndRemovesSupersededReminders() {
+        String suffix = UUID.randomUUID().toString().substring(0, 8);
+        LocalDate today = LocalDate.now();
+        Animal animal = TenantContext.callAs(1, () -> {
+            AnimalType type = animalTypeService.save(new AnimalType("вид " + suffix, 100));
+            return animalService.save(new Animal("кличка " + suffix, 3, "порода", "женский",
+                    new BigDecimal("4.50"), "серый", type));
+        });
+
+        vaccinate(animal, today.minusYears(1).plusDays(10));
+        reminderJob.run();
+        assertThat(dueDates(animal)).containsExactly(today.plusDays(10));
+
+        vaccinate(animal, today.minusYears(1).plusDays(20));
+        reminderJob.run();
+        assertThat(dueDates(animal)).containsExactly(today.plusDays(20));
+
+        vaccinate(animal, today);
+        reminderJob.run();
+        assertThat(dueDates(animal)).isEmpty();
+    }
+
+    private void vaccinate(Animal animal, LocalDate visitDate) {
+        TenantContext.callAs(1, () -> medicalRecordService.save(new MedicalRecord(visitDate, "вакцинация", "здоров",
+                animalService.getReference(animal.getId()))));
+    }
+
+    private List<LocalDate> dueDates(Animal animal) {
+        return jdbcTemplate.queryForList("select due_date from reminders where animals_id = ? order by due_date",
+                LocalDate.class, animal.getId());
+    }
+}
@@ -0,0 +1,90 @@
+package com.psu.vet_clinic.service;
+
+import com.psu.vet_clinic.entity.Animal;
+import com.psu.vet_clinic.entity.AnimalType;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.init.ResourceDatabasePopulator;
+
+import javax.sql.DataSource;
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Проверяет скрипт {@code db/unique-constraints.sql}: дубликаты, накопленные до появления уникальных ключей,
+ * объединяются, ссылки переводятся на оставшуюся строку, и ключи создаются.
+ */
+@SpringBootTest(properties = {
+        "vet-clinic.outbox.poller.enabled=false",
+        "vet-clinic.reminders.enabled=false"
+})
+class UniqueConstraintsMigrationTests {
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private DataSource dataSource;
+
+    @Test
+    void duplicatesAreMergedBeforeUniqueKeysAreCreated() {
+        int clinicId = 100_000 + ThreadLocalRandom.current().nextInt(100_000);
+        String typeName = "Тип " + UUID.randomUUID().toString().substring(0, 8);
+        int keptType;
+        int duplicateType;
+        int keptAnimal;
+        int duplicateAnimal;
+        int recordOfDuplicate;
+
+        jdbcTemplate.execute("alter table animals drop constraint " + Animal.UNIQUE_NAME_BREED_TYPE);
+        jdbcTemplate.execute("alter table animal_types drop constraint " + AnimalType.UNIQUE_NAME);
+        try {
+            keptType = insertType(clinicId, typeName);
+            duplicateType = insertType(clinicId, typeName);
+            // Животные разных типов-дубликатов становятся дубликатами после объединения типов
+            keptAnimal = insertAnimal(clinicId, keptType);
+            duplicateAnimal = insertAnimal(clinicId, duplicateType);
+            recordOfDuplicate = jdbcTemplate.queryForObject(
+                    "insert into medical_records (visit_date, procedure_type, diagnosis, animals_id, clinic_id) "
+                            + "values (date '2026-01-15', 'Осмотр', 'Здоров', ?, ?) returning id",
+                    Integer.class, duplicateAnimal, clinicId);
+        } finally {
+            ResourceDatabasePopulator populator = new ResourceDatabasePopulator(new ClassPathResource("db/unique-constraints.sql"));
+            populator.setSeparator("@@");
+            populator.setSqlScriptEncoding("UTF-8");
+            populator.execute(dataSource);
+        }
+
+        assertThat(constraintCount(AnimalType.UNIQUE_NAME)).isOne();
+        assertThat(constraintCount(Animal.UNIQUE_NAME_BREED_TYPE)).isOne();
+        assertThat(jdbcTemplate.queryForList("select id from animal_types where clinic_id = ?", Integer.class, clinicId))
+                .containsExactly(keptType);
+        assertThat(jdbcTemplate.queryForList("select id from animals where clinic_id = ?", Integer.class, clinicId))
+                .containsExactly(keptAnimal);
+        assertThat(jdbcTemplate.queryForObject("select animals_id from medical_records where id = ?",
+                Integer.class, recordOfDuplicate)).isEqualTo(keptAnimal);
+        assertThat(duplicateType).isNotEqualTo(keptType);
+    }
+
+    private int insertType(int clinicId, String name) {
+        return jdbcTemplate.queryForObject(
+                "insert into animal_types (name, average_lifespan, clinic_id) values (?, 10, ?) returning id",
+                Integer.class, name, clinicId);
+    }
+
+    private int insertAnimal(int clinicId, int typeId) {
+        return jdbcTemplate.queryForObject(
+                "insert into animals (name, age, breed, gender, weight, color, animal_types_id, clinic_id) "
+                        + "values ('Барсик', 3, 'Порода', 'Мужской', 4.50, 'Серый', ?, ?) returning id",
+                Integer.class, typeId, clinicId);
+    }
+
+    private int constraintCount(String name) {
+        return jdbcTemplate.queryForObject("select count(*) from pg_constraint where conname = ?", Integer.class, name);
+    }
+}
@@ -0,0 +1,94 @@
+package com.psu.vet_clinic.tenant;
+
+import com.psu.vet_clinic.entity.Animal;
+import com.psu.vet_clinic.entity.AnimalType;
+import com.psu.vet_clinic.entity.MedicalRecord;
+import com.psu.vet_clinic.exception.ConflictException;
+import com.psu.vet_clinic.exception.NotFoundException;
+import com.psu.vet_clinic.service.AnimalService;
+import com.psu.vet_clinic.service.AnimalTypeService;
+import com.psu.vet_clinic.service.MedicalRecordService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.init.ResourceDatabasePopulator;
+
+import javax.sql.DataSource;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Проверяет ограничения схемы для данных нескольких клиник, включая создаваемые скриптом
+ * {@code db/clinic-constraints.sql}.
+ */
+@SpringBootTest(properties = {
+        "vet-clinic.outbox.poller.enabled=false",
+        "vet-clinic.reminders.enabled=false"
+})
+class ClinicConstraintsTests {
+
+    @Autowired
+    private AnimalTypeService animalTypeService;
+
+    @Autowired
+    private AnimalService animalService;
+
+    @Autowired
+    private MedicalRecordService medicalRecordService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private DataSource dataSource;
+
+    private final String suffix = UUID.randomUUID().toString().substring(0, 8);
+
+    @Test
+    void sameNameIsAllowedInAnotherClinicButNotInTheSameClinic() {
+        String name = "тип " + suffix;
+        TenantContext.callAs(1, () -> animalTypeService.save(new AnimalType(name, 10)));
+
+        assertThatThrownBy(() -> TenantContext.callAs(1, () -> animalTypeService.save(new AnimalType(name, 10))))
+                .isInstanceOf(ConflictException.class);
+        AnimalType other = TenantContext.callAs(2, () -> animalTypeService.save(new AnimalType(name, 10)));
+        assertThat(other.getId()).isNotNull();
+    }
+
+    @Test
+    void legacyUniqueKeysWithoutClinicAreDroppedByScript() {
+        jdbcTemplate.execute("alter table animal_types drop constraint if exists uk_animal_types_name");
+        jdbcTemplate.execute("alter table animal_types add constraint uk_animal_types_name unique (id, name)");
+
+        ResourceDatabasePopulator populator = new ResourceDatabasePopulator(new ClassPathResource("db/clinic-constraints.sql"));
+        populator.setSeparator("@@");
+        populator.setSqlScriptEncoding("UTF-8");
+        populator.execute(dataSource);
+
+        assertThat(constraintCount("uk_animal_types_name")).isZero();
+        assertThat(constraintCount(MedicalRecord.FOREIGN_KEY_CLINIC_ANIMAL)).isOne();
+    }
+
+    @Test
+    void medicalRecordCannotReferenceAnimalOfAnotherClinic() {
+        Animal animal = TenantContext.callAs(1, () -> {
+            AnimalType type = animalTypeService.save(new AnimalType("вид " + suffix, 10));
+            return animalService.save(new Animal("кличка " + suffix, 3, "порода", "женский",
+                    new BigDecimal("4.50"), "серый", type));
+        });
+
+        assertThatThrownBy(() -> TenantContext.callAs(2, () -> medicalRecordService.save(new MedicalRecord(
+                LocalDate.of(2026, 1, 15), "осмотр", "здоров", animalService.getReference(animal.getId())))))
+                .isInstanceOf(NotFoundException.class);
+    }
+
+    private int constraintCount(String name) {
+        return jdbcTemplate.queryForObject("select count(*) from pg_constraint where conname = ?", Integer.class, name);
+    }
+}
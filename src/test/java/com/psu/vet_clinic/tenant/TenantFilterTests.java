@@ -0,0 +1,65 @@
+package com.psu.vet_clinic.tenant;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Проверяет выбор клиники запроса по заголовку: заголовок игнорируется, пока он не включен,
+ * а при заданном ключе принимается только подписанный идентификатор клиники.
+ */
+class TenantFilterTests {
+
+    private static final String KEY = "test-signing-key";
+
+    @Test
+    void headerIsIgnoredUnlessEnabled() throws Exception {
+        assertThat(clinicOf(new TenantFilter("X-Clinic-Id", false, ""), "7"))
+                .isEqualTo(TenantContext.currentClinicId());
+    }
+
+    @Test
+    void unsignedHeaderIsTrustedWithoutSigningKey() throws Exception {
+        assertThat(clinicOf(new TenantFilter("X-Clinic-Id", true, ""), "7")).isEqualTo(7);
+    }
+
+    @Test
+    void signedHeaderIsRequiredWithSigningKey() throws Exception {
+        TenantFilter filter = new TenantFilter("X-Clinic-Id", true, KEY);
+
+        assertThat(clinicOf(filter, TenantFilter.sign(7, KEY))).isEqualTo(7);
+        assertThat(status(filter, "7")).isEqualTo(403);
+        assertThat(status(filter, "8." + TenantFilter.sign(7, KEY).substring(2))).isEqualTo(403);
+        assertThat(status(filter, TenantFilter.sign(7, "other-key"))).isEqualTo(403);
+    }
+
+    private static int clinicOf(TenantFilter filter, String header) throws Exception {
+        AtomicInteger clinicId = new AtomicInteger(-1);
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        filter.doFilter(request(header), response, new MockFilterChain() {
+            @Override
+            public void doFilter(jakarta.servlet.ServletRequest request, jakarta.servlet.ServletResponse response) {
+                clinicId.set(TenantContext.currentClinicId());
+            }
+        });
+        assertThat(response.getStatus()).isEqualTo(200);
+        return clinicId.get();
+    }
+
+    private static int status(TenantFilter filter, String header) throws Exception {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        filter.doFilter(request(header), response, new MockFilterChain());
+        return response.getStatus();
+    }
+
+    private static MockHttpServletRequest request(String header) {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/animals");
+        request.addHeader("X-Clinic-Id", header);
+        return request;
+    }
+}
@@ -0,0 +1,66 @@
+package com.psu.vet_clinic.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Проверяет хеш-таблицу с ключами int: рост таблицы, удаление из цепочек пробирования
+ * и совпадение содержимого с HashMap при случайных операциях.
+ */
+class IntObjectMapTests {
+
+    @Test
+    void putReplacesValueAndGrowsTable() {
+        IntObjectMap<String> map = new IntObjectMap<>(1);
+        for (int key = -50; key < 50; key++) {
+            map.put(key, "v" + key);
+        }
+        map.put(7, "seven");
+
+        assertThat(map.size()).isEqualTo(100);
+        assertThat(map.get(7)).isEqualTo("seven");
+        assertThat(map.get(-50)).isEqualTo("v-50");
+        assertThat(map.get(50)).isNull();
+        assertThat(map.sortedKeys()).hasSize(100).startsWith(-50, -49).endsWith(48, 49);
+    }
+
+    @Test
+    void reservedKeyIsRejected() {
+        IntObjectMap<String> map = new IntObjectMap<>(4);
+
+        assertThatThrownBy(() -> map.put(Integer.MIN_VALUE, "x")).isInstanceOf(IllegalArgumentException.class);
+        assertThat(map.get(Integer.MIN_VALUE)).isNull();
+        assertThat(map.remove(Integer.MIN_VALUE)).isNull();
+    }
+
+    @Test
+    void randomOperationsMatchHashMap() {
+        Random random = new Random(5);
+        IntObjectMap<Integer> map = new IntObjectMap<>(8);
+        Map<Integer, Integer> expected = new HashMap<>();
+        // Узкий диапазон ключей дает длинные цепочки пробирования и частые удаления из их середины
+        for (int step = 0; step < 200_000; step++) {
+            int key = random.nextInt(2000) - 1000;
+            if (random.nextInt(3) == 0) {
+                assertThat(map.remove(key)).isEqualTo(expected.remove(key));
+            } else {
+                map.put(key, step);
+                expected.put(key, step);
+            }
+            if (step % 1000 == 0) {
+                assertThat(map.size()).isEqualTo(expected.size());
+                for (int probe = -1000; probe < 1000; probe++) {
+                    assertThat(map.get(probe)).isEqualTo(expected.get(probe));
+                }
+            }
+        }
+        int[] keys = expected.keySet().stream().sorted().mapToInt(Integer::intValue).toArray();
+        assertThat(map.sortedKeys()).containsExactly(keys);
+    }
+}
@@ -0,0 +1,172 @@
+package com.psu.vet_clinic.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Проверяет дерево интервалов: балансировку при вставке и удалении, пересечения на границах
+ * полуоткрытых интервалов и совпадение результатов с полным перебором. Последний тест сравнивает
+ * время проверки пересечений по дереву и перебором списка и выводит его.
+ */
+class IntervalTreeTests {
+
+    @Test
+    void touchingIntervalsDoNotOverlap() {
+        IntervalTree tree = new IntervalTree();
+        tree.insert(600, 630, 1);
+
+        assertThat(tree.overlaps(570, 600)).isFalse();
+        assertThat(tree.overlaps(630, 660)).isFalse();
+        assertThat(tree.overlaps(599, 601)).isTrue();
+        assertThat(tree.overlaps(629, 631)).isTrue();
+        assertThat(tree.overlaps(610, 620)).isTrue();
+        assertThat(tree.overlaps(590, 640)).isTrue();
+    }
+
+    @Test
+    void forEachOverlappingReturnsIntervalsInStartOrder() {
+        IntervalTree tree = new IntervalTree();
+        tree.insert(540, 600, 3);
+        tree.insert(480, 540, 1);
+        tree.insert(600, 660, 4);
+        tree.insert(500, 700, 2);
+
+        List<Integer> ids = new ArrayList<>();
+        tree.forEachOverlapping(540, 600, (start, end, id) -> ids.add(id));
+
+        assertThat(ids).containsExactly(2, 3);
+    }
+
+    @Test
+    void rejectsEmptyAndDuplicateIntervals() {
+        IntervalTree tree = new IntervalTree();
+        tree.insert(600, 630, 1);
+
+        assertThatThrownBy(() -> tree.insert(600, 600, 2)).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> tree.insert(600, 660, 1)).isInstanceOf(IllegalArgumentException.class);
+        assertThat(tree.remove(600, 2)).isFalse();
+        assertThat(tree.size()).isOne();
+    }
+
+    @Test
+    void sequentialInsertAndDeleteKeepTreeBalanced() {
+        IntervalTree tree = new IntervalTree();
+        int count = 4096;
+        for (int i = 0; i < count; i++) {
+            tree.insert(i, i + 1, i);
+        }
+        // Высота AVL-дерева не превышает 1.44 * log2(n + 2)
+        assertThat(tree.height()).isLessThanOrEqualTo(maxAvlHeight(count));
+
+        for (int i = 0; i < count; i += 2) {
+            assertThat(tree.remove(i, i)).isTrue();
+        }
+        assertThat(tree.size()).isEqualTo(count / 2);
+        assertThat(tree.height()).isLessThanOrEqualTo(maxAvlHeight(count / 2));
+        assertThat(tree.overlaps(0, 1)).isFalse();
+        assertThat(tree.overlaps(1, 2)).isTrue();
+    }
+
+    @Test
+    void randomInsertsAndDeletesMatchBruteForce() {
+        Random random = new Random(42);
+        IntervalTree tree = new IntervalTree();
+        List<int[]> intervals = new ArrayList<>();
+        for (int step = 0; step < 5000; step++) {
+            if (intervals.isEmpty() || random.nextInt(3) > 0) {
+                int start = random.nextInt(1440);
+                int[] interval = {start, start + 1 + random.nextInt(90), step};
+                tree.insert(interval[0], interval[1], interval[2]);
+                intervals.add(interval);
+            } else {
+                int[] interval = intervals.remove(random.nextInt(intervals.size()));
+                assertThat(tree.remove(interval[0], interval[2])).isTrue();
+            }
+
+            int start = random.nextInt(1440);
+            int end = start + 1 + random.nextInt(60);
+            List<Integer> expected = intervals.stream()
+                    .filter(interval -> interval[0] < end && start < interval[1])
+                    .sorted((a, b) -> a[0] != b[0] ? Integer.compare(a[0], b[0]) : Integer.compare(a[2], b[2]))
+                    .map(interval -> interval[2])
+                    .toList();
+            List<Integer> actual = new ArrayList<>();
+            tree.forEachOverlapping(start, end, (s, e, id) -> actual.add(id));
+
+            assertThat(actual).isEqualTo(expected);
+            assertThat(tree.overlaps(start, end)).isEqualTo(!expected.isEmpty());
+            assertThat(tree.size()).isEqualTo(intervals.size());
+        }
+        assertThat(tree.height()).isLessThanOrEqualTo(maxAvlHeight(intervals.size()));
+    }
+
+    @Test
+    void overlapCheckIsFasterThanScanningAllIntervals() {
+        int count = 20_000;
+        IntervalTree tree = new IntervalTree();
+        int[][] intervals = new int[count][];
+        for (int i = 0; i < count; i++) {
+            // Непересекающиеся приемы по 10 минут с промежутком 5 минут
+            intervals[i] = new int[]{i * 15, i * 15 + 10};
+            tree.insert(intervals[i][0], intervals[i][1], i);
+        }
+        int queries = 20_000;
+        Random random = new Random(7);
+        int[] starts = new int[queries];
+        for (int i = 0; i < queries; i++) {
+            starts[i] = random.nextInt(count * 15);
+        }
+
+        // Прогрев, чтобы сравнивать скомпилированный код
+        measureTree(tree, starts);
+        measureScan(intervals, starts);
+        long treeNanos = measureTree(tree, starts);
+        long scanNanos = measureScan(intervals, starts);
+
+        // Дерево проходит O(log n) узлов против n интервалов при переборе: при 20 000 интервалах
+        // разница в сотни раз, поэтому десятикратный порог не зависит от шума замера
+        assertThat(treeNanos * 10)
+                .as("overlap check over %d intervals: tree %d ns/query, scan %d ns/query",
+                        count, treeNanos / queries, scanNanos / queries)
+                .isLessThan(scanNanos);
+    }
+
+    private static long measureTree(IntervalTree tree, int[] starts) {
+        long begin = System.nanoTime();
+        int hits = 0;
+        for (int start : starts) {
+            if (tree.overlaps(start, start + 5)) {
+                hits++;
+            }
+        }
+        long elapsed = System.nanoTime() - begin;
+        assertThat(hits).isPositive();
+        return elapsed;
+    }
+
+    private static long measureScan(int[][] intervals, int[] starts) {
+        long begin = System.nanoTime();
+        int hits = 0;
+        for (int start : starts) {
+            for (int[] interval : intervals) {
+                if (interval[0] < start + 5 && start < interval[1]) {
+                    hits++;
+                    break;
+                }
+            }
+        }
+        long elapsed = System.nanoTime() - begin;
+        assertThat(hits).isPositive();
+        return elapsed;
+    }
+
+    private static int maxAvlHeight(int size) {
+        return (int) Math.floor(1.44 * Math.log(size + 2) / Math.log(2));
+    }
+}
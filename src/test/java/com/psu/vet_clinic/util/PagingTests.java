@@ -0,0 +1,86 @@
+package com.psu.vet_clinic.util;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.Sort;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.function.Predicate;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Проверяет постраничную выборку: экранирование шаблонов поиска, проверку полей сортировки
+ * и совпадение страниц из памяти с сортировкой всего списка.
+ */
+class PagingTests {
+
+    /**
+     * Элемент списка с повторяющимися значениями поля сортировки.
+     */
+    private record Item(int id, Integer rank) {
+    }
+
+    private static final Map<String, Comparator<Item>> FIELDS = Map.of(
+            "id", Comparator.comparing(Item::id),
+            "rank", Comparator.comparing(Item::rank, Comparator.nullsLast(Comparator.naturalOrder())));
+
+    @Test
+    void containsPatternEscapesWildcards() {
+        assertThat(Paging.containsPattern("  50%_Off! ")).isEqualTo("%50!%!_off!!%");
+        assertThat(Paging.containsPattern(" ")).isNull();
+        assertThat(Paging.normalizeQuery(null)).isNull();
+    }
+
+    @Test
+    void comparatorRejectsUnknownFields() {
+        assertThatThrownBy(() -> Paging.comparator(Sort.by("name"), FIELDS))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void slicesMatchSortedListOnEveryPage() {
+        Random random = new Random(11);
+        List<Item> items = new ArrayList<>();
+        for (int id = 1; id <= 500; id++) {
+            items.add(new Item(id, random.nextInt(10) == 0 ? null : random.nextInt(20)));
+        }
+        Predicate<Item> filter = item -> item.id() % 3 != 0;
+
+        for (Sort.Direction direction : Sort.Direction.values()) {
+            Sort sort = Sort.by(direction, "rank").and(Sort.by(direction, "id"));
+            Comparator<Item> order = Paging.comparator(sort, FIELDS);
+            List<Item> expected = items.stream().filter(filter).sorted(order).toList();
+
+            List<Item> actual = new ArrayList<>();
+            Slice<Item> slice = Paging.slice(items, filter, order, PageRequest.of(0, 25, sort));
+            actual.addAll(slice.getContent());
+            while (slice.hasNext()) {
+                slice = Paging.slice(items, filter, order, slice.nextPageable());
+                actual.addAll(slice.getContent());
+            }
+
+            assertThat(actual).isEqualTo(expected);
+        }
+    }
+
+    @Test
+    void pageBeyondLastIsEmpty() {
+        List<Item> items = List.of(new Item(1, 1), new Item(2, 2), new Item(3, 3));
+        Comparator<Item> order = Paging.comparator(Sort.by("id"), FIELDS);
+
+        Slice<Item> last = Paging.slice(items, item -> true, order, PageRequest.of(1, 2));
+        Slice<Item> beyond = Paging.slice(items, item -> true, order, PageRequest.of(5, 2));
+
+        assertThat(last.getContent()).containsExactly(new Item(3, 3));
+        assertThat(last.hasNext()).isFalse();
+        assertThat(beyond.getContent()).isEmpty();
+        assertThat(beyond.hasNext()).isFalse();
+    }
+}
@@ -0,0 +1,75 @@
+package com.psu.vet_clinic.web;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.psu.vet_clinic.exception.IdempotencyKeyReusedException;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.ResponseEntity;
+
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Проверяет хранилище ключей идемпотентности: повтор возвращает сохраненный ответ,
+ * ключ с другим телом запроса отклоняется, а просроченный ключ выполняется заново.
+ */
+class IdempotencyStoreTests {
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final AtomicInteger calls = new AtomicInteger();
+
+    @Test
+    void replayReturnsStoredResponseWithoutRunningAction() {
+        IdempotencyStore store = new IdempotencyStore(objectMapper, 100, 3600);
+
+        ResponseEntity<Integer> first = store.execute("POST /animals", "key-1", Map.of("name", "Барсик"), this::create);
+        ResponseEntity<Integer> replay = store.execute("POST /animals", "key-1", Map.of("name", "Барсик"), this::create);
+
+        assertThat(replay).isSameAs(first);
+        assertThat(calls).hasValue(1);
+    }
+
+    @Test
+    void reusedKeyWithDifferentBodyIsRejected() {
+        IdempotencyStore store = new IdempotencyStore(objectMapper, 100, 3600);
+        store.execute("POST /animals", "key-1", Map.of("name", "Барсик"), this::create);
+
+        assertThatThrownBy(() -> store.execute("POST /animals", "key-1", Map.of("name", "Мурзик"), this::create))
+                .isInstanceOf(IdempotencyKeyReusedException.class);
+        assertThat(calls).hasValue(1);
+
+        // Тот же ключ в другой области действия не связан с первым запросом
+        store.execute("POST /animal-types", "key-1", Map.of("name", "Кошка"), this::create);
+        assertThat(calls).hasValue(2);
+    }
+
+    @Test
+    void expiredKeyIsExecutedAgain() {
+        // Нулевое время жизни: ключ просрочен к следующему запросу
+        IdempotencyStore store = new IdempotencyStore(objectMapper, 100, 0);
+
+        store.execute("POST /animals", "key-1", Map.of("name", "Барсик"), this::create);
+        store.execute("POST /animals", "key-1", Map.of("name", "Мурзик"), this::create);
+
+        assertThat(calls).hasValue(2);
+    }
+
+    @Test
+    void failedRequestReleasesKey() {
+        IdempotencyStore store = new IdempotencyStore(objectMapper, 100, 3600);
+
+        assertThatThrownBy(() -> store.execute("POST /animals", "key-1", Map.of("name", "Барсик"),
+                () -> {
+                    throw new IllegalStateException("database is down");
+                })).isInstanceOf(IllegalStateException.class);
+        store.execute("POST /animals", "key-1", Map.of("name", "Барсик"), this::create);
+
+        assertThat(calls).hasValue(1);
+    }
+
+    private ResponseEntity<Integer> create() {
+        return ResponseEntity.ok(calls.incrementAndGet());
+    }
+}
@@ -0,0 +1,94 @@
+package com.psu.vet_clinic.web;
+
+import com.psu.vet_clinic.config.ReplicaAwareDataSource;
+import com.psu.vet_clinic.exception.ServiceOverloadedException;
+import com.psu.vet_clinic.exception.TooManyRequestsException;
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.HikariPoolMXBean;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.HandlerMapping;
+
+import javax.sql.DataSource;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Проверяет выбор корзины клиента: неизвестный ключ API не дает новой корзины,
+ * а при исчерпании лимита корзин новые клиенты делят общую корзину эндпоинта.
+ * Насыщение проверяется по пулу, который обслуживает чтения.
+ */
+class RateLimitInterceptorTests {
+
+    private final HandlerMethod handler = mock(HandlerMethod.class);
+
+    @Test
+    void unknownApiKeysShareBucketOfRemoteAddress() {
+        RateLimitInterceptor interceptor = interceptor(Set.of("known"), 100);
+
+        assertThat(interceptor.preHandle(request("10.0.0.1", "random-1"), new MockHttpServletResponse(), handler)).isTrue();
+        assertThatThrownBy(() -> interceptor.preHandle(request("10.0.0.1", "random-2"), new MockHttpServletResponse(), handler))
+                .isInstanceOf(TooManyRequestsException.class);
+
+        // Известный ключ получает свою корзину независимо от адреса
+        assertThat(interceptor.preHandle(request("10.0.0.1", "known"), new MockHttpServletResponse(), handler)).isTrue();
+    }
+
+    @Test
+    void clientsBeyondBucketLimitShareOverflowBucket() {
+        RateLimitInterceptor interceptor = interceptor(Set.of(), 1);
+
+        assertThat(interceptor.preHandle(request("10.0.0.1", null), new MockHttpServletResponse(), handler)).isTrue();
+        assertThat(interceptor.preHandle(request("10.0.0.2", null), new MockHttpServletResponse(), handler)).isTrue();
+        assertThatThrownBy(() -> interceptor.preHandle(request("10.0.0.3", null), new MockHttpServletResponse(), handler))
+                .isInstanceOf(TooManyRequestsException.class);
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void expensiveReadsAreShedWhenReplicaPoolIsSaturated() {
+        HikariPoolMXBean replicaPool = mock(HikariPoolMXBean.class);
+        when(replicaPool.getThreadsAwaitingConnection()).thenReturn(1);
+        HikariDataSource replica = mock(HikariDataSource.class);
+        when(replica.getHikariPoolMXBean()).thenReturn(replicaPool);
+        ReplicaAwareDataSource readDataSource = mock(ReplicaAwareDataSource.class);
+        when(readDataSource.getTargetDataSource()).thenReturn(replica);
+        when(readDataSource.isReplicaUsable()).thenReturn(true);
+        ObjectProvider<ReplicaAwareDataSource> provider = mock(ObjectProvider.class);
+        when(provider.getIfAvailable()).thenReturn(readDataSource);
+        RateLimitInterceptor interceptor = new RateLimitInterceptor(new SimpleMeterRegistry(), mock(DataSource.class),
+                provider, true, 100, 100, "X-API-Key", Set.of(), 100, Set.of("GET /animals/{id}"), 4, 1);
+
+        assertThatThrownBy(() -> interceptor.preHandle(request("10.0.0.1", null), new MockHttpServletResponse(), handler))
+                .isInstanceOf(ServiceOverloadedException.class);
+
+        // Пока реплика недоступна, чтения обслуживает основная база данных, и пул реплики не учитывается
+        when(readDataSource.isReplicaUsable()).thenReturn(false);
+        assertThat(interceptor.preHandle(request("10.0.0.1", null), new MockHttpServletResponse(), handler)).isTrue();
+    }
+
+    @SuppressWarnings("unchecked")
+    private static RateLimitInterceptor interceptor(Set<String> apiKeys, int maxBuckets) {
+        // Один запрос без пополнения в пределах теста
+        return new RateLimitInterceptor(new SimpleMeterRegistry(), mock(DataSource.class), mock(ObjectProvider.class),
+                true, 0.001, 1, "X-API-Key", apiKeys, maxBuckets, Set.of(), 4, 1);
+    }
+
+    private static MockHttpServletRequest request(String remoteAddress, String apiKey) {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/animals/1");
+        request.setRemoteAddr(remoteAddress);
+        request.setAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE, "/animals/{id}");
+        if (apiKey != null) {
+            request.addHeader("X-API-Key", apiKey);
+        }
+        return request;
+    }
+}
@@ -0,0 +1,41 @@
+package com.psu.vet_clinic.web;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.awaitility.Awaitility.await;
+
+/**
+ * Проверяет корзину токенов: допустимый всплеск, время ожидания следующего токена и пополнение.
+ */
+class TokenBucketTests {
+
+    @Test
+    void burstIsAllowedThenWaitUntilNextToken() {
+        TokenBucket bucket = new TokenBucket(3, 1);
+
+        assertThat(bucket.tryAcquire()).isZero();
+        assertThat(bucket.tryAcquire()).isZero();
+        assertThat(bucket.tryAcquire()).isZero();
+
+        long waitNanos = bucket.tryAcquire();
+        assertThat(waitNanos).isPositive().isLessThanOrEqualTo(TimeUnit.SECONDS.toNanos(1));
+        assertThat(bucket.isFull()).isFalse();
+    }
+
+    @Test
+    void tokensAreRefilledUpToCapacity() {
+        TokenBucket bucket = new TokenBucket(2, 1000);
+        bucket.tryAcquire();
+        bucket.tryAcquire();
+
+        await().atMost(1, TimeUnit.SECONDS).until(bucket::isFull);
+
+        // Пополнение не превышает объем корзины
+        assertThat(bucket.tryAcquire()).isZero();
+        assertThat(bucket.tryAcquire()).isZero();
+        assertThat(bucket.tryAcquire()).isPositive();
+    }
+}